@@ -0,0 +1,87 @@
+/*
+ * Copyright (c) 2023 See AUTHORS file.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.tommyettinger.textra;
+
+import com.badlogic.gdx.ApplicationAdapter;
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.backends.headless.HeadlessApplication;
+import com.badlogic.gdx.backends.headless.HeadlessApplicationConfiguration;
+
+/**
+ * Shared setup for the benchmarks here. This starts a headless libGDX application at most once per JVM, so that
+ * {@link KnownFonts} can load fonts (textures are created against a mock GL context), and builds markup texts of
+ * various lengths.
+ */
+public final class BenchmarkSupport {
+    private BenchmarkSupport() {
+    }
+
+    private static final String SAMPLE = "The [*]quick[*] brown [/]fox[/] jumps over the [RED]lazy[] dog, "
+            + "and [_]then[_] it [~]naps[~] in the [#4488FFFF]shade[] for a [%150]while[%] before "
+            + "[light green]waking[] up; [!]Who[!] could [=]blame[=] it? [%?black outline]Nobody[%] could. ";
+
+    /**
+     * Starts the headless application if it hasn't been started yet.
+     */
+    public static synchronized void init() {
+        if (Gdx.app == null) {
+            HeadlessApplicationConfiguration config = new HeadlessApplicationConfiguration();
+            config.updatesPerSecond = -1;
+            new HeadlessApplication(new ApplicationAdapter() {
+            }, config);
+        }
+    }
+
+    /**
+     * Gets a Font from {@link KnownFonts} by a short name, used as a JMH parameter.
+     * @param name one of "Gentium", "Cozette", "LanaPixel", or "IBM8x16"
+     * @return a new copy of the requested Font
+     */
+    public static Font font(String name) {
+        init();
+        switch (name) {
+            case "Gentium": return KnownFonts.getGentium();
+            case "Cozette": return KnownFonts.getCozette();
+            case "LanaPixel": return KnownFonts.getLanaPixel();
+            case "IBM8x16": return KnownFonts.getIBM8x16();
+            default: throw new IllegalArgumentException("Unknown benchmark font: " + name);
+        }
+    }
+
+    /**
+     * Builds a String with square-bracket markup that has at least {@code length} chars, ending on a word boundary.
+     * @param length the minimum length of the text, counting markup
+     * @return a markup String at least as long as length
+     */
+    public static String markupText(int length) {
+        StringBuilder sb = new StringBuilder(length + SAMPLE.length());
+        while (sb.length() < length) {
+            sb.append(SAMPLE);
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Builds a String with curly-brace TypingLabel tokens around most of a markup text, using the given effect.
+     * @param effectName the name of an effect registered with {@link TypingConfig#registerEffect(String, Effect.EffectBuilder)}
+     * @param length the minimum length of the inner text
+     * @return a String that applies the named effect to the text, with square-bracket markup still present
+     */
+    public static String effectText(String effectName, int length) {
+        return "{" + effectName + "}" + markupText(length) + "{END" + effectName + "}";
+    }
+}
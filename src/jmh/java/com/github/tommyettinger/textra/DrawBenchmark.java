@@ -0,0 +1,63 @@
+/*
+ * Copyright (c) 2023 See AUTHORS file.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.tommyettinger.textra;
+
+import com.badlogic.gdx.utils.Align;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks {@link Font#drawGlyphs(com.badlogic.gdx.graphics.g2d.Batch, Layout, float, float, int)} against a
+ * {@link CountingBatch}, which measures the cost of building vertices without any GPU work.
+ * Run with {@code gradlew jmh -PjmhArgs="DrawBenchmark"}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DrawBenchmark {
+    @Param({"Gentium", "Cozette", "LanaPixel", "IBM8x16"})
+    public String fontName;
+
+    @Param({"64", "1024", "16384"})
+    public int length;
+
+    private Font font;
+    private Layout layout;
+    private CountingBatch batch;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        font = BenchmarkSupport.font(fontName);
+        layout = new Layout(font);
+        layout.setTargetWidth(font.cellWidth * 80f);
+        font.markup(BenchmarkSupport.markupText(length), layout);
+        batch = new CountingBatch();
+    }
+
+    @Benchmark
+    public long drawGlyphs() {
+        batch.resetCounts();
+        batch.begin();
+        font.drawGlyphs(batch, layout, 0f, 0f, Align.left);
+        batch.end();
+        return batch.quads + batch.checksum;
+    }
+}
@@ -0,0 +1,61 @@
+/*
+ * Copyright (c) 2023 See AUTHORS file.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.tommyettinger.textra;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks {@link TypingLabel#act(float)} with each effect registered by default in {@link TypingConfig}, applied to
+ * all the text in a label that has already finished typing, so every glyph is affected every frame.
+ * Run with {@code gradlew jmh -PjmhArgs="EffectBenchmark"}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EffectBenchmark {
+    @Param({"EASE", "HANG", "JUMP", "SHAKE", "SICK", "SLIDE", "WAVE", "WIND", "RAINBOW", "GRADIENT", "FADE", "BLINK",
+            "JOLT", "SPIRAL", "SPIN", "CROWD", "SHRINK", "EMERGE", "HEARTBEAT", "CAROUSEL", "SQUASH", "SCALE", "ROTATE",
+            "HIGHLIGHT", "LINK", "TRIGGER", "ATTENTION", "STYLIST", "CANNON", "OCEAN", "SPUTTER"})
+    public String effect;
+
+    @Param({"64", "1024"})
+    public int length;
+
+    private TypingLabel label;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        BenchmarkSupport.init();
+        if (!TypingConfig.EFFECT_START_TOKENS.containsKey(effect))
+            throw new IllegalStateException("Effect " + effect + " is not registered in TypingConfig.");
+        label = new TypingLabel(BenchmarkSupport.effectText(effect, length), BenchmarkSupport.font("Gentium"));
+        label.setSize(label.getPrefWidth(), label.getPrefHeight());
+        label.skipToTheEnd();
+        label.act(1f / 60f);
+    }
+
+    @Benchmark
+    public int act() {
+        label.act(1f / 60f);
+        return label.activeEffects.size;
+    }
+}
@@ -0,0 +1,78 @@
+/*
+ * Copyright (c) 2023 See AUTHORS file.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.tommyettinger.textra;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for parsing markup into a {@link Layout}, re-wrapping an existing Layout, and measuring one.
+ * Run with {@code gradlew jmh -PjmhArgs="LayoutBenchmark"}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LayoutBenchmark {
+    @Param({"Gentium", "Cozette", "LanaPixel", "IBM8x16"})
+    public String fontName;
+
+    @Param({"64", "1024", "16384"})
+    public int length;
+
+    private Font font;
+    private String text;
+    private Layout layout;
+    private Layout wrapped;
+    private float narrow, wide;
+    private boolean flip;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        font = BenchmarkSupport.font(fontName);
+        text = BenchmarkSupport.markupText(length);
+        layout = new Layout(font);
+        font.markup(text, layout);
+        narrow = font.cellWidth * 30f;
+        wide = font.cellWidth * 80f;
+        wrapped = new Layout(font);
+        wrapped.setTargetWidth(wide);
+        font.markup(text, wrapped);
+    }
+
+    @Benchmark
+    public Layout markup() {
+        return font.markup(text, layout.clear());
+    }
+
+    /**
+     * Alternates between two target widths, so every call has to actually move line breaks.
+     */
+    @Benchmark
+    public Layout regenerateLayout() {
+        wrapped.setTargetWidth((flip = !flip) ? narrow : wide);
+        return font.regenerateLayout(wrapped);
+    }
+
+    @Benchmark
+    public float calculateSize() {
+        return font.calculateSize(layout);
+    }
+}
@@ -0,0 +1,61 @@
+/*
+ * Copyright (c) 2023 See AUTHORS file.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.tommyettinger.textra;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks {@link Parser#parseTokens(TypingLabel)} on texts with effect, speed, event, wait, and color tokens.
+ * Parsing consumes the tokens in a label's text, so the text is restored before each invocation; that restoration
+ * isn't measured, but it does mean the smallest inputs here are near the resolution JMH can measure reliably.
+ * Run with {@code gradlew jmh -PjmhArgs="ParserBenchmark"}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ParserBenchmark {
+    @Param({"64", "1024", "16384"})
+    public int length;
+
+    private TypingLabel label;
+    private String preprocessed;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        Font font = BenchmarkSupport.font("Gentium");
+        String text = "{SLOW}{EVENT=start}" + BenchmarkSupport.effectText("WAVE", length)
+                + "{COLOR=RED}{WAIT=0.5}{SHAKE}" + BenchmarkSupport.markupText(length >>> 2) + "{ENDSHAKE}{CLEARCOLOR}";
+        label = new TypingLabel(text, font);
+        preprocessed = Parser.preprocess("{NORMAL}" + label.getDefaultToken() + label.getOriginalText());
+    }
+
+    @Setup(Level.Invocation)
+    public void restore() {
+        label.setText(preprocessed, false, false);
+    }
+
+    @Benchmark
+    public int parseTokens() {
+        Parser.parseTokens(label);
+        return label.tokenEntries.size;
+    }
+}
@@ -21,6 +21,9 @@ import com.badlogic.gdx.graphics.Color;
 import com.badlogic.gdx.graphics.Colors;
 import com.github.tommyettinger.textra.utils.ColorUtils;
 
+import java.util.LinkedHashMap;
+import java.util.Map;
+
 /**
  * Allows looking up an RGBA8888 int color given a String key, returning either the color or 256 if none was found.
  * This is an extension point for games and libraries that may want their own way of looking up colors. This can be
@@ -38,6 +41,17 @@ public interface ColorLookup {
      */
     GdxColorLookup INSTANCE = GdxColorLookup.INSTANCE;
 
+    /**
+     * Parses a description using {@link ColorUtils#describe(String)}, like {@link #DESCRIPTIVE}, but never caches
+     * results. This is the ColorLookup that DESCRIPTIVE wraps.
+     */
+    ColorLookup DESCRIPTIVE_UNCACHED = new ColorLookup() {
+        @Override
+        public int getRgba(String description) {
+            return ColorUtils.describe(description);
+        }
+    };
+
     /**
      * An alternative ColorLookup, this parses a description such as "peach red" or "DARK DULLEST GREEN" using
      * {@link ColorUtils#describe(String)} (See its docs for more information). The colors available are in
@@ -45,13 +59,14 @@ public interface ColorLookup {
      * "dull", and all versions of those with the suffixes "-er", "-est", or "-most". Case is effectively ignored for
      * adjectives, but in some cases it can matter for color names -- ALL_CAPS names are ones from the libGDX class
      * {@link Colors}, while lowercase ones are defined by this library.
+     * <br>
+     * The same few descriptions tend to be looked up over and over, so this remembers up to 512 results in a
+     * {@link CachingColorLookup}. {@link com.github.tommyettinger.textra.utils.Palette#addColor(String, int)} clears
+     * that cache; if you change {@link com.github.tommyettinger.textra.utils.Palette#NAMED} or libGDX's {@link Colors}
+     * any other way, call {@code ((CachingColorLookup) DESCRIPTIVE).clear()} so descriptions are looked up again. To always describe colors
+     * from scratch, use {@link #DESCRIPTIVE_UNCACHED}.
      */
-    ColorLookup DESCRIPTIVE = new ColorLookup() {
-        @Override
-        public int getRgba(String description) {
-            return ColorUtils.describe(description);
-        }
-    };
+    ColorLookup DESCRIPTIVE = new CachingColorLookup(DESCRIPTIVE_UNCACHED, 512);
 
     /**
      * Uses {@code key} to look up an RGBA8888 color, and returns that color as an int if one was found, or returns
@@ -85,4 +100,65 @@ public interface ColorLookup {
             return c == null ? 256 : Color.rgba8888(c);
         }
     }
+
+    /**
+     * Wraps another ColorLookup and remembers the colors it returns, so looking up the same key again doesn't have to
+     * parse or mix anything. This holds at most {@link #capacity} keys, removing the least-recently-used one when it is
+     * full. It can be used from multiple threads at once, such as when laying out text on other threads with
+     * {@link Font#markup(String, Layout, MarkupContext)}. This assumes the wrapped ColorLookup always returns the same
+     * color for the same key; if that changes, call {@link #clear()}.
+     */
+    class CachingColorLookup implements ColorLookup {
+        /**
+         * The ColorLookup that keys are looked up in when they aren't cached.
+         */
+        public final ColorLookup wrapped;
+        /**
+         * The most keys this can remember.
+         */
+        public final int capacity;
+
+        private final LinkedHashMap<String, Integer> cache;
+
+        /**
+         * Creates a CachingColorLookup that remembers up to {@code capacity} colors from {@code wrapped}.
+         *
+         * @param wrapped  the ColorLookup to get colors from when they aren't cached; must not be null
+         * @param capacity the maximum number of keys to remember; will be at least 1
+         */
+        public CachingColorLookup(ColorLookup wrapped, int capacity) {
+            if (wrapped == null) throw new RuntimeException("The wrapped ColorLookup must not be null.");
+            this.wrapped = wrapped;
+            this.capacity = Math.max(1, capacity);
+            cache = new LinkedHashMap<String, Integer>(Math.min(this.capacity, 1024), 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, Integer> eldest) {
+                    return size() > CachingColorLookup.this.capacity;
+                }
+            };
+        }
+
+        @Override
+        public int getRgba(String key) {
+            Integer cached;
+            synchronized (cache) {
+                cached = cache.get(key);
+            }
+            if (cached != null) return cached;
+            int rgba = wrapped.getRgba(key);
+            synchronized (cache) {
+                cache.put(key, rgba);
+            }
+            return rgba;
+        }
+
+        /**
+         * Forgets every cached color, such as after changing the colors the wrapped ColorLookup knows about.
+         */
+        public void clear() {
+            synchronized (cache) {
+                cache.clear();
+            }
+        }
+    }
 }
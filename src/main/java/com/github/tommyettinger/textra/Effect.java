@@ -35,6 +35,17 @@ public abstract class Effect {
      * This is expected to be assigned by {@link TypingConfig#registerEffect(String, EffectBuilder)}, not manually.
      */
     public String name;
+    /**
+     * The effect token name and parameters this was produced for, such as {@code "WAVE"} and {@code "1;2"}. A
+     * TypingLabel reuses this Effect for the same token and parameters after calling {@link #reset()}, if
+     * {@link #reusable()} returns true; these are assigned by the TypingLabel.
+     */
+    String poolToken, poolParams;
+    /**
+     * The value of {@link TypingConfig#effectGeneration} when this was produced; a TypingLabel won't reuse this
+     * Effect once effects have been registered or unregistered since then.
+     */
+    int poolGeneration;
 
     public Effect(TypingLabel label) {
         this.label = label;
@@ -49,6 +60,31 @@ public abstract class Effect {
         totalTime += delta;
     }
 
+    /**
+     * Returns this Effect to the state it had just after it was produced, so a TypingLabel can reuse it when it meets
+     * the same effect token with the same parameters again, instead of producing a new Effect. Parameters read by the
+     * constructor are kept. Subclasses that keep their own state while running, such as timers or offsets for each
+     * glyph, must override this to call {@code super.reset()} and then clear that state, and should override
+     * {@link #reusable()} to return true.
+     */
+    public void reset() {
+        totalTime = 0f;
+        indexStart = -1;
+        indexEnd = -1;
+    }
+
+    /**
+     * Returns true if this Effect can be {@link #reset()} and reused by a TypingLabel when the same effect token with
+     * the same parameters shows up again. This is false by default, so a subclass that keeps its own state while
+     * running is never reused by accident; override this to return true only once {@link #reset()} clears all of that
+     * state. Effects that return false are simply dropped when they finish.
+     *
+     * @return true if this Effect can be reset and reused; false by default
+     */
+    public boolean reusable() {
+        return false;
+    }
+
     /**
      * Applies the effect to the given glyph.
      */
@@ -62,6 +98,28 @@ public abstract class Effect {
      */
     protected abstract void onApply(long glyph, int localIndex, int globalIndex, float delta);
 
+    /**
+     * Applies this effect to every glyph in the label's working layout from {@code start} to {@code end}, both
+     * inclusive, as global indices. {@link TypingLabel} calls this once per effect each frame, after making
+     * {@link TypingLabel#offsets}, {@link TypingLabel#sizing}, and {@link TypingLabel#rotations} large enough to hold
+     * every glyph in the range. The default implementation calls {@link #onApply(long, int, int, float)} for each
+     * glyph, stopping early at an invalid glyph. Effects can override this to calculate anything that doesn't depend
+     * on the glyph (such as progress or fadeout) only once per frame, and to add to the {@code items} arrays of
+     * those FloatArrays directly in a tight loop.
+     *
+     * @param start the first global glyph index to affect
+     * @param end   the last global glyph index to affect, inclusive
+     * @param delta the time in seconds since the last frame
+     */
+    public void applyRange(int start, int end, float delta) {
+        Layout layout = label.getWorkingLayout();
+        for (int i = start; i <= end; i++) {
+            long glyph = label.getInLayout(layout, i);
+            if (glyph == 0xFFFFFFL) break; // invalid char
+            onApply(glyph, i - indexStart, i, delta);
+        }
+    }
+
     /**
      * Returns whether this effect is finished and should be removed. Note that effects are infinite by default.
      */
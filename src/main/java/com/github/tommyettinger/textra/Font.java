@@ -32,6 +32,12 @@ import com.github.tommyettinger.textra.utils.CaseInsensitiveIntMap;
 import com.github.tommyettinger.textra.utils.ColorUtils;
 import regexodus.Category;
 
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
 import java.util.Arrays;
 
 /**
@@ -377,6 +383,10 @@ public class Font implements Disposable {
      * Maps char keys (stored as ints) to their corresponding {@link GlyphRegion} values. You can add arbitrary images
      * to this mapping if you create appropriate GlyphRegion values (as with
      * {@link GlyphRegion#GlyphRegion(TextureRegion, float, float, float, float)}), though they must map to a char.
+     * <br>
+     * A Font made with {@link #Font(Font)} shares this mapping (and the GlyphRegions in it) with the Font it copied,
+     * until either one changes it with a method like {@link #addAtlas(TextureAtlas)}. If you change this mapping or
+     * its GlyphRegions directly, call {@link #unshareGlyphs()} first so other Fonts aren't affected.
      */
     public IntMap<GlyphRegion> mapping;
 
@@ -425,6 +435,25 @@ public class Font implements Disposable {
      * it, which applies to the x-position of the later char.
      */
     public IntFloatMap kerning;
+
+    /**
+     * True if {@link #mapping}, its GlyphRegions, {@link #nameLookup}, {@link #namesByCharCode}, and {@link #kerning}
+     * may be shared with another Font, because one was copied from the other with {@link #Font(Font)}. Methods that
+     * change any of those call {@link #unshareGlyphs()} first, which copies them if this is true.
+     */
+    protected boolean sharedGlyphs = false;
+
+    /**
+     * A paged copy of {@link #mapping} used by {@link #getGlyph(int, GlyphRegion)}; built when first needed and
+     * rebuilt when mapping is replaced or changes size.
+     */
+    private GlyphTable glyphTable;
+
+    /**
+     * A compact, sorted copy of {@link #kerning} used by {@link #getKerning(int)}; built when first needed and rebuilt
+     * when kerning is replaced or changes size.
+     */
+    private KerningTable kerningTable;
     /**
      * When {@link #distanceField} is {@link DistanceFieldType#SDF} or {@link DistanceFieldType#MSDF}, this determines
      * how much the edges of the glyphs should be aliased sharply (higher values) or anti-aliased softly (lower values).
@@ -656,6 +685,29 @@ public class Font implements Disposable {
      */
     public static final long NOTE = 14L << 20 | ALTERNATE;
 
+    /**
+     * The file extension used for the compact binary font format written by
+     * {@link #convertToBinary(FileHandle, FileHandle)}. Any constructor that takes the name of a .fnt or SadConsole .font
+     * file will read the binary format instead if the name it is given ends with this extension.
+     */
+    public static final String BINARY_EXTENSION = ".fnb";
+    /**
+     * The first four bytes of any file in the binary font format, as a big-endian int; these are the ASCII chars "TXFB".
+     */
+    public static final int BINARY_MAGIC = 0x54584642;
+    /**
+     * The current version of the binary font format; files with any other version are rejected.
+     */
+    public static final int BINARY_VERSION = 1;
+    /**
+     * The kind byte used in the binary font format for data converted from an AngelCode BMFont .fnt file.
+     */
+    public static final int BINARY_KIND_FNT = 0;
+    /**
+     * The kind byte used in the binary font format for data converted from a SadConsole .font file.
+     */
+    public static final int BINARY_KIND_SAD = 1;
+
     /**
      * The color black, as a packed float using the default RGBA color space.
      * This can be overridden by subclasses that either use a different color space,
@@ -863,8 +915,10 @@ public class Font implements Disposable {
 
     private final float[] vertices = new float[20];
     private final Layout tempLayout = new Layout();
-    private final LongArray glyphBuffer = new LongArray(128);
-    private final LongArray historyBuffer = new LongArray(64);
+    /**
+     * Used by {@link #markup(String, Layout)}; other threads should use their own MarkupContext.
+     */
+    private final MarkupContext markupContext = new MarkupContext();
     /**
      * Must be in lexicographic order because we use {@link Arrays#binarySearch(char[], int, int, char)} to
      * verify if a char is present.
@@ -1000,6 +1054,144 @@ public class Font implements Disposable {
 //            + "  gl_FragColor = vec4(v_color.rgb, clamp((max(min(sdf.r, sdf.g), min(max(sdf.r, sdf.g), sdf.b)) - 0.5) * u_smoothing + 0.5, 0.0, 1.0) * v_color.a);\n"
 //            + "}\n";
 
+    /**
+     * Vertex shader source used with {@link #effectFragmentShader} by {@link #useEffectShader(boolean)}. Glyphs that
+     * need an outline, shadow, shine, or bold effect have extra data packed into the integer part of their U texture
+     * coordinate: which effect to use, and which corner of the quad each vertex is. Quads with a U coordinate less
+     * than 3.5 are drawn normally, so underlines, backgrounds, and anything else still work with this shader.
+     */
+    public static final String effectVertexShader = "attribute vec4 " + ShaderProgram.POSITION_ATTRIBUTE + ";\n"
+            + "attribute vec4 " + ShaderProgram.COLOR_ATTRIBUTE + ";\n"
+            + "attribute vec2 " + ShaderProgram.TEXCOORD_ATTRIBUTE + "0;\n"
+            + "uniform mat4 u_projTrans;\n"
+            + "varying vec4 v_color;\n"
+            + "varying vec2 v_texCoords;\n"
+            + "varying vec2 v_corner;\n"
+            + "varying vec2 v_low;\n"
+            + "varying vec2 v_high;\n"
+            + "varying float v_mode;\n"
+            + "\n"
+            + "void main() {\n"
+            + "	v_color = " + ShaderProgram.COLOR_ATTRIBUTE + ";\n"
+            + "	v_color.a = v_color.a * (255.0/254.0);\n"
+            + "	vec2 uv = " + ShaderProgram.TEXCOORD_ATTRIBUTE + "0;\n"
+            + "	if (uv.x < 3.5) {\n"
+            + "		v_mode = -1.0;\n"
+            + "		v_corner = vec2(0.5);\n"
+            + "		v_low = vec2(0.0);\n"
+            + "		v_high = vec2(0.0);\n"
+            + "	} else {\n"
+            + "		float code = floor(uv.x * 0.25);\n"
+            + "		uv.x = uv.x - 4.0 * code - 1.0;\n"
+            + "		code = code - 1.0;\n"
+            + "		float cy = floor((code + 0.5) / 20.0);\n"
+            + "		code = code - cy * 20.0;\n"
+            + "		float cx = floor((code + 0.5) / 10.0);\n"
+            + "		v_mode = code - cx * 10.0;\n"
+            + "		v_corner = vec2(cx, cy);\n"
+            + "		v_low = (1.0 - v_corner) * uv;\n"
+            + "		v_high = v_corner * uv;\n"
+            + "	}\n"
+            + "	v_texCoords = uv;\n"
+            + "	gl_Position =  u_projTrans * " + ShaderProgram.POSITION_ATTRIBUTE + ";\n"
+            + "}\n";
+
+    /**
+     * Fragment shader source used by {@link #useEffectShader(boolean)} to draw an outline, drop shadow, shine, and/or
+     * bold effect for a glyph using one quad, instead of drawing the glyph several times. The effect is found by
+     * sampling the glyph's texture at a few offsets, each measured in texels, and only inside the glyph's own region, so
+     * other glyphs in the same texture don't bleed in. The uniforms are set by {@link #enableShader(Batch)} and
+     * {@link #drawGlyph(Batch, long, float, float, float, float, float, int)}.
+     */
+    public static final String effectFragmentShader =
+            "#ifdef GL_ES\n"
+                    + "#ifdef GL_FRAGMENT_PRECISION_HIGH\n"
+                    + "	precision highp float;\n"
+                    + "#else\n"
+                    + "	precision mediump float;\n"
+                    + "#endif\n"
+                    + "#endif\n"
+                    + "\n"
+                    + "uniform sampler2D u_texture;\n"
+                    + "uniform vec2 u_texel;\n"
+                    + "uniform vec2 u_margin;\n"
+                    + "uniform float u_boldStrength;\n"
+                    + "uniform vec4 u_black;\n"
+                    + "uniform vec4 u_white;\n"
+                    + "uniform vec4 u_shadow;\n"
+                    + "varying vec4 v_color;\n"
+                    + "varying vec2 v_texCoords;\n"
+                    + "varying vec2 v_corner;\n"
+                    + "varying vec2 v_low;\n"
+                    + "varying vec2 v_high;\n"
+                    + "varying float v_mode;\n"
+                    + "\n"
+                    + "float glyphAlpha(vec2 uv, vec2 lo, vec2 hi) {\n"
+                    + "	vec2 inside = step(lo, uv) * step(uv, hi);\n"
+                    + "	return texture2D(u_texture, uv).a * inside.x * inside.y;\n"
+                    + "}\n"
+                    + "\n"
+                    + "void main() {\n"
+                    + "	if (v_mode < 0.0) {\n"
+                    + "		gl_FragColor = v_color * texture2D(u_texture, v_texCoords);\n"
+                    + "		return;\n"
+                    + "	}\n"
+                    + "	vec2 uv = v_texCoords;\n"
+                    // the corners of the enlarged quad, recovered from values that were only non-zero on one side
+                    + "	vec2 a = v_low / max(1.0 - v_corner, 0.0001);\n"
+                    + "	vec2 b = v_high / max(v_corner, 0.0001);\n"
+                    + "	vec2 lo = min(a, b) + u_margin * u_texel;\n"
+                    + "	vec2 hi = max(a, b) - u_margin * u_texel;\n"
+                    + "	float mode = floor(v_mode + 0.5);\n"
+                    + "	float bold = step(4.5, mode);\n"
+                    + "	mode = mode - 5.0 * bold;\n"
+                    + "	vec4 center = texture2D(u_texture, uv);\n"
+                    + "	float ga = glyphAlpha(uv, lo, hi);\n"
+                    + "	vec3 gc = v_color.rgb * mix(vec3(1.0), center.rgb, step(0.001, ga));\n"
+                    + "	vec2 tx = vec2(u_texel.x, 0.0);\n"
+                    + "	if (bold > 0.5) {\n"
+                    + "		if (u_boldStrength >= 0.0) {\n"
+                    + "			ga = max(ga, glyphAlpha(uv - tx, lo, hi));\n"
+                    + "			ga = max(ga, glyphAlpha(uv - 0.5 * tx, lo, hi));\n"
+                    + "		}\n"
+                    + "		if (u_boldStrength >= 1.0) {\n"
+                    + "			ga = max(ga, glyphAlpha(uv + u_boldStrength * tx, lo, hi));\n"
+                    + "			ga = max(ga, glyphAlpha(uv + 0.5 * u_boldStrength * tx, lo, hi));\n"
+                    + "		}\n"
+                    + "	}\n"
+                    + "	float ea = 0.0;\n"
+                    + "	vec4 ec = u_white;\n"
+                    + "	if (mode > 0.5 && mode < 1.5) {\n"
+                    + "		ea = glyphAlpha(uv + vec2(-u_texel.x, -2.0 * u_texel.y), lo, hi);\n"
+                    + "		ec = u_shadow;\n"
+                    + "	} else if (mode > 1.5 && mode < 3.5) {\n"
+                    + "		float wa = 1.0 + bold;\n"
+                    + "		for (int xi = -2; xi <= 2; xi++) {\n"
+                    + "			float fx = float(xi);\n"
+                    + "			if (abs(fx) > wa) continue;\n"
+                    + "			float xa = fx;\n"
+                    + "			if (wa > 1.5 && (fx > 0.0 || u_boldStrength >= 1.0)) xa *= u_boldStrength;\n"
+                    + "			for (int yi = -1; yi <= 1; yi++) {\n"
+                    + "				if (xi == 0 && yi == 0) continue;\n"
+                    + "				ea = max(ea, glyphAlpha(uv + vec2(-xa * u_texel.x, float(yi) * u_texel.y), lo, hi));\n"
+                    + "			}\n"
+                    + "		}\n"
+                    + "		ec = mode < 2.5 ? u_black : u_white;\n"
+                    + "	} else if (mode > 3.5) {\n"
+                    + "		for (int xi = -1; xi <= 1; xi++) {\n"
+                    + "			float fx = float(xi);\n"
+                    + "			if (abs(fx) > bold) continue;\n"
+                    + "			float xa = fx;\n"
+                    + "			if (bold > 0.5 && (fx > 0.0 || u_boldStrength >= 1.0)) xa *= u_boldStrength;\n"
+                    + "			ea = max(ea, glyphAlpha(uv + vec2(-xa * u_texel.x, 1.5 * u_texel.y), lo, hi));\n"
+                    + "		}\n"
+                    + "	}\n"
+                    + "	ga *= v_color.a;\n"
+                    + "	ea *= ec.a * v_color.a;\n"
+                    + "	float alpha = ga + ea * (1.0 - ga);\n"
+                    + "	gl_FragColor = vec4((gc * ga + ec.rgb * ea * (1.0 - ga)) / max(alpha, 0.0001), alpha);\n"
+                    + "}\n";
+
     /**
      * The ShaderProgram used to render this font, as used by {@link #enableShader(Batch)}.
      * If this is null, the font will be rendered with the Batch's default shader.
@@ -1014,6 +1206,25 @@ public class Font implements Disposable {
      */
     public ShaderProgram shader = null;
 
+    /**
+     * True if {@link #shader} was created by {@link #useEffectShader(boolean)}, and glyphs with outline, shadow, shine,
+     * or bold effects should each be drawn as one quad when that shader is in use.
+     */
+    protected boolean effectShader = false;
+    /**
+     * True only if this Font created {@link #shader} in {@link #useEffectShader(boolean)}. This is never copied by
+     * {@link #Font(Font)}, so a copy that shares the effect shader won't dispose it while the original still uses it.
+     */
+    private boolean ownsEffectShader = false;
+    /**
+     * The Texture whose texel size was last given to the effect shader; the uniform is changed when this changes.
+     */
+    private Texture effectTexture = null;
+    /**
+     * Scratch Color used to pass the packed outline and shadow colors to the effect shader without allocating.
+     */
+    private static final Color effectColor = new Color();
+
     //// font parsing section
 
     private static final int[] hexCodes = new int[]
@@ -1351,7 +1562,10 @@ public class Font implements Disposable {
 
     /**
      * Copy constructor; does not copy the font's {@link #shader} or {@link #colorLookup}, if it has them (it uses the
-     * same reference for the new Font), but will fully copy everything else.
+     * same reference for the new Font), but will fully copy everything else. The glyph tables ({@link #mapping},
+     * {@link #nameLookup}, {@link #namesByCharCode}, and {@link #kerning}) are shared with toCopy at first, which
+     * makes copying large fonts cheap; whichever Font changes them later gets its own copy then, as by
+     * {@link #unshareGlyphs()}.
      *
      * @param toCopy another Font to copy
      */
@@ -1390,17 +1604,14 @@ public class Font implements Disposable {
         inlineImageOffsetY = toCopy.inlineImageOffsetY;
         inlineImageXAdvance = toCopy.inlineImageXAdvance;
 
-        mapping = new IntMap<>(toCopy.mapping.size);
-        for (IntMap.Entry<GlyphRegion> e : toCopy.mapping) {
-            if (e.value == null) continue;
-            mapping.put(e.key, new GlyphRegion(e.value));
-        }
-        if(toCopy.nameLookup != null)
-            nameLookup = new CaseInsensitiveIntMap(toCopy.nameLookup);
-        if(toCopy.namesByCharCode != null)
-            namesByCharCode = new IntMap<>(toCopy.namesByCharCode);
+        mapping = toCopy.mapping;
+        nameLookup = toCopy.nameLookup;
+        namesByCharCode = toCopy.namesByCharCode;
+        kerning = toCopy.kerning;
+        sharedGlyphs = toCopy.sharedGlyphs = true;
+        glyphTable = toCopy.glyphTable;
+        kerningTable = toCopy.kerningTable;
         defaultValue = toCopy.defaultValue;
-        kerning = toCopy.kerning == null ? null : new IntFloatMap(toCopy.kerning);
         solidBlock = toCopy.solidBlock;
         name = toCopy.name;
         integerPosition = toCopy.integerPosition;
@@ -1431,11 +1642,108 @@ public class Font implements Disposable {
         // of a ShaderProgram, stateless ColorLookup, or always-identical Texture. They are referenced directly.
         if (toCopy.shader != null)
             shader = toCopy.shader;
+        effectShader = toCopy.effectShader;
         if (toCopy.colorLookup != null)
             colorLookup = toCopy.colorLookup;
         whiteBlock = toCopy.whiteBlock;
     }
 
+    /**
+     * If this Font's glyph tables are shared with another Font (because either was made with {@link #Font(Font)} from
+     * the other), this gives this Font its own copies of {@link #mapping} (with new GlyphRegions), {@link #nameLookup},
+     * {@link #namesByCharCode}, and {@link #kerning}, so changes to them won't affect any other Font. If they aren't
+     * shared, this does nothing. Methods in Font that change the glyph tables call this already; you only need to call
+     * it yourself if you change {@link #mapping} or a GlyphRegion in it directly.
+     *
+     * @return this Font, for chaining
+     */
+    public Font unshareGlyphs() {
+        if (!sharedGlyphs) return this;
+        sharedGlyphs = false;
+        IntMap<GlyphRegion> oldMapping = mapping;
+        mapping = new IntMap<>(oldMapping.size);
+        for (IntMap.Entry<GlyphRegion> e : oldMapping) {
+            if (e.value == null) continue;
+            GlyphRegion gr = new GlyphRegion(e.value);
+            mapping.put(e.key, gr);
+            if (e.value == defaultValue) defaultValue = gr;
+        }
+        if (nameLookup != null)
+            nameLookup = new CaseInsensitiveIntMap(nameLookup);
+        if (namesByCharCode != null)
+            namesByCharCode = new IntMap<>(namesByCharCode);
+        if (kerning != null)
+            kerning = new IntFloatMap(kerning);
+        glyphTable = new GlyphTable(mapping);
+        invalidateKerningTable();
+        return this;
+    }
+
+    /**
+     * Gets the GlyphRegion for the given char from {@link #mapping}, or null if there isn't one. This is the same as
+     * {@code mapping.get(c)}, but it is faster for chars, because it uses a paged array instead of hashing.
+     *
+     * @param c a char, or any int key in {@link #mapping}
+     * @return the GlyphRegion for c, or null if c has no GlyphRegion
+     */
+    public GlyphRegion getGlyph(int c) {
+        return getGlyph(c, null);
+    }
+
+    /**
+     * Gets the GlyphRegion for the given char from {@link #mapping}, or {@code fallback} if there isn't one. This is
+     * the same as {@code mapping.get(c, fallback)}, but it is faster for chars, because it uses a paged array instead
+     * of hashing. The paged array is built when this Font is loaded and whenever a method in Font changes
+     * {@link #mapping}; it is also rebuilt if mapping is reassigned or its size changes. If you replace a GlyphRegion
+     * in mapping directly with {@link IntMap#put(int, Object)}, call {@link #invalidateGlyphTable()} afterwards.
+     *
+     * @param c        a char, or any int key in {@link #mapping}
+     * @param fallback returned if c has no GlyphRegion; often {@link #defaultValue}
+     * @return the GlyphRegion for c, or fallback if c has no GlyphRegion
+     */
+    public GlyphRegion getGlyph(int c, GlyphRegion fallback) {
+        if ((c & 0xFFFF0000) != 0) return mapping.get(c, fallback);
+        GlyphTable table = glyphTable;
+        if (table == null || table.source != mapping || table.size != mapping.size)
+            glyphTable = table = new GlyphTable(mapping);
+        GlyphRegion[] page = table.pages[c >>> 8];
+        if (page == null) return fallback;
+        GlyphRegion gr = page[c & 255];
+        return gr == null ? fallback : gr;
+    }
+
+    /**
+     * Rebuilds the paged lookup table used by {@link #getGlyph(int, GlyphRegion)} from {@link #mapping} right away, so
+     * it is ready before any markup runs, even on other threads. Methods in Font that change mapping do this already;
+     * you only need to call it if you put a GlyphRegion into mapping yourself with a key that was already present.
+     */
+    public void invalidateGlyphTable() {
+        glyphTable = new GlyphTable(mapping);
+    }
+
+    /**
+     * An immutable two-level table from char to GlyphRegion, with 256 pages of 256 GlyphRegions each; pages are only
+     * allocated if they have any GlyphRegions in them. Because this is immutable once built and only has final fields,
+     * it can be shared with other threads safely, such as when using {@link #markup(String, Layout, MarkupContext)}.
+     */
+    private static final class GlyphTable {
+        final IntMap<GlyphRegion> source;
+        final int size;
+        final GlyphRegion[][] pages = new GlyphRegion[256][];
+
+        GlyphTable(IntMap<GlyphRegion> source) {
+            this.source = source;
+            this.size = source.size;
+            // a new Entries, rather than source.entries(), so this never shares the map's reused iterator
+            for (IntMap.Entry<GlyphRegion> e : new IntMap.Entries<>(source)) {
+                if ((e.key & 0xFFFF0000) != 0 || e.value == null) continue;
+                GlyphRegion[] page = pages[e.key >>> 8];
+                if (page == null) pages[e.key >>> 8] = page = new GlyphRegion[256];
+                page[e.key & 255] = e.value;
+            }
+        }
+    }
+
     /**
      * Constructs a new Font by reading in a .fnt file with the given name (an internal handle is tried first, then a
      * local handle) and loading any images specified in that file. No distance field effect is used.
@@ -1765,6 +2073,52 @@ public class Font implements Disposable {
         loadFNT(fntName, xAdjust, yAdjust, widthAdjust, heightAdjust, makeGridGlyphs);
     }
 
+    /**
+     * Constructs a Font from data already in the compact binary format written by {@link #fntToBinary(String)},
+     * {@link #sadToBinary(JsonValue)}, or {@link #convertToBinary(FileHandle, FileHandle)}, using the given
+     * TextureRegions as its pages instead of loading any textures itself. The TextureRegions must be in the same order
+     * as the page names in the data (see {@link #getBinaryTextureNames(byte[])}). This is mostly meant for
+     * {@link FontLoader}, which does the slow file parsing on another thread and loads the textures through an
+     * AssetManager, but it can also be used if you stored the binary data somewhere other than a file.
+     * The adjustments and makeGridGlyphs are only used for BMFont data, as with {@link #loadBinary}.
+     *
+     * @param binaryData     a font in the binary format; will not be modified
+     * @param textureRegions an Array of TextureRegions that will be used in order as the font uses more pages
+     * @param distanceField  determines how edges are drawn; if unsure, you should use {@link DistanceFieldType#STANDARD}
+     * @param xAdjust        how many pixels to offset each character's x-position by, moving to the right
+     * @param yAdjust        how many pixels to offset each character's y-position by, moving up
+     * @param widthAdjust    how many pixels to add to the used width of each character, using more to the right
+     * @param heightAdjust   how many pixels to add to the used height of each character, using more above
+     * @param makeGridGlyphs true if this should use its own way of rendering box-drawing/block-element glyphs, ignoring any in the font file
+     */
+    public Font(byte[] binaryData, Array<TextureRegion> textureRegions, DistanceFieldType distanceField,
+                float xAdjust, float yAdjust, float widthAdjust, float heightAdjust, boolean makeGridGlyphs) {
+        this.distanceField = distanceField;
+        if (distanceField == DistanceFieldType.MSDF) {
+            shader = new ShaderProgram(vertexShader, msdfFragmentShader);
+            if (!shader.isCompiled())
+                Gdx.app.error("textratypist", "MSDF shader failed to compile: " + shader.getLog());
+        } else if (distanceField == DistanceFieldType.SDF) {
+            shader = new ShaderProgram(vertexShader, sdfFragmentShader);
+            if (!shader.isCompiled())
+                Gdx.app.error("textratypist", "SDF shader failed to compile: " + shader.getLog());
+        }
+        this.parents = textureRegions;
+        if ((distanceField == DistanceFieldType.SDF || distanceField == DistanceFieldType.MSDF)
+                && textureRegions != null) {
+            for (TextureRegion parent : textureRegions)
+                parent.getTexture().setFilter(Texture.TextureFilter.Linear, Texture.TextureFilter.Linear);
+        }
+        DataInputStream data = new DataInputStream(new ByteArrayInputStream(binaryData));
+        try {
+            loadBinary("", data, xAdjust, yAdjust, widthAdjust, heightAdjust, makeGridGlyphs);
+        } catch (IOException e) {
+            throw new RuntimeException("Could not read binary font data.", e);
+        } finally {
+            StreamUtils.closeQuietly(data);
+        }
+    }
+
     /**
      * Constructs a new Font from the existing BitmapFont, using its same Textures and TextureRegions for glyphs, and
      * without a distance field effect or any adjustments to position except for a y offset equal to
@@ -1960,6 +2314,8 @@ public class Font implements Disposable {
         originalCellWidth = cellWidth;
         originalCellHeight = cellHeight;// += descent;
         isMono = minWidth == cellWidth && kerning == null;
+        glyphTable = new GlyphTable(mapping);
+        invalidateKerningTable();
         integerPosition = bmFont.usesIntegerPositions();
         scale(bmFont.getScaleX(), bmFont.getScaleY());
     }
@@ -1980,7 +2336,9 @@ public class Font implements Disposable {
 
     /**
      * The gritty parsing code that pulls relevant info from an AngelCode BMFont .fnt file and uses it to assemble the
-     * many {@link GlyphRegion}s this has for each glyph.
+     * many {@link GlyphRegion}s this has for each glyph. If fntName ends with {@link #BINARY_EXTENSION}, this reads
+     * the precompiled binary format produced by {@link #convertToBinary(FileHandle, FileHandle)} instead, which
+     * avoids parsing text entirely.
      *
      * @param fntName        the file name of the .fnt file; can be internal or local
      * @param xAdjust        added to the x-position for each glyph in the font
@@ -1991,42 +2349,115 @@ public class Font implements Disposable {
      */
     protected void loadFNT(String fntName, float xAdjust, float yAdjust, float widthAdjust, float heightAdjust, boolean makeGridGlyphs) {
         FileHandle fntHandle;
-        String fnt;
         if ((fntHandle = Gdx.files.internal(fntName)).exists()
                 || (fntHandle = Gdx.files.local(fntName)).exists()) {
-            fnt = fntHandle.readString("UTF8");
+            if (fntName.endsWith(BINARY_EXTENSION)) {
+                DataInputStream data = new DataInputStream(new BufferedInputStream(fntHandle.read(), 8192));
+                try {
+                    loadBinary("", data, xAdjust, yAdjust, widthAdjust, heightAdjust, makeGridGlyphs);
+                } catch (IOException e) {
+                    throw new RuntimeException("Could not read font file: " + fntName, e);
+                } finally {
+                    StreamUtils.closeQuietly(data);
+                }
+            } else {
+                buildFnt(parseFnt(fntHandle.readString("UTF8")), xAdjust, yAdjust, widthAdjust, heightAdjust,
+                        makeGridGlyphs);
+            }
         } else {
             throw new RuntimeException("Missing font file: " + fntName);
         }
+    }
+
+    /**
+     * The parsing code that pulls relevant info from a SadConsole .font configuration file and uses it to assemble the
+     * many {@link GlyphRegion}s this has for each glyph. If fntName ends with {@link #BINARY_EXTENSION}, this reads
+     * the precompiled binary format produced by {@link #convertToBinary(FileHandle, FileHandle)} instead.
+     *
+     * @param prefix  a String to prepend to the font file's name and to the name of the texture it uses
+     * @param fntName the name of a font file this will load from an internal or local file handle (tried in that order)
+     */
+    protected void loadSad(String prefix, String fntName) {
+        FileHandle fntHandle;
+        if ((fntHandle = Gdx.files.internal(prefix + fntName)).exists()
+                || (fntHandle = Gdx.files.local(prefix + fntName)).exists()) {
+            if (fntName.endsWith(BINARY_EXTENSION)) {
+                DataInputStream data = new DataInputStream(new BufferedInputStream(fntHandle.read(), 8192));
+                try {
+                    loadBinary(prefix, data, 0f, 0f, 0f, 0f, false);
+                } catch (IOException e) {
+                    throw new RuntimeException("Could not read font file: " + prefix + fntName, e);
+                } finally {
+                    StreamUtils.closeQuietly(data);
+                }
+            } else {
+                JsonValue fnt = new JsonReader().parse(fntHandle);
+                buildSad(prefix, fnt.getString("FilePath"), fnt.getInt("Columns"), fnt.getInt("GlyphPadding"),
+                        fnt.getInt("GlyphHeight"), fnt.getInt("GlyphWidth"), fnt.getInt("SolidGlyphIndex"));
+            }
+        } else {
+            throw new RuntimeException("Missing font file: " + prefix + fntName);
+        }
+    }
+
+    /**
+     * Reads a font in the binary format written by {@link #fntToBinary(String)} or {@link #sadToBinary(JsonValue)},
+     * loading any textures it needs (unless {@link #parents} already has enough of them) and assembling the
+     * {@link GlyphRegion}s, kerning, and metrics this Font needs. The adjustments and makeGridGlyphs are only used
+     * for BMFont data; SadConsole data ignores them, like {@link #loadSad(String, String)} always has.
+     *
+     * @param prefix         prepended to texture names, but only for SadConsole data; BMFont data uses names as-is
+     * @param data           a DataInputStream positioned at the start of the binary data; this does not close it
+     * @param xAdjust        added to the x-position for each glyph in the font
+     * @param yAdjust        added to the y-position for each glyph in the font
+     * @param widthAdjust    added to the glyph width for each glyph in the font
+     * @param heightAdjust   added to the glyph height for each glyph in the font
+     * @param makeGridGlyphs true if this should use its own way of rendering box-drawing/block-element glyphs, ignoring any in the font file
+     * @throws IOException if the data couldn't be read, or wasn't in the expected format
+     */
+    protected void loadBinary(String prefix, DataInputStream data, float xAdjust, float yAdjust, float widthAdjust,
+                              float heightAdjust, boolean makeGridGlyphs) throws IOException {
+        if (data.readInt() != BINARY_MAGIC)
+            throw new IOException("Not a binary font file.");
+        int version = data.readUnsignedByte();
+        if (version != BINARY_VERSION)
+            throw new IOException("Unsupported binary font version: " + version);
+        int kind = data.readUnsignedByte();
+        if (kind == BINARY_KIND_SAD) {
+            loadBinarySad(prefix, data);
+            return;
+        }
+        if (kind != BINARY_KIND_FNT)
+            throw new IOException("Unknown binary font kind: " + kind);
+        buildFnt(readFnt(data), xAdjust, yAdjust, widthAdjust, heightAdjust, makeGridGlyphs);
+    }
+
+    /**
+     * Assembles the {@link GlyphRegion}s, kerning, and metrics this Font needs from BMFont data, loading any textures
+     * it needs (unless {@link #parents} already has enough of them). This is shared by the text and binary formats.
+     */
+    private void buildFnt(FntData fnt, float xAdjust, float yAdjust, float widthAdjust, float heightAdjust,
+                          boolean makeGridGlyphs) {
         this.xAdjust = xAdjust;
         this.yAdjust = yAdjust;
         this.widthAdjust = widthAdjust;
         this.heightAdjust = heightAdjust;
-        int idx;
-        idx = indexAfter(fnt, "padding=", 0);
-        int padTop = intFromDec(fnt, idx, idx = indexAfter(fnt, ",", idx+1));
-        int padRight = intFromDec(fnt, idx, idx = indexAfter(fnt, ",", idx+1));
-        int padBottom = intFromDec(fnt, idx, idx = indexAfter(fnt, ",", idx+1));
-        int padLeft = intFromDec(fnt, idx, idx = indexAfter(fnt, "lineHeight=", idx+1));
-
-        float rawLineHeight = floatFromDec(fnt, idx, idx = indexAfter(fnt, "base=", idx));
-        float baseline = floatFromDec(fnt, idx, idx = indexAfter(fnt, "pages=", idx));
+        float baseline = fnt.baseline;
 //        descent = baseline - rawLineHeight;
         descent = 0;
 
-//        int chosenDescender = -1;
-
         // The SDF and MSDF fonts have essentially garbage for baseline, since Glamer can't accurately guess it.
         // For standard fonts, we incorporate the descender into yAdjust, which seems to be reliable.
 //        if(distanceField == DistanceFieldType.STANDARD)
 //            yAdjust += descent;
-        int pages = intFromDec(fnt, idx, idx = indexAfter(fnt, "\npage id=", idx));
+        String[] textureNames = fnt.textureNames;
+        int pages = textureNames.length;
         if (parents == null || parents.size < pages) {
             if (parents == null) parents = new Array<>(true, pages, TextureRegion.class);
             else parents.clear();
             FileHandle textureHandle;
             for (int i = 0; i < pages; i++) {
-                String textureName = fnt.substring(idx = indexAfter(fnt, "file=\"", idx), idx = fnt.indexOf('"', idx));
+                String textureName = textureNames[i];
                 if ((textureHandle = Gdx.files.internal(textureName)).exists()
                         || (textureHandle = Gdx.files.local(textureName)).exists()) {
                     parents.add(new TextureRegion(new Texture(textureHandle)));
@@ -2038,27 +2469,21 @@ public class Font implements Disposable {
 
             }
         }
-        int size = intFromDec(fnt, idx = indexAfter(fnt, "\nchars count=", idx), idx = indexAfter(fnt, "\nchar id=", idx));
+        int size = fnt.count;
+        float[] glyphs = fnt.glyphs;
         mapping = new IntMap<>(size);
         float minWidth = Integer.MAX_VALUE;
-        for (int i = 0; i < size; i++) {
-            if (idx == fnt.length())
-                break;
-            int c =    intFromDec(fnt, idx, idx = indexAfter(fnt, " x=", idx));
-            float x =  floatFromDec(fnt, idx, idx = indexAfter(fnt, " y=", idx));
-            float y =  floatFromDec(fnt, idx, idx = indexAfter(fnt, " width=", idx));
-            float w =  floatFromDec(fnt, idx, idx = indexAfter(fnt, " height=", idx));
-            float h =  floatFromDec(fnt, idx, idx = indexAfter(fnt, " xoffset=", idx));
-            float xo = floatFromDec(fnt, idx, idx = indexAfter(fnt, " yoffset=", idx));
-            float yo = floatFromDec(fnt, idx, idx = indexAfter(fnt, " xadvance=", idx));
-            float a =  floatFromDec(fnt, idx, idx = indexAfter(fnt, " page=", idx));
-            int p =    intFromDec(fnt, idx, idx = indexAfter(fnt, "\nchar id=", idx));
-
-//            x += xAdjust;
-//            y += yAdjust;
-
-//            a += widthAdjust;
-//            h += heightAdjust;
+        for (int i = 0, g = 0; i < size; i++) {
+            int c =    fnt.ids[i];
+            float x =  glyphs[g++];
+            float y =  glyphs[g++];
+            float w =  glyphs[g++];
+            float h =  glyphs[g++];
+            float xo = glyphs[g++];
+            float yo = glyphs[g++];
+            float a =  glyphs[g++];
+            int p =    fnt.pages[i];
+
             if (c != 9608) // full block
                 minWidth = Math.min(minWidth, a + widthAdjust);
             GlyphRegion gr = new GlyphRegion(parents.get(p), x, y, w, h);
@@ -2076,32 +2501,26 @@ public class Font implements Disposable {
             cellHeight = Math.max(h + heightAdjust, cellHeight);
             if (w * h > 1) {
                 descent = Math.min(baseline - h - yo, descent);
-//                if(descent != (descent = Math.min(baseline - h - yo, descent)))
-//                    chosenDescender = c;
             }
             mapping.put(c, gr);
             if (c == '[') {
                 mapping.put(2, gr);
             }
         }
-        descent += padBottom;
-//        System.out.println("Using descender from " + chosenDescender);
-        idx = indexAfter(fnt, "\nkernings count=", 0);
-        if (idx < fnt.length()) {
-            int kernings = intFromDec(fnt, idx, idx = indexAfter(fnt, "\nkerning first=", idx));
-            if(kernings >= 1) {
-                kerning = new IntFloatMap(kernings);
-                for (int i = 0; i < kernings; i++) {
-                    int first = intFromDec(fnt, idx, idx = indexAfter(fnt, " second=", idx));
-                    int second = intFromDec(fnt, idx, idx = indexAfter(fnt, " amount=", idx));
-                    float amount = floatFromDec(fnt, idx, idx = indexAfter(fnt, "\nkerning first=", idx));
-                    kerning.put(first << 16 | second, amount);
-                    if (first == '[') {
-                        kerning.put(2 << 16 | second, amount);
-                    }
-                    if (second == '[') {
-                        kerning.put(first << 16 | 2, amount);
-                    }
+        descent += fnt.padBottom;
+        int kernings = fnt.kernings;
+        if(kernings >= 1) {
+            kerning = new IntFloatMap(kernings);
+            for (int i = 0; i < kernings; i++) {
+                int first = fnt.firsts[i];
+                int second = fnt.seconds[i];
+                float amount = fnt.amounts[i];
+                kerning.put(first << 16 | second, amount);
+                if (first == '[') {
+                    kerning.put(2 << 16 | second, amount);
+                }
+                if (second == '[') {
+                    kerning.put(first << 16 | 2, amount);
                 }
             }
         }
@@ -2150,30 +2569,37 @@ public class Font implements Disposable {
         originalCellWidth = cellWidth;
         originalCellHeight = cellHeight;
         isMono = minWidth == cellWidth && kerning == null;
+        glyphTable = new GlyphTable(mapping);
+        invalidateKerningTable();
     }
 
     /**
-     * The parsing code that pulls relevant info from a SadConsole .font configuration file and uses it to assemble the
-     * many {@link GlyphRegion}s this has for each glyph.
-     *
-     * @param fntName the name of a font file this will load from an internal or local file handle (tried in that order)
+     * Handles the SadConsole part of {@link #loadBinary(String, DataInputStream, float, float, float, float, boolean)},
+     * after the header has been read.
      */
-    protected void loadSad(String prefix, String fntName) {
-        FileHandle fntHandle;
-        JsonValue fnt;
-        JsonReader reader = new JsonReader();
-        if ((fntHandle = Gdx.files.internal(prefix + fntName)).exists()
-                || (fntHandle = Gdx.files.local(prefix + fntName)).exists()) {
-            fnt = reader.parse(fntHandle);
-        } else {
-            throw new RuntimeException("Missing font file: " + prefix + fntName);
-        }
+    private void loadBinarySad(String prefix, DataInputStream data) throws IOException {
+        String textureName = data.readUTF();
+        int columns = data.readInt();
+        int padding = data.readInt();
+        int glyphHeight = data.readInt();
+        int glyphWidth = data.readInt();
+        buildSad(prefix, textureName, columns, padding, glyphHeight, glyphWidth, data.readInt());
+    }
+
+    /**
+     * Assembles the grid of {@link GlyphRegion}s for a SadConsole font, loading its texture unless {@link #parents}
+     * already has one. This is shared by the text and binary formats.
+     */
+    private void buildSad(String prefix, String textureName, int columns, int padding, int glyphHeight,
+                          int glyphWidth, int solidGlyphIndex) {
+        cellHeight = glyphHeight;
+        cellWidth = glyphWidth;
+
         int pages = 1;
         TextureRegion parent;
         if (parents == null || parents.size == 0) {
             if (parents == null) parents = new Array<>(true, pages, TextureRegion.class);
             FileHandle textureHandle;
-            String textureName = fnt.getString("FilePath");
             if ((textureHandle = Gdx.files.internal(prefix + textureName)).exists()
                     || (textureHandle = Gdx.files.local(prefix + textureName)).exists()) {
                 parents.add(parent = new TextureRegion(new Texture(textureHandle)));
@@ -2182,10 +2608,6 @@ public class Font implements Disposable {
             }
         } else parent = parents.first();
 
-        int columns = fnt.getInt("Columns");
-        int padding = fnt.getInt("GlyphPadding");
-        cellHeight = fnt.getInt("GlyphHeight");
-        cellWidth = fnt.getInt("GlyphWidth");
         descent = Math.round(cellHeight * -0.375f);
         int rows = (parent.getRegionHeight() - padding) / ((int) cellHeight + padding);
         int size = rows * columns;
@@ -2208,17 +2630,7 @@ public class Font implements Disposable {
                 }
             }
         }
-        solidBlock = (char) fnt.getInt("SolidGlyphIndex");
-//        GlyphRegion block = mapping.get(solidBlock, null);
-//        if(block != null) {
-//            for (int i = 0x2500; i < 0x2500 + BlockUtils.BOX_DRAWING.length; i++) {
-//                GlyphRegion gr = new GlyphRegion(block);
-//                gr.offsetX = Float.NaN;
-//                gr.xAdvance = cellWidth;
-//                gr.offsetY = cellHeight;
-//                mapping.put(i, gr);
-//            }
-//        }
+        solidBlock = (char) solidGlyphIndex;
         // Newlines shouldn't render.
         if (mapping.containsKey('\n')) {
             GlyphRegion gr = mapping.get('\n');
@@ -2234,6 +2646,259 @@ public class Font implements Disposable {
         originalCellHeight = this.cellHeight;
         integerPosition = true;
         isMono = true;
+        glyphTable = new GlyphTable(mapping);
+    }
+
+    /**
+     * Parses the text of an AngelCode BMFont .fnt file and writes what Font needs from it into the compact binary
+     * format that {@link #loadFNT(String, float, float, float, float, boolean)} can read much more quickly. This
+     * doesn't load any textures, so it can run without a graphics context, such as in a build step.
+     * The format is big-endian, as written by {@link DataOutputStream}. It starts with {@link #BINARY_MAGIC}, a version
+     * byte ({@link #BINARY_VERSION}), and a kind byte ({@link #BINARY_KIND_FNT} here). Then come four ints for
+     * padding, two floats for lineHeight and base, an int count of pages followed by each page's texture name as
+     * modified UTF-8, an int count of chars followed by each char as (int id, float x, y, width, height, xoffset,
+     * yoffset, xadvance, int page), and an int count of kernings followed by each as (int first, int second, float
+     * amount).
+     *
+     * @param fnt the full text of a .fnt file
+     * @return a byte array holding the binary format of the same font
+     */
+    public static byte[] fntToBinary(String fnt) {
+        FntData data = parseFnt(fnt);
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(64 + data.count * 36 + data.kernings * 12);
+        DataOutputStream out = new DataOutputStream(bytes);
+        try {
+            out.writeInt(BINARY_MAGIC);
+            out.writeByte(BINARY_VERSION);
+            out.writeByte(BINARY_KIND_FNT);
+            out.writeInt(data.padTop);
+            out.writeInt(data.padRight);
+            out.writeInt(data.padBottom);
+            out.writeInt(data.padLeft);
+            out.writeFloat(data.lineHeight);
+            out.writeFloat(data.baseline);
+            out.writeInt(data.textureNames.length);
+            for (String name : data.textureNames) {
+                out.writeUTF(name);
+            }
+            out.writeInt(data.count);
+            for (int i = 0, g = 0; i < data.count; i++) {
+                out.writeInt(data.ids[i]);
+                for (int j = 0; j < 7; j++) {
+                    out.writeFloat(data.glyphs[g++]);
+                }
+                out.writeInt(data.pages[i]);
+            }
+            out.writeInt(data.kernings);
+            for (int i = 0; i < data.kernings; i++) {
+                out.writeInt(data.firsts[i]);
+                out.writeInt(data.seconds[i]);
+                out.writeFloat(data.amounts[i]);
+            }
+            out.flush();
+        } catch (IOException e) {
+            // ByteArrayOutputStream never throws an IOException, but DataOutputStream declares it can.
+            throw new RuntimeException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Everything Font uses from a BMFont .fnt file, as parsed from its text by {@link #parseFnt(String)} or read from
+     * the binary format by {@link #readFnt(DataInputStream)}.
+     */
+    private static final class FntData {
+        int padTop, padRight, padBottom, padLeft;
+        float lineHeight, baseline;
+        String[] textureNames;
+        /** How many chars were actually read; {@link #ids}, {@link #pages}, and {@link #glyphs} may be longer. */
+        int count;
+        int[] ids, pages;
+        /** Seven floats per char: x, y, width, height, xoffset, yoffset, and xadvance. */
+        float[] glyphs;
+        int kernings;
+        int[] firsts, seconds;
+        float[] amounts;
+    }
+
+    /**
+     * Parses the text of an AngelCode BMFont .fnt file directly into a {@link FntData}.
+     */
+    private static FntData parseFnt(String fnt) {
+        FntData data = new FntData();
+        int idx;
+        idx = indexAfter(fnt, "padding=", 0);
+        data.padTop = intFromDec(fnt, idx, idx = indexAfter(fnt, ",", idx+1));
+        data.padRight = intFromDec(fnt, idx, idx = indexAfter(fnt, ",", idx+1));
+        data.padBottom = intFromDec(fnt, idx, idx = indexAfter(fnt, ",", idx+1));
+        data.padLeft = intFromDec(fnt, idx, idx = indexAfter(fnt, "lineHeight=", idx+1));
+
+        data.lineHeight = floatFromDec(fnt, idx, idx = indexAfter(fnt, "base=", idx));
+        data.baseline = floatFromDec(fnt, idx, idx = indexAfter(fnt, "pages=", idx));
+        int pages = intFromDec(fnt, idx, idx = indexAfter(fnt, "\npage id=", idx));
+        data.textureNames = new String[pages];
+        for (int i = 0; i < pages; i++) {
+            data.textureNames[i] = fnt.substring(idx = indexAfter(fnt, "file=\"", idx), idx = fnt.indexOf('"', idx));
+        }
+        int size = intFromDec(fnt, idx = indexAfter(fnt, "\nchars count=", idx), idx = indexAfter(fnt, "\nchar id=", idx));
+        size = Math.max(size, 0);
+        data.ids = new int[size];
+        data.pages = new int[size];
+        float[] glyphs = data.glyphs = new float[size * 7];
+        // A .fnt file can claim more chars than it actually has, so we count how many we actually read.
+        int count = 0;
+        for (int g = 0; count < size; count++) {
+            if (idx == fnt.length())
+                break;
+            data.ids[count] = intFromDec(fnt, idx, idx = indexAfter(fnt, " x=", idx));
+            glyphs[g++] = floatFromDec(fnt, idx, idx = indexAfter(fnt, " y=", idx));
+            glyphs[g++] = floatFromDec(fnt, idx, idx = indexAfter(fnt, " width=", idx));
+            glyphs[g++] = floatFromDec(fnt, idx, idx = indexAfter(fnt, " height=", idx));
+            glyphs[g++] = floatFromDec(fnt, idx, idx = indexAfter(fnt, " xoffset=", idx));
+            glyphs[g++] = floatFromDec(fnt, idx, idx = indexAfter(fnt, " yoffset=", idx));
+            glyphs[g++] = floatFromDec(fnt, idx, idx = indexAfter(fnt, " xadvance=", idx));
+            glyphs[g++] = floatFromDec(fnt, idx, idx = indexAfter(fnt, " page=", idx));
+            data.pages[count] = intFromDec(fnt, idx, idx = indexAfter(fnt, "\nchar id=", idx));
+        }
+        data.count = count;
+
+        idx = indexAfter(fnt, "\nkernings count=", 0);
+        int kernings = 0;
+        if (idx < fnt.length())
+            kernings = Math.max(intFromDec(fnt, idx, idx = indexAfter(fnt, "\nkerning first=", idx)), 0);
+        data.kernings = kernings;
+        data.firsts = new int[kernings];
+        data.seconds = new int[kernings];
+        data.amounts = new float[kernings];
+        for (int i = 0; i < kernings; i++) {
+            data.firsts[i] = intFromDec(fnt, idx, idx = indexAfter(fnt, " second=", idx));
+            data.seconds[i] = intFromDec(fnt, idx, idx = indexAfter(fnt, " amount=", idx));
+            data.amounts[i] = floatFromDec(fnt, idx, idx = indexAfter(fnt, "\nkerning first=", idx));
+        }
+        return data;
+    }
+
+    /**
+     * Reads the BMFont part of the binary format into a {@link FntData}, after the header has been read.
+     */
+    private static FntData readFnt(DataInputStream in) throws IOException {
+        FntData data = new FntData();
+        data.padTop = in.readInt();
+        data.padRight = in.readInt();
+        data.padBottom = in.readInt();
+        data.padLeft = in.readInt();
+        data.lineHeight = in.readFloat();
+        data.baseline = in.readFloat();
+        int pages = in.readInt();
+        data.textureNames = new String[pages];
+        for (int i = 0; i < pages; i++) {
+            data.textureNames[i] = in.readUTF();
+        }
+        int size = data.count = in.readInt();
+        data.ids = new int[size];
+        data.pages = new int[size];
+        float[] glyphs = data.glyphs = new float[size * 7];
+        for (int i = 0, g = 0; i < size; i++) {
+            data.ids[i] = in.readInt();
+            for (int j = 0; j < 7; j++) {
+                glyphs[g++] = in.readFloat();
+            }
+            data.pages[i] = in.readInt();
+        }
+        int kernings = data.kernings = in.readInt();
+        data.firsts = new int[kernings];
+        data.seconds = new int[kernings];
+        data.amounts = new float[kernings];
+        for (int i = 0; i < kernings; i++) {
+            data.firsts[i] = in.readInt();
+            data.seconds[i] = in.readInt();
+            data.amounts[i] = in.readFloat();
+        }
+        return data;
+    }
+
+    /**
+     * Takes the parsed JSON of a SadConsole .font file and writes what Font needs from it into the compact binary
+     * format that {@link #loadSad(String, String)} can read. The header is the same as in {@link #fntToBinary(String)},
+     * but with {@link #BINARY_KIND_SAD} as the kind byte, followed by the texture name as modified UTF-8 and then
+     * five ints: Columns, GlyphPadding, GlyphHeight, GlyphWidth, and SolidGlyphIndex.
+     *
+     * @param fnt the parsed JSON of a SadConsole .font file
+     * @return a byte array holding the binary format of the same font
+     */
+    public static byte[] sadToBinary(JsonValue fnt) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(64);
+        DataOutputStream out = new DataOutputStream(bytes);
+        try {
+            out.writeInt(BINARY_MAGIC);
+            out.writeByte(BINARY_VERSION);
+            out.writeByte(BINARY_KIND_SAD);
+            out.writeUTF(fnt.getString("FilePath"));
+            out.writeInt(fnt.getInt("Columns"));
+            out.writeInt(fnt.getInt("GlyphPadding"));
+            out.writeInt(fnt.getInt("GlyphHeight"));
+            out.writeInt(fnt.getInt("GlyphWidth"));
+            out.writeInt(fnt.getInt("SolidGlyphIndex"));
+            out.flush();
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Reads just the names of the textures used by a font in the compact binary format, without building anything.
+     * For BMFont data, this is every page name, in page order and as they appear in the .fnt file. For SadConsole data,
+     * this is the one texture name, without any prefix. This doesn't need the GL context, so it can be called from
+     * another thread, such as by {@link FontLoader} when it finds the dependencies for a font.
+     *
+     * @param binaryData a font in the binary format, as by {@link #fntToBinary(String)} or {@link #sadToBinary(JsonValue)}
+     * @return an array of the texture names the font uses, in order
+     */
+    public static String[] getBinaryTextureNames(byte[] binaryData) {
+        DataInputStream data = new DataInputStream(new ByteArrayInputStream(binaryData));
+        try {
+            if (data.readInt() != BINARY_MAGIC)
+                throw new IOException("Not a binary font file.");
+            int version = data.readUnsignedByte();
+            if (version != BINARY_VERSION)
+                throw new IOException("Unsupported binary font version: " + version);
+            int kind = data.readUnsignedByte();
+            if (kind == BINARY_KIND_SAD)
+                return new String[]{data.readUTF()};
+            if (kind != BINARY_KIND_FNT)
+                throw new IOException("Unknown binary font kind: " + kind);
+            for (int i = 0; i < 4; i++) data.readInt(); // padding
+            data.readFloat(); // lineHeight
+            data.readFloat(); // baseline
+            String[] textureNames = new String[data.readInt()];
+            for (int i = 0; i < textureNames.length; i++) {
+                textureNames[i] = data.readUTF();
+            }
+            return textureNames;
+        } catch (IOException e) {
+            throw new RuntimeException("Could not read binary font data.", e);
+        } finally {
+            StreamUtils.closeQuietly(data);
+        }
+    }
+
+    /**
+     * Converts an AngelCode BMFont .fnt file or a SadConsole .font file to the compact binary format this can load
+     * much faster, writing the result to {@code output}. SadConsole files are detected by their ".font" extension;
+     * everything else is treated as a .fnt file. The output file should usually have the same name as the input, but
+     * with {@link #BINARY_EXTENSION} as its extension; {@link KnownFonts} looks for files named that way, and any
+     * constructor that takes the name of a .fnt or .font file can take the name of a binary file instead.
+     * This doesn't need a graphics context, and doesn't load any textures.
+     *
+     * @param input  a .fnt or .font file that exists
+     * @param output the file to write the binary format into; will be overwritten
+     */
+    public static void convertToBinary(FileHandle input, FileHandle output) {
+        if ("font".equalsIgnoreCase(input.extension()))
+            output.writeBytes(sadToBinary(new JsonReader().parse(input)), false);
+        else
+            output.writeBytes(fntToBinary(input.readString("UTF8")), false);
     }
 
     //// usage section
@@ -2252,6 +2917,121 @@ public class Font implements Disposable {
         return first << 16 | (second & 0xFFFF);
     }
 
+    /**
+     * Gets the kerning amount for the given pair of chars, or 0 if they don't kern (or this Font has no kerning).
+     * This is the same as {@code kerning.get(kerningPair(first, second), 0)}, but faster.
+     *
+     * @param first  the first char
+     * @param second the second char
+     * @return the extra space (in the same unit the font uses) to insert between first and second
+     */
+    public float getKerning(char first, char second) {
+        return getKerning(first << 16 | second);
+    }
+
+    /**
+     * Gets the kerning amount for the given kerning pair, as produced by {@link #kerningPair(char, char)}, or 0 if the
+     * pair doesn't kern (or this Font has no kerning). This is the same as {@code kerning.get(pair, 0)}, but
+     * instead of hashing, it uses a compact table built from {@link #kerning} when this Font is loaded: a bit set
+     * rejects any second char that never kerns, then a paged index finds the first char's row of sorted second chars,
+     * which is binary-searched. The table is rebuilt if {@link #kerning} is reassigned or changes size; if you change
+     * the amount for a pair that was already present, call {@link #invalidateKerningTable()} afterwards.
+     *
+     * @param pair the first char in the upper 16 bits and the second char in the lower 16 bits
+     * @return the extra space (in the same unit the font uses) to insert between the two chars in pair
+     */
+    public float getKerning(int pair) {
+        IntFloatMap k = kerning;
+        if (k == null) return 0f;
+        KerningTable table = kerningTable;
+        if (table == null || table.source != k || table.size != k.size)
+            kerningTable = table = new KerningTable(k);
+        return table.get(pair);
+    }
+
+    /**
+     * Rebuilds the table used by {@link #getKerning(int)} from {@link #kerning} right away, so it is ready before any
+     * markup runs, even on other threads. Call this after changing the amount for a pair already in kerning, such as
+     * with {@code kerning.put(existingPair, amount)}, because that doesn't change the size of kerning.
+     */
+    public void invalidateKerningTable() {
+        kerningTable = kerning == null ? null : new KerningTable(kerning);
+    }
+
+    /**
+     * An immutable form of a kerning map. Pairs are grouped into one row per first char, like a compressed sparse row
+     * matrix, with each row's second chars sorted. Only first chars that have any pairs get an entry in the paged
+     * row index, and {@link #secondBits} is a 65536-bit set of every char that can be the second in a pair.
+     */
+    private static final class KerningTable {
+        final IntFloatMap source;
+        final int size;
+        final int[][] rowPages = new int[256][];
+        final long[] secondBits = new long[1024];
+        final int[] rowStarts;
+        final char[] seconds;
+        final float[] amounts;
+
+        KerningTable(IntFloatMap source) {
+            this.source = source;
+            this.size = source.size;
+            int n = source.size;
+            int[] keys = new int[n];
+            float[] values = new float[n];
+            long[] order = new long[n];
+            int i = 0;
+            // a new Entries, rather than source.entries(), so this never shares the map's reused iterator
+            for (IntFloatMap.Entry e : new IntFloatMap.Entries(source)) {
+                keys[i] = e.key;
+                values[i] = e.value;
+                // flipping the sign bit makes a signed sort order the keys as if they were unsigned
+                order[i] = (long) (e.key ^ 0x80000000) << 32 | i;
+                i++;
+            }
+            Arrays.sort(order);
+            seconds = new char[n];
+            amounts = new float[n];
+            int[] starts = new int[n + 1];
+            int rows = 0, prevFirst = -1;
+            for (i = 0; i < n; i++) {
+                int idx = (int) order[i];
+                int key = keys[idx], first = key >>> 16;
+                char second = (char) key;
+                if (first != prevFirst) {
+                    int[] page = rowPages[first >>> 8];
+                    if (page == null) rowPages[first >>> 8] = page = new int[256];
+                    page[first & 255] = rows + 1;
+                    starts[rows++] = i;
+                    prevFirst = first;
+                }
+                seconds[i] = second;
+                amounts[i] = values[idx];
+                secondBits[second >>> 6] |= 1L << second;
+            }
+            starts[rows] = n;
+            rowStarts = Arrays.copyOf(starts, rows + 1);
+        }
+
+        float get(int pair) {
+            int second = pair & 0xFFFF;
+            if ((secondBits[second >>> 6] & 1L << second) == 0L) return 0f;
+            int first = pair >>> 16;
+            int[] page = rowPages[first >>> 8];
+            if (page == null) return 0f;
+            int row = page[first & 255] - 1;
+            if (row < 0) return 0f;
+            int lo = rowStarts[row], hi = rowStarts[row + 1] - 1;
+            while (lo <= hi) {
+                int mid = lo + hi >>> 1;
+                int s = seconds[mid];
+                if (s < second) lo = mid + 1;
+                else if (s > second) hi = mid - 1;
+                else return amounts[mid];
+            }
+            return 0f;
+        }
+    }
+
     /**
      * Scales the font by the given horizontal and vertical multipliers.
      *
@@ -2322,6 +3102,7 @@ public class Font implements Disposable {
      * @return this Font, for chaining
      */
     public Font fitCell(float width, float height, boolean center) {
+        unshareGlyphs();
 //        float hRatio = width / cellWidth;
 //        float vRatio = height / cellHeight;
 //        underX *= hRatio; strikeX *= hRatio;
@@ -2353,6 +3134,7 @@ public class Font implements Disposable {
         }
         isMono = true;
         kerning = null;
+        kerningTable = null;
         return this;
     }
 
@@ -2628,8 +3410,11 @@ public class Font implements Disposable {
      * @return this Font, for chaining
      */
     public Font addImage(String character, TextureRegion region, float offsetX, float offsetY, float xAdvance) {
-        if(character != null && !character.isEmpty())
+        if(character != null && !character.isEmpty()) {
+            unshareGlyphs();
             mapping.put(character.charAt(character.length() - 1), new GlyphRegion(region, offsetX, offsetY, xAdvance));
+            glyphTable = new GlyphTable(mapping);
+        }
         return this;
     }
 
@@ -2649,8 +3434,11 @@ public class Font implements Disposable {
      * @return this Font, for chaining
      */
     public Font addImage(String character, TextureRegion region) {
-        if(character != null && !character.isEmpty())
+        if(character != null && !character.isEmpty()) {
+            unshareGlyphs();
             mapping.put(character.charAt(character.length() - 1), new GlyphRegion(region));
+            glyphTable = new GlyphTable(mapping);
+        }
         return this;
     }
 
@@ -2720,6 +3508,7 @@ public class Font implements Disposable {
      */
     public Font addAtlas(TextureAtlas atlas, String prepend, String append, float offsetXChange, float offsetYChange, float xAdvanceChange) {
         Array<TextureAtlas.AtlasRegion> regions = atlas.getRegions();
+        unshareGlyphs();
         if(nameLookup == null)
             nameLookup = new CaseInsensitiveIntMap(regions.size, 0.5f);
         else
@@ -2772,6 +3561,7 @@ public class Font implements Disposable {
                 namesByCharCode.put(i, name);
             }
         }
+        glyphTable = new GlyphTable(mapping);
         return this;
     }
 
@@ -2816,6 +3606,19 @@ public class Font implements Disposable {
                 final float scale = Math.max(cellHeight / originalCellHeight, cellWidth / originalCellWidth) * 0.5f + 0.125f;
                 shader.setUniformf("u_smoothing", (actualCrispness / (scale)));
             }
+        } else if (effectShader && shader != null) {
+            if (batch.getShader() != shader) {
+                batch.setShader(shader);
+                effectTexture = null;
+                shader.setUniformf("u_margin", 2f * Math.max(1f, boldStrength), 2f);
+                shader.setUniformf("u_boldStrength", boldStrength);
+                Color.abgr8888ToColor(effectColor, PACKED_BLACK);
+                shader.setUniformf("u_black", effectColor);
+                Color.abgr8888ToColor(effectColor, PACKED_WHITE);
+                shader.setUniformf("u_white", effectColor);
+                Color.abgr8888ToColor(effectColor, PACKED_SHADOW_COLOR);
+                shader.setUniformf("u_shadow", effectColor);
+            }
         } else {
             if(batch.getShader() != shader) {
                 batch.setShader(null);
@@ -2824,6 +3627,51 @@ public class Font implements Disposable {
 //        batch.setPackedColor(Color.WHITE_FLOAT_BITS); // not sure why this was here, or if it is useful...
     }
 
+    /**
+     * Only affects {@link DistanceFieldType#STANDARD} fonts. If {@code use} is true, this creates a ShaderProgram for
+     * this Font (see {@link #effectFragmentShader}) that draws each glyph with a {@link #BLACK_OUTLINE},
+     * {@link #WHITE_OUTLINE}, {@link #DROP_SHADOW}, {@link #SHINY}, or {@link #BOLD} effect as one slightly larger quad,
+     * instead of drawing the glyph several times. Outlined text normally draws 9 to 15 quads per glyph, so this can
+     * greatly reduce vertex count and overdraw. If {@code use} is false, the shader is disposed if this Font created
+     * it, or just stops being used if it was shared from another Font by {@link #Font(Font)}.
+     * <br>
+     * The effects are measured in texels of the font's texture, rather than in screen pixels, so they match the normal
+     * drawing exactly when a glyph is drawn at its original size and pixel-aligned, but grow and shrink with the glyph
+     * when it is scaled. Shadows and shines also rotate with the glyph. Like SDF and MSDF fonts, this needs
+     * {@link #enableShader(Batch)} to be called before drawing, which {@link TextraLabel} and {@link TypingLabel} do
+     * automatically; if the shader isn't active, glyphs are drawn the normal way. Each time the texture changes
+     * between glyphs that use an effect, the Batch is flushed so the shader can be told the texel size; because of
+     * this, {@link TextraLabel#setTextureSorted(boolean)} should stay false for Fonts that use more than one Texture.
+     *
+     * @param use true to draw glyph effects with a shader, false to go back to drawing them with extra quads
+     * @return this, for chaining
+     */
+    public Font useEffectShader(boolean use) {
+        if (distanceField != DistanceFieldType.STANDARD || use == effectShader) return this;
+        if (use) {
+            shader = new ShaderProgram(effectVertexShader, effectFragmentShader);
+            if (!shader.isCompiled())
+                Gdx.app.error("textratypist", "Effect shader failed to compile: " + shader.getLog());
+        } else if (shader != null) {
+            if (ownsEffectShader)
+                shader.dispose();
+            shader = null;
+        }
+        ownsEffectShader = use;
+        effectShader = use;
+        effectTexture = null;
+        return this;
+    }
+
+    /**
+     * Returns true if {@link #useEffectShader(boolean)} has been used to draw glyph effects with a shader.
+     *
+     * @return whether this draws outlines, shadows, shines, and bold glyphs with {@link #effectFragmentShader}
+     */
+    public boolean isUsingEffectShader() {
+        return effectShader;
+    }
+
     /**
      * Draws the specified text at the given x,y position (in world space) with a white foreground.
      *
@@ -2849,8 +3697,10 @@ public class Font implements Disposable {
         batch.setPackedColor(NumberUtils.intToFloatColor(Integer.reverseBytes(color)));
         GlyphRegion current;
         for (int i = 0, n = text.length(); i < n; i++) {
-            batch.draw(current = mapping.get(text.charAt(i)), x + current.offsetX * scaleX, y + current.offsetY * scaleY,
+            batch.draw(current = getGlyph(text.charAt(i)), x + current.offsetX * scaleX, y + current.offsetY * scaleY,
                     current.getRegionWidth() * scaleX, current.getRegionHeight() * scaleY);
+            if (TextraStats.enabled && !(batch instanceof RecordingBatch && ((RecordingBatch) batch).isCapturing()))
+                TextraStats.quad(current.getTexture());
             x += current.getRegionWidth() * scaleX;
         }
     }
@@ -2905,7 +3755,7 @@ public class Font implements Disposable {
      * @param y         the y position in world space to draw the text at (lower left corner)
      */
     public void drawBlocks(Batch batch, char blockChar, int[][] colors, float x, float y) {
-        final TextureRegion block = mapping.get(blockChar);
+        final TextureRegion block = getGlyph(blockChar);
         if (block == null) return;
         final Texture parent = block.getTexture();
         final float ipw = 1.0f / parent.getWidth();
@@ -3110,7 +3960,7 @@ public class Font implements Disposable {
      */
     protected void drawFancyLine(Batch batch, long mode, float x, float y, float width,
                                  float xPx, float yPx, float rotation) {
-        final TextureRegion block = mapping.get(solidBlock);
+        final TextureRegion block = getGlyph(solidBlock);
         final Texture parent = block.getTexture();
         final float ipw = 1f / parent.getWidth();
         final float iph = 1f / parent.getHeight();
@@ -3262,7 +4112,7 @@ public class Font implements Disposable {
                 long glyph;
                 for (int i = 0; i < n; i++) {
                     kern = kern << 16 | (int) ((glyph = line.glyphs.get(i)) & 0xFFFF);
-                    amt = kerning.get(kern, 0);
+                    amt = getKerning(kern);
                     x += drawGlyph(batch, glyph, x + amt, y) + amt;
                 }
             } else {
@@ -3446,19 +4296,19 @@ public class Font implements Disposable {
 //            float xx = x + 0.25f * (-(sn * font.cellHeight) + (cs * font.cellWidth));
             float yy = y + 0.25f * (+(cs * font.cellHeight) + (sn * font.cellWidth));
 
-//            GlyphRegion gr = font.mapping.get((int) (glyph & 0xFFFF), font.defaultValue);
+//            GlyphRegion gr = font.getGlyph((int) (glyph & 0xFFFF), font.defaultValue);
 //            float xx = x + 0.5f * ((cs * gr.xAdvance) + (sn * font.cellHeight));
 //            float yy = y + 0.5f * (-(sn * gr.xAdvance)+ (cs * font.cellHeight));
 
             if (font.kerning != null) {
                 kern = kern << 16 | (int) (glyph & 0xFFFF);
-                float amt = font.kerning.get(kern, 0)
+                float amt = font.getKerning(kern)
                         * font.scaleX * ((glyph & ALTERNATE) != 0L ? 4f : (glyph + 0x300000L >>> 20 & 15) + 1) * 0.25f;
                 xChange += cs * amt;
                 yChange += sn * amt;
             }
             if(initial && !isMono){
-                float ox = font.mapping.get((int) (glyph & 0xFFFF), font.defaultValue).offsetX;
+                float ox = font.getGlyph((int) (glyph & 0xFFFF), font.defaultValue).offsetX;
                 if(ox != ox) ox = 0f;
                 else ox *= font.scaleX * ((glyph & ALTERNATE) != 0L ? 4f : (glyph + 0x300000L >>> 20 & 15) + 1) * 0.25f;
                 if(ox < 0) {
@@ -3492,7 +4342,7 @@ public class Font implements Disposable {
         if (glyph >>> 32 == 0L) return 0;
         char ch = (char) glyph;
         if((glyph & SMALL_CAPS) == SMALL_CAPS) ch = Category.caseUp(ch);
-        GlyphRegion tr = font.mapping.get(ch);
+        GlyphRegion tr = font.getGlyph(ch);
         if (tr == null) return 0f;
         float changedW = tr.xAdvance * scale;
         if (!font.isMono) {
@@ -3517,7 +4367,7 @@ public class Font implements Disposable {
         if (glyph >>> 32 == 0L) return 0;
         char ch = (char) glyph;
         if((glyph & SMALL_CAPS) == SMALL_CAPS) ch = Category.caseUp(ch);
-        GlyphRegion tr = mapping.get(ch);
+        GlyphRegion tr = getGlyph(ch);
         if (tr == null) return 0f;
         float scale;
         if(ch >= 0xE000 && ch < 0xF800)
@@ -3535,6 +4385,31 @@ public class Font implements Disposable {
         return changedW;
     }
 
+    /**
+     * Gets the same width that {@link #drawGlyph(Batch, long, float, float, float, float, float, int)} returns for
+     * {@code glyph}, without drawing anything. Unlike {@link #xAdvance(long)}, this uses the font from a family if the
+     * glyph requests one, doesn't add the glyph's x offset, and treats box-drawing glyphs as one cell wide, all as
+     * drawGlyph() does. This is used by {@link TypingLabel#glyphIndexAt(float, float)} to find where glyphs are drawn.
+     *
+     * @param glyph a long encoding the color, style information, and char of a glyph, as from a {@link Line}
+     * @return the width drawGlyph() would return for the given glyph
+     */
+    float drawnWidth(long glyph) {
+        Font font = null;
+        if (family != null) font = family.connected[(int) (glyph >>> 16 & 15)];
+        if (font == null) font = this;
+        char c = (char) glyph;
+        if ((glyph & SMALL_CAPS) == SMALL_CAPS) c = Category.caseUp(c);
+        GlyphRegion tr = font.getGlyph(c);
+        if (tr == null) return 0f;
+        if (tr.offsetX != tr.offsetX) return font.cellWidth;
+        float scale = ((glyph & ALTERNATE) != 0L) ? 1f : ((glyph + 0x300000L >>> 20 & 15) + 1) * 0.25f;
+        float changedW = c >= 0xE000 && c < 0xF800 ? font.cellHeight * scale : tr.xAdvance * font.scaleX * scale;
+        if ((glyph & SUPERSCRIPT) != 0L && !font.isMono)
+            changedW *= 0.5f;
+        return changedW;
+    }
+
     /**
      * Measures the actual width that the given Line will use when drawn.
      *
@@ -3569,7 +4444,7 @@ public class Font implements Disposable {
             Font font = null;
             if (family != null) font = family.connected[(int) (glyph >>> 16 & 15)];
             if (font == null) font = this;
-            GlyphRegion tr = font.mapping.get(ch);
+            GlyphRegion tr = font.getGlyph(ch);
             if (tr == null) continue;
             if (font.kerning != null) {
                 kern = kern << 16 | ch;
@@ -3578,7 +4453,7 @@ public class Font implements Disposable {
                     scaleX = scale * font.cellHeight / (tr.xAdvance);
                 else
                     scaleX = font.scaleX * scale * (1f + 0.5f * (-(glyph & SUPERSCRIPT) >> 63));
-                amt = font.kerning.get(kern, 0) * scaleX;
+                amt = font.getKerning(kern) * scaleX;
                 float changedW = tr.xAdvance * scaleX;
                 if(tr.offsetX != tr.offsetX)
                     changedW = font.cellWidth * scale;
@@ -3645,7 +4520,7 @@ public class Font implements Disposable {
             Font font = null;
             if (family != null) font = family.connected[(int) (glyph >>> 16 & 15)];
             if (font == null) font = this;
-            GlyphRegion tr = font.mapping.get(ch);
+            GlyphRegion tr = font.getGlyph(ch);
             if (tr == null) continue;
             scale = (glyph & ALTERNATE) != 0L || isMono ? 1f : ((glyph + 0x300000L >>> 20 & 15) + 1) * 0.25f;
 
@@ -3657,7 +4532,7 @@ public class Font implements Disposable {
                 else
                     scaleX = font.scaleX * scale * (1f + 0.5f * (-(glyph & SUPERSCRIPT) >> 63));
                 line.height = Math.max(line.height, (font.cellHeight /* - font.descent * font.scaleY */) * scale);
-                amt = font.kerning.get(kern, 0) * scaleX;
+                amt = font.getKerning(kern) * scaleX;
                 float changedW = tr.xAdvance * scaleX;
                 if(tr.offsetX != tr.offsetX)
                     changedW = font.cellWidth * scale;
@@ -3730,7 +4605,7 @@ public class Font implements Disposable {
                 Font font = null;
                 if (family != null) font = family.connected[(int) (glyph >>> 16 & 15)];
                 if (font == null) font = this;
-                GlyphRegion tr = font.mapping.get(ch);
+                GlyphRegion tr = font.getGlyph(ch);
                 if (tr == null) continue;
                 scale = (glyph & ALTERNATE) != 0L || isMono ? 1f : ((glyph + 0x300000L >>> 20 & 15) + 1) * 0.25f;
                 if (font.kerning != null) {
@@ -3742,7 +4617,7 @@ public class Font implements Disposable {
                     else
                         scaleX = font.scaleX * scale * (1f + 0.5f * (-(glyph & SUPERSCRIPT) >> 63));
                     line.height = Math.max(line.height, currentHeight = (font.cellHeight /* - font.descent * font.scaleY */) * scale);
-                    amt = font.kerning.get(kern, 0) * scaleX;
+                    amt = font.getKerning(kern) * scaleX;
                     float changedW = tr.xAdvance * scaleX;
                     if(tr.offsetX != tr.offsetX)
                         changedW = font.cellWidth * scale;
@@ -3818,7 +4693,7 @@ public class Font implements Disposable {
             Font font = null;
             if (family != null) font = family.connected[(int) (glyph >>> 16 & 15)];
             if (font == null) font = this;
-            GlyphRegion tr = font.mapping.get(ch);
+            GlyphRegion tr = font.getGlyph(ch);
             if (tr == null) {
                 advances.add(0f);
                 continue;
@@ -3833,10 +4708,10 @@ public class Font implements Disposable {
                 else
                     scaleX = font.scaleX * scale * (1f + 0.5f * (-(glyph & SUPERSCRIPT) >> 63));
                 line.height = Math.max(line.height, (font.cellHeight /* - font.descent * font.scaleY */) * scale);
-                amt = font.kerning.get(kern, 0) * scaleX;
+                amt = font.getKerning(kern) * scaleX;
                 float changedW = xAdvance(font, scaleX, glyph);
                 if(initial){
-                    float ox = font.mapping.get((int) (glyph & 0xFFFF), font.defaultValue).offsetX
+                    float ox = font.getGlyph((int) (glyph & 0xFFFF), font.defaultValue).offsetX
                             * scaleX;
                     if(ox < 0) changedW -= ox;
                     initial = false;
@@ -3856,7 +4731,7 @@ public class Font implements Disposable {
                 if (font.isMono)
                     changedW += tr.offsetX * scaleX;
                 else if(initial){
-                    float ox = font.mapping.get((int) (glyph & 0xFFFF), font.defaultValue).offsetX
+                    float ox = font.getGlyph((int) (glyph & 0xFFFF), font.defaultValue).offsetX
                             * scaleX;
                     if(ox < 0) changedW -= ox;
                     initial = false;
@@ -3960,6 +4835,8 @@ public class Font implements Disposable {
      * @return the distance in world units the drawn glyph uses up for width, as in a line of text along the given rotation
      */
     public float drawGlyph(Batch batch, long glyph, float x, float y, float rotation, float sizingX, float sizingY, int backgroundColor) {
+        if (TextraStats.enabled && !(batch instanceof RecordingBatch && ((RecordingBatch) batch).isCapturing()))
+            TextraStats.glyph();
         final float sin = MathUtils.sinDeg(rotation);
         final float cos = MathUtils.cosDeg(rotation);
 
@@ -3975,7 +4852,7 @@ public class Font implements Disposable {
             jostled = (glyph & ALTERNATE_MODES_MASK) == JOSTLE;
         }
 
-        GlyphRegion tr = font.mapping.get(c);
+        GlyphRegion tr = font.getGlyph(c);
         if (tr == null) return 0f;
 
         if(squashed) {
@@ -4046,13 +4923,13 @@ public class Font implements Disposable {
 //        // when offsetX is NaN, that indicates a box drawing character that we draw ourselves.
 //        if (tr.offsetX != tr.offsetX) {
 //            if(backgroundColor != 0) {
-//                drawBlockSequence(batch, BlockUtils.BOX_DRAWING[0x88], font.mapping.get(solidBlock, tr),
+//                drawBlockSequence(batch, BlockUtils.BOX_DRAWING[0x88], font.getGlyph(solidBlock, tr),
 //                        NumberUtils.intToFloatColor(Integer.reverseBytes(backgroundColor)),
 //                        x - cellWidth * (sizingX - 1.0f) + centerX, y - cellHeight * (sizingY - 1.0f) + centerY,
 //                        cellWidth * sizingX, cellHeight * sizingY, rotation);
 //            }
 //            float[] boxes = BlockUtils.BOX_DRAWING[c - 0x2500];
-//            drawBlockSequence(batch, boxes, font.mapping.get(solidBlock, tr), color,
+//            drawBlockSequence(batch, boxes, font.getGlyph(solidBlock, tr), color,
 //                    x - cellWidth * (sizingX - 1.0f) + centerX, y - cellHeight * (sizingY - 1.0f) + centerY,
 //                    cellWidth * sizingX, cellHeight * sizingY, rotation);
 //            return cellWidth;
@@ -4062,14 +4939,14 @@ public class Font implements Disposable {
         // when offsetX is NaN, that indicates a box drawing character that we draw ourselves.
         if (tr.offsetX != tr.offsetX) {
             if(backgroundColor != 0) {
-                drawBlockSequence(batch, BlockUtils.BOX_DRAWING[0x88], font.mapping.get(solidBlock, tr),
+                drawBlockSequence(batch, BlockUtils.BOX_DRAWING[0x88], font.getGlyph(solidBlock, tr),
                         NumberUtils.intToFloatColor(Integer.reverseBytes(backgroundColor)),
                         x,
                         y,// - font.descent * scaleY - font.cellHeight * scale * sizingY * 0.5f,
                         font.cellWidth * sizingX, font.cellHeight * scale * sizingY, rotation);
             }
             float[] boxes = BlockUtils.BOX_DRAWING[c - 0x2500];
-            drawBlockSequence(batch, boxes, font.mapping.get(solidBlock, tr), color,
+            drawBlockSequence(batch, boxes, font.getGlyph(solidBlock, tr), color,
 //                    x + centerX * cos,
 //                    y + centerX * sin,
                     x, y,// - font.descent * scaleY - font.cellHeight * scale * sizingY * 0.5f,
@@ -4207,7 +5084,7 @@ public class Font implements Disposable {
         }
 
         if(backgroundColor != 0) {
-            drawBlockSequence(batch, BlockUtils.BOX_DRAWING[0x88], font.mapping.get(font.solidBlock, tr),
+            drawBlockSequence(batch, BlockUtils.BOX_DRAWING[0x88], font.getGlyph(font.solidBlock, tr),
                     NumberUtils.intToFloatColor(Integer.reverseBytes(backgroundColor)),
                     x - font.cellWidth * scale * 0.5f,// - (xAdvance * scaleX * (sizingX - 0.5f) + tr.offsetX * scaleX) * 0.5f,
                     y + font.descent * scaleY * sizingY,// - (font.cellHeight * scale + font.descent * osy) * 0.5f * sizingY,
@@ -4219,14 +5096,14 @@ public class Font implements Disposable {
             yt += (code >>> 6) % 5 - 2f;
 //            int code = (NumberUtils.floatToIntBits(x + y) >>> 16 ^ c);
 //            drawBlockSequence(batch, BlockUtils.BOX_DRAWING[(code % 0x6D)],
-//                    font.mapping.get(solidBlock, tr), color,
+//                    font.getGlyph(solidBlock, tr), color,
 //                    x - xAdvance * scaleX * (sizingX - 1.0f) + atlasOffX - tr.offsetX * scaleX + (code & 7) - 4.5f,
 //                    y + font.descent * scaleY * sizingY + atlasOffY + (code >>> 3 & 7) - 3.5f,
 //                    xAdvance * scaleX * sizingX, (cellHeight * scale - font.descent * scaleY) * sizingY, rotation);
 //            code ^= code * code | 1;
 //            code ^= code >> 16;
 //            drawBlockSequence(batch, BlockUtils.BOX_DRAWING[(code % 0x6D)],
-//                    font.mapping.get(solidBlock, tr), color,
+//                    font.getGlyph(solidBlock, tr), color,
 //                    x - xAdvance * scaleX * (sizingX - 1.0f) + atlasOffX - tr.offsetX * scaleX + (code & 3) - 3f,
 //                    y + font.descent * scaleY * sizingY + atlasOffY + (code >>> 2 & 15) - 8f,
 //                    xAdvance * scaleX * sizingX, (cellHeight * scale - font.descent * scaleY) * sizingY, rotation);
@@ -4252,7 +5129,17 @@ public class Font implements Disposable {
         vertices[18] = u2;
         vertices[19] = v;
 
-        if((glyph & ALTERNATE_MODES_MASK) == DROP_SHADOW) {
+        final long mode = glyph & ALTERNATE_MODES_MASK;
+        final boolean bold = (glyph & BOLD) != 0L;
+        // when the effect shader is active, any effects are drawn along with the glyph, using one quad
+        final boolean singleQuad = effectShader && shader != null && batch.getShader() == shader
+                && (bold || mode == DROP_SHADOW || mode == BLACK_OUTLINE || mode == WHITE_OUTLINE || mode == SHINY)
+                && drawEffectGlyph(batch, font, tex, x, y, cos, sin, p0x, p0y, p1x, p1y, p2x, p2y, u, v, u2, v2, color, mode, bold);
+
+        if(singleQuad) {
+            // already drawn by drawEffectGlyph()
+        }
+        else if((glyph & ALTERNATE_MODES_MASK) == DROP_SHADOW) {
 //            float shadow = Color.toFloatBits(0.1333f, 0.1333f, 0.1333f, 0.5f);// (dark transparent gray, as batch alpha is lowered, this gets more transparent)
             float shadow = ColorUtils.multiplyAlpha(PACKED_SHADOW_COLOR, batch.getColor().a);// (dark transparent gray, as batch alpha is lowered, this gets more transparent)
             vertices[2] = shadow;
@@ -4308,17 +5195,19 @@ public class Font implements Disposable {
         }
 
         // actually draw the main glyph
-        vertices[2] = color;
-        vertices[7] = color;
-        vertices[12] = color;
-        vertices[17] = color;
+        if (!singleQuad) {
+            vertices[2] = color;
+            vertices[7] = color;
+            vertices[12] = color;
+            vertices[17] = color;
 
-//        vertices[15] = ((vertices[0] = (x + cos * p0x - sin * p0y)) - (vertices[5] = (x + cos * p1x - sin * p1y)) + (vertices[10] = (x + cos * p2x - sin * p2y)));
-//        vertices[16] = ((vertices[1] = (y + sin * p0x + cos * p0y)) - (vertices[6] = (y + sin * p1x + cos * p1y)) + (vertices[11] = (y + sin * p2x + cos * p2y)));
-        vertices[15] = (vertices[0] = font.handleIntegerPosition(x + cos * p0x - sin * p0y)) - (vertices[5] = font.handleIntegerPosition(x + cos * p1x - sin * p1y)) + (vertices[10] = font.handleIntegerPosition(x + cos * p2x - sin * p2y));
-        vertices[16] = (vertices[1] = font.handleIntegerPosition(y + sin * p0x + cos * p0y)) - (vertices[6] = font.handleIntegerPosition(y + sin * p1x + cos * p1y)) + (vertices[11] = font.handleIntegerPosition(y + sin * p2x + cos * p2y));
+    //        vertices[15] = ((vertices[0] = (x + cos * p0x - sin * p0y)) - (vertices[5] = (x + cos * p1x - sin * p1y)) + (vertices[10] = (x + cos * p2x - sin * p2y)));
+    //        vertices[16] = ((vertices[1] = (y + sin * p0x + cos * p0y)) - (vertices[6] = (y + sin * p1x + cos * p1y)) + (vertices[11] = (y + sin * p2x + cos * p2y)));
+            vertices[15] = (vertices[0] = font.handleIntegerPosition(x + cos * p0x - sin * p0y)) - (vertices[5] = font.handleIntegerPosition(x + cos * p1x - sin * p1y)) + (vertices[10] = font.handleIntegerPosition(x + cos * p2x - sin * p2y));
+            vertices[16] = (vertices[1] = font.handleIntegerPosition(y + sin * p0x + cos * p0y)) - (vertices[6] = font.handleIntegerPosition(y + sin * p1x + cos * p1y)) + (vertices[11] = font.handleIntegerPosition(y + sin * p2x + cos * p2y));
 
-        drawVertices(batch, tex, vertices);
+            drawVertices(batch, tex, vertices);
+        }
 
         // This is the "emergency debug code" to get as much info as possible about a glyph when it prints.
 //        if(c >= 0xE000 && c < 0xF800) {
@@ -4330,7 +5219,7 @@ public class Font implements Disposable {
 //                    ", tr.offsetX: " + tr.offsetX + ", tr.offsetY: " + tr.offsetY + ", tr.xAdvance: " + tr.xAdvance);
 //        }
 
-        if ((glyph & BOLD) != 0L) {
+        if (!singleQuad && bold) {
             final float old0 = p0x;
             final float old1 = p1x;
             final float old2 = p2x;
@@ -4388,7 +5277,7 @@ public class Font implements Disposable {
             if (c >= 0xE000 && c < 0xF800) {
                 y -= (scaledHeight * 0.5f);
             }
-            GlyphRegion under = font.mapping.get(0x2500);
+            GlyphRegion under = font.getGlyph(0x2500);
             if (under != null && under.offsetX != under.offsetX) {
                 p0x = font.cellWidth * -0.5f - scale * fsx + xAdvance * font.underX * scaleX;
                 p0y = ((font.underY - 0.8125f) * font.cellHeight) * scale * sizingY + centerY
@@ -4422,12 +5311,12 @@ public class Font implements Disposable {
 
 //                    p0x = xc + (changedW * 0.5f) + cellWidth * font.underX * scale;
 //                    p0y = font.handleIntegerPosition(yt + font.underY * font.cellHeight * scale * sizingY);
-                drawBlockSequence(batch, BlockUtils.BOX_DRAWING[0], font.mapping.get(font.solidBlock, tr), color,
+                drawBlockSequence(batch, BlockUtils.BOX_DRAWING[0], font.getGlyph(font.solidBlock, tr), color,
                         x + (cos * p0x - sin * p0y), y + (sin * p0x + cos * p0y),
                         xAdvance * (font.underLength+1) * scaleX + xPx * 5f,
                         font.cellHeight * scale * sizingY * (1f + font.underBreadth), rotation);
             } else {
-                under = font.mapping.get('_');
+                under = font.getGlyph('_');
                 if (under != null) {
                     trrh = under.getRegionHeight();
                     h = trrh * osy * sizingY + cellHeight * font.underBreadth * scale * sizingY;
@@ -4509,7 +5398,7 @@ public class Font implements Disposable {
                 y -= (scaledHeight * 0.5f);
             }
 
-            GlyphRegion dash = font.mapping.get(0x2500);
+            GlyphRegion dash = font.getGlyph(0x2500);
             if (dash != null && dash.offsetX != dash.offsetX) {
                 p0x = font.cellWidth * -0.5f - scale * fsx + xAdvance * font.strikeX * scaleX;
                 p0y = centerY + (font.strikeY - 0.45f) * font.cellHeight * scale * sizingY + font.descent * font.scaleY;
@@ -4535,12 +5424,12 @@ public class Font implements Disposable {
                     p0y -= ych;
                     y += ych;// - font.descent * font.scaleY * 2f;
                 }
-                drawBlockSequence(batch, BlockUtils.BOX_DRAWING[0], font.mapping.get(font.solidBlock, tr), color,
+                drawBlockSequence(batch, BlockUtils.BOX_DRAWING[0], font.getGlyph(font.solidBlock, tr), color,
                         x + cos * p0x - sin * p0y, y + (sin * p0x + cos * p0y),
                         xAdvance * (font.strikeLength + 1) * scaleX + xPx * 5f,
                         (1f + font.strikeBreadth) * font.cellHeight * scale * sizingY, rotation);
             } else {
-                dash = font.mapping.get('-');
+                dash = font.getGlyph('-');
                 if (dash != null) {
                     trrh = dash.getRegionHeight();
                     h = trrh * osy * sizingY * (1f + font.strikeBreadth);
@@ -4703,11 +5592,76 @@ public class Font implements Disposable {
      * </ul>
      * You can render {@code appendTo} using {@link #drawGlyphs(Batch, Layout, float, float)}.
      *
+     * <br>
+     * This uses scratch space owned by this Font, so it shouldn't be called on the same Font from more than one thread
+     * at a time. If you want to lay out text on other threads, use {@link #markup(String, Layout, MarkupContext)}.
+     *
      * @param text     text with markup
      * @param appendTo a Layout that stores one or more Line objects, carrying color, style, chars, and size
      * @return appendTo, for chaining
      */
     public Layout markup(String text, Layout appendTo) {
+        return markup(text, appendTo, markupContext);
+    }
+
+    /**
+     * Exactly like {@link #markup(String, Layout)}, but uses the given MarkupContext for its scratch space instead of
+     * one owned by this Font. As long as each thread uses its own MarkupContext and its own Layouts, this can be
+     * called on the same Font from multiple threads at once, such as to lay out many Strings in parallel while loading.
+     * This Font must not be modified while that happens, though, and the Layouts should only be drawn on the
+     * rendering thread.
+     *
+     * @param text     text with markup, as described in {@link #markup(String, Layout)}
+     * @param appendTo a Layout that stores one or more Line objects, carrying color, style, chars, and size
+     * @param context  scratch space that must not be in use by any other thread
+     * @return appendTo, for chaining
+     */
+    public Layout markup(String text, Layout appendTo, MarkupContext context) {
+        if (!TextraStats.enabled) return markupInternal(text, appendTo, context, null);
+        final long start = TextraStats.start();
+        markupInternal(text, appendTo, context, null);
+        TextraStats.markup(TimeUtils.nanoTime() - start);
+        return appendTo;
+    }
+
+    /**
+     * Like {@link #markup(String, Layout)}, but continues from the markup state that the previous call to this method
+     * left in {@code appendTo}, so colors, styles, scale, font changes, and the {@code []} history carry over from one
+     * appended piece of text to the next. Only the new text is marked up and wrapped, so appending a message to a chat
+     * or log costs about as much as the message itself, rather than the whole history. Once {@code appendTo} has more
+     * lines or glyphs than it is set to keep, its oldest lines are removed; see {@link StreamingLayout}.
+     * <br>
+     * This uses scratch space owned by this Font, so it shouldn't be called on the same Font from more than one thread
+     * at a time; use {@link #markupAppend(String, StreamingLayout, MarkupContext)} to avoid that.
+     *
+     * @param text     text with markup, as described in {@link #markup(String, Layout)}
+     * @param appendTo a StreamingLayout that will have the text appended to its last Line
+     * @return appendTo, for chaining
+     */
+    public StreamingLayout markupAppend(String text, StreamingLayout appendTo) {
+        return markupAppend(text, appendTo, markupContext);
+    }
+
+    /**
+     * Exactly like {@link #markupAppend(String, StreamingLayout)}, but uses the given MarkupContext for its scratch
+     * space instead of one owned by this Font.
+     *
+     * @param text     text with markup, as described in {@link #markup(String, Layout)}
+     * @param appendTo a StreamingLayout that will have the text appended to its last Line
+     * @param context  scratch space that must not be in use by any other thread
+     * @return appendTo, for chaining
+     */
+    public StreamingLayout markupAppend(String text, StreamingLayout appendTo, MarkupContext context) {
+        final long start = TextraStats.start();
+        appendTo.beginAppend();
+        markupInternal(text, appendTo, context, appendTo);
+        appendTo.endAppend();
+        if (TextraStats.enabled) TextraStats.markup(TimeUtils.nanoTime() - start);
+        return appendTo;
+    }
+
+    private Layout markupInternal(String text, Layout appendTo, MarkupContext context, StreamingLayout stream) {
+        final LongArray historyBuffer = context.historyBuffer, glyphBuffer = context.glyphBuffer;
         boolean capitalize = false, previousWasLetter = false,
                 capsLock = false, lowerCase = false, initial = true;
         int c, scale = 3, fontIndex = -1;
@@ -4717,14 +5671,32 @@ public class Font implements Disposable {
         long baseColor = Long.reverseBytes(NumberUtils.floatToIntBits(appendTo.getBaseColor())) & 0xFFFFFFFE00000000L;
         long color = baseColor;
         long current = color;
+        appendTo.invalidateIndex();
         if (appendTo.font == null || !appendTo.font.equals(this)) {
             appendTo.clear();
             appendTo.font(this);
         }
-        appendTo.peekLine().height = 0;
         float targetWidth = appendTo.getTargetWidth();
         int kern = -1;
         historyBuffer.clear();
+        if (stream != null && stream.hasMarkupState) {
+            // pick up where the last appended text left off, without resetting the current line
+            current = stream.markupCurrent;
+            scale = stream.markupScale;
+            fontIndex = stream.markupFontIndex;
+            if (family != null && fontIndex > 0) {
+                font = family.connected[fontIndex & 15];
+                if (font == null) font = this;
+            }
+            capitalize = stream.markupCapitalize;
+            capsLock = stream.markupCapsLock;
+            lowerCase = stream.markupLowerCase;
+            previousWasLetter = stream.markupPreviousWasLetter;
+            historyBuffer.addAll(stream.markupHistory);
+            initial = appendTo.peekLine().glyphs.isEmpty();
+        } else {
+            appendTo.peekLine().height = 0;
+        }
 
         for (int i = 0, n = text.length(); i < n; i++) {
             scaleX = font.scaleX * (scale + 1) * 0.25f;
@@ -5001,13 +5973,13 @@ public class Font implements Disposable {
                         if (len >= 0) {
                             c = font.nameLookup.get(safeSubstring(text, i + 1, i + len), '+');
                             i += len;
-                            scaleX = (scale + 1) * 0.25f * font.cellHeight / (font.mapping.get(c, font.defaultValue).xAdvance);
+                            scaleX = (scale + 1) * 0.25f * font.cellHeight / (font.getGlyph(c, font.defaultValue).xAdvance);
                         }
                     }
                     if (font.kerning == null) {
                         w = (appendTo.peekLine().width += xAdvance(font, scaleX, current | c));
                         if(initial && !isMono){
-                            float ox = font.mapping.get(c, font.defaultValue).offsetX;
+                            float ox = font.getGlyph(c, font.defaultValue).offsetX;
                             if(ox != ox) ox = 0;
                             else ox *= scaleX;
                             if(ox < 0) w = (appendTo.peekLine().width -= ox);
@@ -5015,9 +5987,9 @@ public class Font implements Disposable {
                         initial = false;
                     } else {
                         kern = kern << 16 | c;
-                        w = (appendTo.peekLine().width += xAdvance(font, scaleX, current | c) + font.kerning.get(kern, 0) * scaleX * (1f + 0.5f * (-(current & SUPERSCRIPT) >> 63)));
+                        w = (appendTo.peekLine().width += xAdvance(font, scaleX, current | c) + font.getKerning(kern) * scaleX * (1f + 0.5f * (-(current & SUPERSCRIPT) >> 63)));
                         if(initial && !isMono){
-                            float ox = font.mapping.get(c, font.defaultValue).offsetX;
+                            float ox = font.getGlyph(c, font.defaultValue).offsetX;
                             if(ox != ox) ox = 0;
                             else ox *= scaleX;
                             ox *= (1f + 0.5f * (-(current & SUPERSCRIPT) >> 63));
@@ -5080,7 +6052,7 @@ public class Font implements Disposable {
                                                 changeNext += adv;
                                                 if(glyphBuffer.size == 1){
                                                     if(!isMono) {
-                                                        float ox = font.mapping.get((char) curr, font.defaultValue).offsetX;
+                                                        float ox = font.getGlyph((char) curr, font.defaultValue).offsetX;
                                                         if (ox != ox) ox = 0;
                                                         else ox *= scaleX;
                                                         ox *= (1f + 0.5f * (-(current & SUPERSCRIPT) >> 63));
@@ -5117,14 +6089,14 @@ public class Font implements Disposable {
                                             }
                                             k2 = k2 << 16 | (char) curr;
                                             float adv = xAdvance(font, scaleX, curr);
-                                            change += adv + font.kerning.get(k2, 0) * scaleX * (1f + 0.5f * (-(curr & SUPERSCRIPT) >> 63));
+                                            change += adv + font.getKerning(k2) * scaleX * (1f + 0.5f * (-(curr & SUPERSCRIPT) >> 63));
                                             if (--leading < 0) {
                                                 k3 = k3 << 16 | (char) curr;
-                                                changeNext += adv + font.kerning.get(k3, 0) * scaleX * (1f + 0.5f * (-(curr & SUPERSCRIPT) >> 63));
+                                                changeNext += adv + font.getKerning(k3) * scaleX * (1f + 0.5f * (-(curr & SUPERSCRIPT) >> 63));
                                                 glyphBuffer.add(curr);
                                                 if(glyphBuffer.size == 1){
                                                     if(!isMono) {
-                                                        float ox = font.mapping.get((char) curr, font.defaultValue).offsetX;
+                                                        float ox = font.getGlyph((char) curr, font.defaultValue).offsetX;
                                                         if (ox != ox) ox = 0;
                                                         else ox *= scaleX;
                                                         ox *= (1f + 0.5f * (-(current & SUPERSCRIPT) >> 63));
@@ -5175,18 +6147,18 @@ public class Font implements Disposable {
                 }
                 showCh = (current & SMALL_CAPS) == SMALL_CAPS ? Category.caseUp(ch) : ch;
                 if(ch >= 0xE000 && ch < 0xF800){
-                    scaleX = (scale + 1) * 0.25f * font.cellHeight / (font.mapping.get(ch, font.defaultValue).xAdvance);
-//                    scaleX = (scale + 1) * 0.25f * font.cellHeight / (font.mapping.get(ch, font.defaultValue).xAdvance*1.25f);
+                    scaleX = (scale + 1) * 0.25f * font.cellHeight / (font.getGlyph(ch, font.defaultValue).xAdvance);
+//                    scaleX = (scale + 1) * 0.25f * font.cellHeight / (font.getGlyph(ch, font.defaultValue).xAdvance*1.25f);
                 }
                 float w;
                 if (font.kerning == null) {
                     w = (appendTo.peekLine().width += xAdvance(font, scaleX, current | showCh));
                 } else {
                     kern = kern << 16 | showCh;
-                    w = (appendTo.peekLine().width += xAdvance(font, scaleX, current | showCh) + font.kerning.get(kern, 0) * scaleX * (1f + 0.5f * (-((current | showCh) & SUPERSCRIPT) >> 63)));
+                    w = (appendTo.peekLine().width += xAdvance(font, scaleX, current | showCh) + font.getKerning(kern) * scaleX * (1f + 0.5f * (-((current | showCh) & SUPERSCRIPT) >> 63)));
                 }
                 if(initial && !isMono) {
-                    float ox = font.mapping.get(showCh, font.defaultValue).offsetX;
+                    float ox = font.getGlyph(showCh, font.defaultValue).offsetX;
                     if (ox != ox) ox = 0;
                     else ox *= scaleX;
                     ox *= (1f + 0.5f * (-(current & SUPERSCRIPT) >> 63));
@@ -5205,7 +6177,7 @@ public class Font implements Disposable {
                     if (appendTo.lines.size >= appendTo.maxLines) {
                         later = null;
                     } else {
-                        later = new Line();
+                        later = appendTo.linePool.obtain();
                         later.height = 0;
                         appendTo.lines.add(later);
                         initial = true;
@@ -5261,7 +6233,7 @@ public class Font implements Disposable {
                                             changeNext += adv;
                                             if(glyphBuffer.size == 1){
                                                 if(!isMono) {
-                                                    float ox = font.mapping.get(showCh, font.defaultValue).offsetX;
+                                                    float ox = font.getGlyph(showCh, font.defaultValue).offsetX;
                                                     if (ox != ox) ox = 0;
                                                     else ox *= scaleX * (1f + 0.5f * (-(current & SUPERSCRIPT) >> 63));
                                                     if (ox < 0) changeNext -= ox;
@@ -5299,14 +6271,14 @@ public class Font implements Disposable {
                                         }
                                         k2 = k2 << 16 | showCh;
                                         float adv = xAdvance(font, scaleX, curr);
-                                        change += adv + font.kerning.get(k2, 0) * scaleX * (isMono || (curr & SUPERSCRIPT) == 0L ? 1f : 0.5f);
+                                        change += adv + font.getKerning(k2) * scaleX * (isMono || (curr & SUPERSCRIPT) == 0L ? 1f : 0.5f);
                                         if (--leading < 0) {
                                             kern = kern << 16 | showCh;
-                                            changeNext += adv + font.kerning.get(kern, 0) * scaleX * (isMono || (curr & SUPERSCRIPT) == 0L ? 1f : 0.5f);
+                                            changeNext += adv + font.getKerning(kern) * scaleX * (isMono || (curr & SUPERSCRIPT) == 0L ? 1f : 0.5f);
                                             glyphBuffer.add(curr);
                                             if(glyphBuffer.size == 1){
                                                 if(!isMono) {
-                                                    float ox = font.mapping.get(showCh, font.defaultValue).offsetX;
+                                                    float ox = font.getGlyph(showCh, font.defaultValue).offsetX;
                                                     if (ox != ox) ox = 0;
                                                     else ox *= scaleX * (1f + 0.5f * (-(current & SUPERSCRIPT) >> 63));
                                                     if (ox < 0) changeNext -= ox;
@@ -5337,6 +6309,18 @@ public class Font implements Disposable {
                 }
             }
         }
+        if (stream != null) {
+            stream.hasMarkupState = true;
+            stream.markupCurrent = current;
+            stream.markupScale = scale;
+            stream.markupFontIndex = fontIndex;
+            stream.markupCapitalize = capitalize;
+            stream.markupCapsLock = capsLock;
+            stream.markupLowerCase = lowerCase;
+            stream.markupPreviousWasLetter = previousWasLetter;
+            stream.markupHistory.clear();
+            stream.markupHistory.addAll(historyBuffer);
+        }
         return appendTo;
     }
 
@@ -5420,14 +6404,14 @@ public class Font implements Disposable {
                         }
                         k2 = k2 << 16 | (char) curr;
                         float adv = xAdvance(font, scaleX, curr);
-                        change += adv + font.kerning.get(k2, 0) * scaleX * (isMono || (curr & SUPERSCRIPT) == 0L ? 1f : 0.5f);
+                        change += adv + font.getKerning(k2) * scaleX * (isMono || (curr & SUPERSCRIPT) == 0L ? 1f : 0.5f);
                     }
                     for (int e = 0; e < ellipsis.length(); e++) {
                         // 0xFFFFFFFF81FF0000L masks to include everything but style and char
                         curr = (curr & 0xFFFFFFFF81FF0000L) | ellipsis.charAt(e);
                         k2 = k2 << 16 | (char) curr;
                         float adv = xAdvance(font, scaleX, curr);
-                        change -= adv + font.kerning.get(k2, 0) * scaleX * (isMono || (curr & SUPERSCRIPT) == 0L ? 1f : 0.5f);
+                        change -= adv + font.getKerning(k2) * scaleX * (isMono || (curr & SUPERSCRIPT) == 0L ? 1f : 0.5f);
                     }
                 }
                 if (earlier.width - change > appendTo.targetWidth)
@@ -6079,26 +7063,74 @@ public class Font implements Disposable {
      * When the {@link Layout#getTargetWidth() targetWidth} of a Layout changes, you can use this to cause the text to
      * be placed according to the new width, and wrap if needed. This doesn't allocate as much as
      * {@link #markup(String, Layout)}, if at all, but may eat up newlines if called repeatedly.
+     * <br>
+     * This is the same as calling {@link #regenerateLayout(Layout, int, int)} with the whole range of lines.
      * @param changing a Layout that will be modified in-place
      * @return {@code changing}, after modifications
      */
     public Layout regenerateLayout(Layout changing) {
+        return regenerateLayout(changing, 0, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Wraps the text again in only the paragraphs of {@code changing} that contain the lines from {@code fromLine} to
+     * {@code toLine}, inclusive. A paragraph here is a run of lines that ends with a hard line break ({@code '\n'}) or
+     * the end of the Layout. This is meant to be called after the glyphs in a few lines have been edited, such as when
+     * inserting into or deleting from a long Layout; lines outside the affected paragraphs are left as they are, and
+     * only have their sizes recalculated. If the target width of {@code changing} is different from the width it was
+     * last wrapped at by this method, or it hasn't been wrapped by this method yet, every line is wrapped again.
+     * If {@code changing} has a limited {@link Layout#getMaxLines() maxLines}, all its lines are also wrapped again,
+     * because text may need to move past the limit.
+     * @param changing a Layout that will be modified in-place
+     * @param fromLine the first line index that was changed; will be moved back to the start of its paragraph
+     * @param toLine the last line index that was changed, inclusive; will be moved forward to the end of its paragraph
+     * @return {@code changing}, after modifications
+     */
+    public Layout regenerateLayout(Layout changing, int fromLine, int toLine) {
         if (changing.font == null) {
             return changing;
         }
+        if (TextraStats.enabled) TextraStats.regeneration();
         if(!changing.font.equals(this)){
             changing.font = this;
         }
+        changing.invalidateIndex();
         Font font = null;
         float scaleX;
         float targetWidth = changing.getTargetWidth();
         int oldLength = changing.lines.size;
-        Line firstLine = changing.getLine(0);
-        for (int i = 1; i < oldLength; i++) {
-            firstLine.glyphs.addAll(changing.getLine(i).glyphs);
+        int start, tail;
+        if (changing.maxLines != Integer.MAX_VALUE) {
+            Line firstLine = changing.getLine(0);
+            for (int i = 1; i < oldLength; i++) {
+                firstLine.glyphs.addAll(changing.getLine(i).glyphs);
+            }
+            changing.truncateLines(1);
+            start = 0;
+            tail = 0;
+        } else {
+            int end;
+            if (changing.wrapWidth != targetWidth) {
+                start = 0;
+                end = oldLength - 1;
+            } else {
+                start = Math.max(0, Math.min(fromLine, oldLength - 1));
+                end = Math.max(start, Math.min(toLine, oldLength - 1));
+                while (start > 0 && !endsParagraph(changing.getLine(start - 1)))
+                    start--;
+                while (end < oldLength - 1 && !endsParagraph(changing.getLine(end)))
+                    end++;
+            }
+            tail = oldLength - 1 - end;
         }
-        changing.lines.truncate(1);
-        for (int ln = 0; ln < changing.lines(); ln++) {
+        changing.wrapWidth = targetWidth;
+        for (int ln = start; ln < changing.lines.size - tail; ln++) {
+            // soft-wrapped lines in this paragraph are joined back together before wrapping again
+            while (ln + 1 < changing.lines.size - tail && !endsParagraph(changing.getLine(ln))) {
+                Line joined = changing.lines.removeIndex(ln + 1);
+                changing.getLine(ln).glyphs.addAll(joined.glyphs);
+                changing.linePool.free(joined);
+            }
             Line line = changing.getLine(ln);
             line.height = 0;
             float drawn = 0f;
@@ -6121,14 +7153,19 @@ public class Font implements Disposable {
                     scale = (int) ((glyph & ALTERNATE) != 0L ? 3 : (glyph + 0x300000L >>> 20 & 15));
                     line.height = Math.max(line.height, (font.cellHeight /* - font.descent * font.scaleY */) * (scale + 1) * 0.25f);
                     if(ch >= 0xE000 && ch < 0xF800)
-                        scaleX = (scale + 1) * 0.25f * font.cellHeight / (font.mapping.get(ch, font.defaultValue).xAdvance);
-//                        scaleX = (scale + 1) * 0.25f * font.cellHeight / (font.mapping.get(ch, font.defaultValue).xAdvance*1.25f);
+                        scaleX = (scale + 1) * 0.25f * font.cellHeight / (font.getGlyph(ch, font.defaultValue).xAdvance);
+//                        scaleX = (scale + 1) * 0.25f * font.cellHeight / (font.getGlyph(ch, font.defaultValue).xAdvance*1.25f);
                     else
                         scaleX = font.scaleX * (scale + 1) * 0.25f;
 
                     if (ch == '\n') {
+                        if (i + 1 == n && ln + 1 < changing.lines.size) {
+                            glyphs.truncate(i);
+                            glyphs.add('\n');
+                            break;
+                        }
                         Line next;
-                        next = changing.pushLine();
+                        next = changing.insertLine(ln);
                         glyphs.pop();
                         if (next == null) {
                             if(handleEllipsis(changing)) {
@@ -6137,7 +7174,7 @@ public class Font implements Disposable {
                             }
                             break;
                         }
-                        next.height = Math.max(next.height, (font.cellHeight /* - font.descent * font.scaleY */) * (scale + 1) * 0.25f);
+                        next.height = (font.cellHeight /* - font.descent * font.scaleY */) * (scale + 1) * 0.25f;
 
                         long[] arr = next.glyphs.setSize(glyphs.size - i - 1);
                         System.arraycopy(glyphs.items, i + 1, arr, 0, glyphs.size - i - 1);
@@ -6146,7 +7183,7 @@ public class Font implements Disposable {
                         glyphs.add('\n');
                         break;
                     }
-                    GlyphRegion tr = font.mapping.get(ch);
+                    GlyphRegion tr = font.getGlyph(ch);
                     if (tr == null) continue;
                     float changedW = xAdvance(font, scaleX, glyph);
                     if(i == 0 && !isMono){
@@ -6157,12 +7194,8 @@ public class Font implements Disposable {
                     }
                     if (breakPoint >= 0 && drawn + changedW > targetWidth) {
                         cutoff = breakPoint - spacingSpan + 1;
-                        Line next;
-                        if (changing.lines() == ln + 1) {
-                            next = changing.pushLine();
-                            glyphs.pop();
-                        } else
-                            next = changing.getLine(ln + 1);
+                        Line next = changing.insertLine(ln);
+                        glyphs.pop();
                         if (next == null) {
                             glyphs.truncate(cutoff);
                             if(handleEllipsis(changing)) {
@@ -6171,11 +7204,9 @@ public class Font implements Disposable {
                             }
                             break;
                         }
-                        next.height = Math.max(next.height, (font.cellHeight /* - font.descent * font.scaleY */) * (scale + 1) * 0.25f);
+                        next.height = (font.cellHeight /* - font.descent * font.scaleY */) * (scale + 1) * 0.25f;
 
-                        int nextSize = next.glyphs.size;
-                        long[] arr = next.glyphs.setSize(nextSize + glyphs.size - cutoff);
-                        System.arraycopy(arr, 0, arr, glyphs.size - cutoff, nextSize);
+                        long[] arr = next.glyphs.setSize(glyphs.size - cutoff);
                         System.arraycopy(glyphs.items, cutoff, arr, 0, glyphs.size - cutoff);
                         glyphs.truncate(cutoff);
                         break;
@@ -6204,15 +7235,20 @@ public class Font implements Disposable {
                     scale = (int) ((glyph & ALTERNATE) != 0L ? 3 : (glyph + 0x300000L >>> 20 & 15));
                     line.height = Math.max(line.height, (font.cellHeight /* - font.descent * font.scaleY */) * (scale + 1) * 0.25f);
                     if(ch >= 0xE000 && ch < 0xF800)
-                        scaleX = (scale + 1) * 0.25f * font.cellHeight / (font.mapping.get(ch, font.defaultValue).xAdvance);
-//                        scaleX = (scale + 1) * 0.25f * font.cellHeight / (font.mapping.get(ch, font.defaultValue).xAdvance*1.25f);
+                        scaleX = (scale + 1) * 0.25f * font.cellHeight / (font.getGlyph(ch, font.defaultValue).xAdvance);
+//                        scaleX = (scale + 1) * 0.25f * font.cellHeight / (font.getGlyph(ch, font.defaultValue).xAdvance*1.25f);
                     else
                         scaleX = font.scaleX * (scale + 1) * 0.25f;
                     kern = kern << 16 | ch;
-                    amt = font.kerning.get(kern, 0) * scaleX;
+                    amt = font.getKerning(kern) * scaleX;
                     if (ch == '\n') {
+                        if (i + 1 == n && ln + 1 < changing.lines.size) {
+                            glyphs.truncate(i);
+                            glyphs.add('\n');
+                            break;
+                        }
                         Line next;
-                        next = changing.pushLine();
+                        next = changing.insertLine(ln);
                         glyphs.pop();
                         if (next == null) {
                             if(handleEllipsis(changing)) {
@@ -6221,7 +7257,7 @@ public class Font implements Disposable {
                             }
                             break;
                         }
-                        next.height = Math.max(next.height, (font.cellHeight /* - font.descent * font.scaleY */) * (scale + 1) * 0.25f);
+                        next.height = (font.cellHeight /* - font.descent * font.scaleY */) * (scale + 1) * 0.25f;
 
                         long[] arr = next.glyphs.setSize(glyphs.size - i - 1);
                         System.arraycopy(glyphs.items, i + 1, arr, 0, glyphs.size - i - 1);
@@ -6230,7 +7266,7 @@ public class Font implements Disposable {
                         glyphs.add('\n');
                         break;
                     }
-                    GlyphRegion tr = font.mapping.get(ch);
+                    GlyphRegion tr = font.getGlyph(ch);
                     if (tr == null) continue;
                     float changedW = xAdvance(font, scaleX, glyph);
                     if(i == 0 && !isMono){
@@ -6241,12 +7277,8 @@ public class Font implements Disposable {
                     }
                     if (breakPoint >= 0 && drawn + changedW + amt > targetWidth) {
                         cutoff = breakPoint - spacingSpan + 1;
-                        Line next;
-                        if (changing.lines() == ln + 1) {
-                            next = changing.pushLine();
-                            glyphs.pop();
-                        } else
-                            next = changing.getLine(ln + 1);
+                        Line next = changing.insertLine(ln);
+                        glyphs.pop();
                         if (next == null) {
                             glyphs.truncate(cutoff);
                             if(handleEllipsis(changing)) {
@@ -6255,11 +7287,9 @@ public class Font implements Disposable {
                             }
                             break;
                         }
-                        next.height = Math.max(next.height, (font.cellHeight /* - font.descent * font.scaleY */) * (scale + 1) * 0.25f);
+                        next.height = (font.cellHeight /* - font.descent * font.scaleY */) * (scale + 1) * 0.25f;
 
-                        int nextSize = next.glyphs.size;
-                        long[] arr = next.glyphs.setSize(nextSize + glyphs.size - cutoff);
-                        System.arraycopy(arr, 0, arr, glyphs.size - cutoff, nextSize);
+                        long[] arr = next.glyphs.setSize(glyphs.size - cutoff);
                         System.arraycopy(glyphs.items, cutoff, arr, 0, glyphs.size - cutoff);
                         glyphs.truncate(cutoff);
                         break;
@@ -6288,6 +7318,10 @@ public class Font implements Disposable {
         return changing;
     }
 
+    private static boolean endsParagraph(Line line) {
+        return line.glyphs.size != 0 && (char) line.glyphs.peek() == '\n';
+    }
+
     /**
      * Sets the FontFamily this can use to switch fonts using [@Name] syntax. If family is null, only the current Font
      * will be used.
@@ -6533,6 +7567,83 @@ public class Font implements Disposable {
                 '}';
     }
 
+    /**
+     * Used by {@link #drawGlyph(Batch, long, float, float, float, float, float, int)} when the effect shader from
+     * {@link #useEffectShader(boolean)} is active, this draws a glyph and its outline, shadow, shine, and/or bold
+     * effect as one quad. The quad is enlarged by a few texels on each side so the effect has room, and the effect,
+     * plus which corner each vertex is, gets packed into the integer part of each vertex's U coordinate for
+     * {@link #effectVertexShader} to decode.
+     *
+     * @param batch the Batch to draw to; its shader should be {@link #shader}
+     * @param font the Font that owns the glyph, which may be a different Font in a {@link FontFamily}
+     * @param tex the Texture the glyph is on
+     * @param x the x position the glyph's quad is rotated around
+     * @param y the y position the glyph's quad is rotated around
+     * @param cos the cosine of the glyph's rotation
+     * @param sin the sine of the glyph's rotation
+     * @param p0x unrotated x of the top-left corner, relative to x
+     * @param p0y unrotated y of the top-left corner, relative to y
+     * @param p1x unrotated x of the bottom-left corner, relative to x
+     * @param p1y unrotated y of the bottom-left corner, relative to y
+     * @param p2x unrotated x of the bottom-right corner, relative to x
+     * @param p2y unrotated y of the bottom-right corner, relative to y
+     * @param u the left texture coordinate
+     * @param v the top texture coordinate
+     * @param u2 the right texture coordinate
+     * @param v2 the bottom texture coordinate
+     * @param color the packed float color of the glyph
+     * @param mode the glyph's bits masked by {@link #ALTERNATE_MODES_MASK}
+     * @param bold true if the glyph is bold
+     * @return true if the glyph was drawn, or false if it is too small to draw this way
+     */
+    protected boolean drawEffectGlyph(Batch batch, Font font, Texture tex, float x, float y, float cos, float sin,
+                                      float p0x, float p0y, float p1x, float p1y, float p2x, float p2y,
+                                      float u, float v, float u2, float v2, float color, long mode, boolean bold) {
+        final int tw = tex.getWidth(), th = tex.getHeight();
+        final float regionW = Math.abs(u2 - u) * tw, regionH = Math.abs(v2 - v) * th;
+        if (regionW < 0.5f || regionH < 0.5f) return false;
+        if (tex != effectTexture) {
+            // the glyphs already in the batch were drawn with the old texel size
+            batch.flush();
+            shader.setUniformf("u_texel", 1f / tw, 1f / th);
+            effectTexture = tex;
+        }
+        final float fx = 2f * Math.max(1f, boldStrength) / regionW, fy = 2f / regionH;
+        final float ax = (p2x - p1x) * fx, ay = (p2y - p1y) * fx;
+        final float bx = (p0x - p1x) * fy, by = (p0y - p1y) * fy;
+        final float q0x = p0x - ax + bx, q0y = p0y - ay + by;
+        final float q1x = p1x - ax - bx, q1y = p1y - ay - by;
+        final float q2x = p2x + ax - bx, q2y = p2y + ay - by;
+        final float du = (u2 - u) * fx, dv = (v2 - v) * fy;
+
+        int code = mode == DROP_SHADOW ? 1 : mode == BLACK_OUTLINE ? 2 : mode == WHITE_OUTLINE ? 3 : mode == SHINY ? 4 : 0;
+        if (bold) code += 5;
+        // each U coordinate stores (u + 1) in its lowest 4 units, and (code + 1) times 4 above that.
+        // the code also tells which corner this is; 10 is added for the right side, 20 for the bottom.
+        vertices[3] = (u - du + 1f) + 4f * (code + 1);
+        vertices[4] = v - dv;
+
+        vertices[8] = (u - du + 1f) + 4f * (code + 21);
+        vertices[9] = v2 + dv;
+
+        vertices[13] = (u2 + du + 1f) + 4f * (code + 31);
+        vertices[14] = v2 + dv;
+
+        vertices[18] = (u2 + du + 1f) + 4f * (code + 11);
+        vertices[19] = v - dv;
+
+        vertices[2] = color;
+        vertices[7] = color;
+        vertices[12] = color;
+        vertices[17] = color;
+
+        vertices[15] = (vertices[0] = font.handleIntegerPosition(x + cos * q0x - sin * q0y)) - (vertices[5] = font.handleIntegerPosition(x + cos * q1x - sin * q1y)) + (vertices[10] = font.handleIntegerPosition(x + cos * q2x - sin * q2y));
+        vertices[16] = (vertices[1] = font.handleIntegerPosition(y + sin * q0x + cos * q0y)) - (vertices[6] = font.handleIntegerPosition(y + sin * q1x + cos * q1y)) + (vertices[11] = font.handleIntegerPosition(y + sin * q2x + cos * q2y));
+
+        drawVertices(batch, tex, vertices);
+        return true;
+    }
+
     /**
      * Given a 20-item float array (almost always {@link #vertices} in this class) and a Texture to draw (part of), this
      * draws some part of the Texture using the given Batch. This is used internally to wrap around calls to
@@ -6582,6 +7693,9 @@ public class Font implements Disposable {
      * @param vertices a 20-item float array organized into 5-float sections per-vertex
      */
     protected void drawVertices(Batch batch, Texture texture, float[] vertices) {
+        // Held vertices are counted once, when RecordingBatch.replay() draws them.
+        if (TextraStats.enabled && !(batch instanceof RecordingBatch && ((RecordingBatch) batch).isHolding()))
+            TextraStats.quad(texture);
         batch.draw(texture, vertices, 0, 20);
     }
 }
\ No newline at end of file
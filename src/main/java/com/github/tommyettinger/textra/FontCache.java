@@ -0,0 +1,178 @@
+/*
+ * Copyright (c) 2023 See AUTHORS file.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.github.tommyettinger.textra;
+
+import com.badlogic.gdx.graphics.g2d.BitmapFont;
+import com.badlogic.gdx.utils.ObjectMap;
+
+/**
+ * A cache of {@link Font}s converted from {@link BitmapFont}s, so widgets that take a scene2d style (like
+ * {@link TextraButton}, {@link TextraCheckBox}, {@link TextraTooltip}, or {@link TextraWindow}) can share one Font per
+ * BitmapFont instead of each converting the same BitmapFont again. A menu with 200 buttons using one skin style then
+ * converts the BitmapFont once, and each button gets a cheap copy made with {@link Font#Font(Font)}, which shares
+ * the glyph data rather than holding its own.
+ * <br>
+ * BitmapFonts are compared by identity, along with the distance field type, the four adjustments, and whether grid
+ * glyphs are made. The cache doesn't use weak references, because those aren't available on GWT.
+ * <br>
+ * Widgets use {@link #shared} through {@link #forWidget(BitmapFont, boolean)}. Because each widget gets its own
+ * copy, scaling or otherwise changing one widget's Font doesn't change any other widget's; the Fonts returned by
+ * {@link #get(BitmapFont, Font.DistanceFieldType, float, float, float, float, boolean)} are the cached originals,
+ * though, and should be treated as read-only. The cache holds each BitmapFont and its Font until they are removed,
+ * even after the Skin that owns the BitmapFont is disposed; call {@link #remove(BitmapFont)} or {@link #clear()} when
+ * disposing a Skin. Setting {@link #shared} to null makes each widget convert its own Font again. This class is not
+ * thread-safe.
+ */
+public class FontCache {
+    /**
+     * The FontCache used by widgets when they convert a BitmapFont from a style; if null, each widget converts its
+     * own Font.
+     */
+    public static FontCache shared = new FontCache();
+
+    private final ObjectMap<Key, Font> cache = new ObjectMap<>(16);
+    /**
+     * Reused for lookups, so a cache hit doesn't allocate a Key.
+     */
+    private final Key probe = new Key();
+
+    /**
+     * Creates an empty FontCache.
+     */
+    public FontCache() {
+    }
+
+    /**
+     * Gets a Font converted from {@code bmFont} for use by a widget. If {@link #shared} isn't null, this is a copy
+     * of the Font cached there, made with {@link Font#Font(Font)} so it shares glyph data with the cached Font but can
+     * be changed on its own; otherwise, this converts a new Font. The Font uses
+     * {@link Font.DistanceFieldType#STANDARD} and no adjustments.
+     *
+     * @param bmFont         a BitmapFont, usually from a scene2d style
+     * @param makeGridGlyphs true if the Font should use its own way of rendering box-drawing/block-element glyphs
+     * @return a Font that belongs to the caller, though its glyph data may be shared with other widgets
+     */
+    public static Font forWidget(BitmapFont bmFont, boolean makeGridGlyphs) {
+        if (shared == null)
+            return new Font(bmFont, Font.DistanceFieldType.STANDARD, 0, 0, 0, 0, makeGridGlyphs);
+        return new Font(shared.get(bmFont, Font.DistanceFieldType.STANDARD, 0, 0, 0, 0, makeGridGlyphs));
+    }
+
+    /**
+     * Gets the cached Font for the given parameters, converting {@code bmFont} with
+     * {@link Font#Font(BitmapFont, Font.DistanceFieldType, float, float, float, float, boolean)} and caching it if
+     * it wasn't already present. The returned Font is shared, and should be treated as read-only.
+     *
+     * @param bmFont         a BitmapFont to convert; compared by identity
+     * @param distanceField  determines how edges are drawn; if unsure, you should use {@link Font.DistanceFieldType#STANDARD}
+     * @param xAdjust        how many pixels to offset each character's x-position by, moving to the right
+     * @param yAdjust        how many pixels to offset each character's y-position by, moving up
+     * @param widthAdjust    how many pixels to add to the used width of each character, using more to the right
+     * @param heightAdjust   how many pixels to add to the used height of each character, using more above
+     * @param makeGridGlyphs true if the Font should use its own way of rendering box-drawing/block-element glyphs
+     * @return a shared, read-only Font converted from {@code bmFont}
+     */
+    public Font get(BitmapFont bmFont, Font.DistanceFieldType distanceField,
+                    float xAdjust, float yAdjust, float widthAdjust, float heightAdjust, boolean makeGridGlyphs) {
+        if (bmFont == null) throw new RuntimeException("bmFont cannot be null");
+        probe.set(bmFont, distanceField, xAdjust, yAdjust, widthAdjust, heightAdjust, makeGridGlyphs);
+        Font font = cache.get(probe);
+        if (font == null) {
+            font = new Font(bmFont, distanceField, xAdjust, yAdjust, widthAdjust, heightAdjust, makeGridGlyphs);
+            cache.put(new Key().set(bmFont, distanceField, xAdjust, yAdjust, widthAdjust, heightAdjust, makeGridGlyphs), font);
+        }
+        return font;
+    }
+
+    /**
+     * Removes every cached Font converted from the given BitmapFont, such as when that BitmapFont is disposed.
+     * This does not dispose the removed Fonts, since widgets may still be using them.
+     *
+     * @param bmFont a BitmapFont that may have been used with this cache; compared by identity
+     */
+    public void remove(BitmapFont bmFont) {
+        for (ObjectMap.Entries<Key, Font> it = cache.entries(); it.hasNext(); ) {
+            if (it.next().key.bmFont == bmFont) it.remove();
+        }
+    }
+
+    /**
+     * Removes every cached Font. This does not dispose the removed Fonts, since widgets may still be using them.
+     */
+    public void clear() {
+        cache.clear();
+    }
+
+    /**
+     * @return how many Fonts are currently cached
+     */
+    public int size() {
+        return cache.size;
+    }
+
+    @Override
+    public String toString() {
+        return "FontCache{size=" + cache.size + '}';
+    }
+
+    private static final class Key {
+        BitmapFont bmFont;
+        Font.DistanceFieldType distanceField;
+        float xAdjust, yAdjust, widthAdjust, heightAdjust;
+        boolean makeGridGlyphs;
+        int hash;
+
+        Key set(BitmapFont bmFont, Font.DistanceFieldType distanceField,
+                float xAdjust, float yAdjust, float widthAdjust, float heightAdjust, boolean makeGridGlyphs) {
+            this.bmFont = bmFont;
+            this.distanceField = distanceField;
+            this.xAdjust = xAdjust;
+            this.yAdjust = yAdjust;
+            this.widthAdjust = widthAdjust;
+            this.heightAdjust = heightAdjust;
+            this.makeGridGlyphs = makeGridGlyphs;
+            int h = System.identityHashCode(bmFont);
+            h = 31 * h + distanceField.ordinal();
+            h = 31 * h + Float.floatToIntBits(xAdjust);
+            h = 31 * h + Float.floatToIntBits(yAdjust);
+            h = 31 * h + Float.floatToIntBits(widthAdjust);
+            h = 31 * h + Float.floatToIntBits(heightAdjust);
+            h = 31 * h + (makeGridGlyphs ? 1 : 0);
+            this.hash = h;
+            return this;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Key)) return false;
+            Key k = (Key) o;
+            return hash == k.hash && bmFont == k.bmFont && distanceField == k.distanceField
+                    && makeGridGlyphs == k.makeGridGlyphs
+                    && Float.floatToIntBits(xAdjust) == Float.floatToIntBits(k.xAdjust)
+                    && Float.floatToIntBits(yAdjust) == Float.floatToIntBits(k.yAdjust)
+                    && Float.floatToIntBits(widthAdjust) == Float.floatToIntBits(k.widthAdjust)
+                    && Float.floatToIntBits(heightAdjust) == Float.floatToIntBits(k.heightAdjust);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+}
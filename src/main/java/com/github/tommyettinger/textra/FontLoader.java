@@ -0,0 +1,176 @@
+/*
+ * Copyright (c) 2023 See AUTHORS file.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.github.tommyettinger.textra;
+
+import com.badlogic.gdx.assets.AssetDescriptor;
+import com.badlogic.gdx.assets.AssetLoaderParameters;
+import com.badlogic.gdx.assets.AssetManager;
+import com.badlogic.gdx.assets.loaders.AsynchronousAssetLoader;
+import com.badlogic.gdx.assets.loaders.FileHandleResolver;
+import com.badlogic.gdx.assets.loaders.TextureLoader;
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.JsonReader;
+
+/**
+ * An {@link com.badlogic.gdx.assets.loaders.AssetLoader} for {@link Font}, so Fonts can be loaded by an
+ * {@link AssetManager} alongside other assets. This accepts AngelCode BMFont .fnt files, SadConsole .font files
+ * (detected by their ".font" extension), and the compact binary format (with {@link Font#BINARY_EXTENSION}) of
+ * either. Parsing the font file happens off the GL thread, and each texture the font uses is loaded as a dependency
+ * through {@link TextureLoader}, so decoding the images is also done off the GL thread. Only creating the Font from
+ * the already-parsed data (and compiling a distance field shader, if needed) happens on the GL thread.
+ * <br>
+ * To use this, register it with {@code assetManager.setLoader(Font.class, new FontLoader(assetManager.getFileHandleResolver()));}
+ * and then load Fonts like any other asset. Texture names in a .fnt file are resolved as-is, like
+ * {@link Font#Font(String)} does, while the texture for a SadConsole .font file is resolved relative to that file.
+ * The textures belong to the AssetManager, so unloading the Font will also unload them (if nothing else uses them).
+ */
+public class FontLoader extends AsynchronousAssetLoader<Font, FontLoader.FontParameter> {
+    /**
+     * The font data in binary form, as read or converted in {@link #getDependencies}.
+     */
+    protected byte[] binaryData;
+    /**
+     * The paths of the textures the font being loaded uses, in page order.
+     */
+    protected String[] texturePaths;
+
+    public FontLoader(FileHandleResolver resolver) {
+        super(resolver);
+    }
+
+    @Override
+    public Array<AssetDescriptor> getDependencies(String fileName, FileHandle file, FontParameter parameter) {
+        String path = file.path();
+        boolean sad = false;
+        if (path.endsWith(Font.BINARY_EXTENSION))
+            binaryData = file.readBytes();
+        else if ("font".equalsIgnoreCase(file.extension())) {
+            binaryData = Font.sadToBinary(new JsonReader().parse(file));
+            sad = true;
+        } else
+            binaryData = Font.fntToBinary(file.readString("UTF8"));
+
+        String[] names = Font.getBinaryTextureNames(binaryData);
+        // Binary data doesn't tell us its kind by extension, so check the kind byte directly.
+        sad |= binaryData.length > 5 && binaryData[5] == Font.BINARY_KIND_SAD;
+        texturePaths = new String[names.length];
+
+        TextureLoader.TextureParameter textureParameter = new TextureLoader.TextureParameter();
+        if (parameter != null) {
+            textureParameter.genMipMaps = parameter.genMipMaps;
+            textureParameter.minFilter = parameter.minFilter;
+            textureParameter.magFilter = parameter.magFilter;
+            if (parameter.distanceField == Font.DistanceFieldType.SDF
+                    || parameter.distanceField == Font.DistanceFieldType.MSDF) {
+                textureParameter.minFilter = Texture.TextureFilter.Linear;
+                textureParameter.magFilter = Texture.TextureFilter.Linear;
+            }
+        }
+
+        Array<AssetDescriptor> deps = new Array<>(names.length);
+        for (int i = 0; i < names.length; i++) {
+            texturePaths[i] = sad ? file.sibling(names[i]).path() : names[i];
+            deps.add(new AssetDescriptor<>(resolve(texturePaths[i]), Texture.class, textureParameter));
+        }
+        return deps;
+    }
+
+    @Override
+    public void loadAsync(AssetManager manager, String fileName, FileHandle file, FontParameter parameter) {
+    }
+
+    @Override
+    public Font loadSync(AssetManager manager, String fileName, FileHandle file, FontParameter parameter) {
+        if (parameter == null) parameter = new FontParameter();
+        Array<TextureRegion> regions = new Array<>(true, texturePaths.length, TextureRegion.class);
+        for (int i = 0; i < texturePaths.length; i++) {
+            regions.add(new TextureRegion(manager.get(texturePaths[i], Texture.class)));
+        }
+        Font font = new Font(binaryData, regions, parameter.distanceField, parameter.xAdjust, parameter.yAdjust,
+                parameter.widthAdjust, parameter.heightAdjust, parameter.makeGridGlyphs);
+        binaryData = null;
+        texturePaths = null;
+        return font;
+    }
+
+    /**
+     * Parameters for loading a {@link Font}; these mirror the arguments to
+     * {@link Font#Font(String, Font.DistanceFieldType, float, float, float, float, boolean)}. The adjustments and
+     * makeGridGlyphs only affect BMFont data; SadConsole fonts ignore them.
+     */
+    public static class FontParameter extends AssetLoaderParameters<Font> {
+        /**
+         * Determines how edges are drawn; if unsure, you should use {@link Font.DistanceFieldType#STANDARD}.
+         * SDF and MSDF fonts always load their textures with Linear filtering.
+         */
+        public Font.DistanceFieldType distanceField = Font.DistanceFieldType.STANDARD;
+        /**
+         * How many pixels to offset each character's x-position by, moving to the right.
+         */
+        public float xAdjust = 0f;
+        /**
+         * How many pixels to offset each character's y-position by, moving up.
+         */
+        public float yAdjust = 0f;
+        /**
+         * How many pixels to add to the used width of each character, using more to the right.
+         */
+        public float widthAdjust = 0f;
+        /**
+         * How many pixels to add to the used height of each character, using more above.
+         */
+        public float heightAdjust = 0f;
+        /**
+         * True if the Font should use its own way of rendering box-drawing/block-element glyphs, ignoring any in the
+         * font file.
+         */
+        public boolean makeGridGlyphs = false;
+        /**
+         * Whether mipmaps should be generated for the font's textures.
+         */
+        public boolean genMipMaps = false;
+        /**
+         * The minifying filter for the font's textures; ignored for SDF and MSDF fonts.
+         */
+        public Texture.TextureFilter minFilter = Texture.TextureFilter.Nearest;
+        /**
+         * The magnifying filter for the font's textures; ignored for SDF and MSDF fonts.
+         */
+        public Texture.TextureFilter magFilter = Texture.TextureFilter.Nearest;
+
+        public FontParameter() {
+        }
+
+        public FontParameter(Font.DistanceFieldType distanceField) {
+            this.distanceField = distanceField;
+        }
+
+        public FontParameter(Font.DistanceFieldType distanceField, float xAdjust, float yAdjust, float widthAdjust,
+                             float heightAdjust, boolean makeGridGlyphs) {
+            this.distanceField = distanceField;
+            this.xAdjust = xAdjust;
+            this.yAdjust = yAdjust;
+            this.widthAdjust = widthAdjust;
+            this.heightAdjust = heightAdjust;
+            this.makeGridGlyphs = makeGridGlyphs;
+        }
+    }
+}
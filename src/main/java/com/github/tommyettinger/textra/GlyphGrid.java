@@ -0,0 +1,599 @@
+/*
+ * Copyright (c) 2023 See AUTHORS file.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.github.tommyettinger.textra;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.g2d.Batch;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.scenes.scene2d.Actor;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.FloatArray;
+import com.badlogic.gdx.utils.IntArray;
+import com.badlogic.gdx.utils.NumberUtils;
+
+import java.util.Arrays;
+
+/**
+ * A retained grid of cells, each holding one glyph (a {@code long} as produced by {@link Font}, with its foreground
+ * color in the upper 32 bits) and an RGBA8888 background color, meant for roguelike-style displays made of a
+ * monospaced Font. Unlike calling {@link Font#drawGlyph(Batch, long, float, float)} for every cell every frame, this
+ * keeps the vertices for every cell in one persistent array, and only calculates them again for cells that changed
+ * since the last time this was drawn. A cell whose new glyph takes the same number of quads on the same Textures as
+ * before is rewritten in place; otherwise, the array is put back together from the stored quads of each cell, which
+ * is a copy rather than a recalculation. When nothing changed, drawing costs one
+ * {@link Batch#draw(Texture, float[], int, int)} call per run of quads that share a Texture.
+ * <br>
+ * Cells are indexed by x from the left and y from the bottom, and each is {@link Font#cellWidth} by
+ * {@link Font#cellHeight} in size. All backgrounds are drawn before all glyphs, so glyphs that extend past their cell
+ * aren't covered by a neighbor's background. Box drawing and block element glyphs are drawn from
+ * {@link com.github.tommyettinger.textra.utils.BlockUtils#BOX_DRAWING} if the Font was created with
+ * {@code makeGridGlyphs} enabled, as with any other drawing. {@link #scroll(int, int)} moves the contents of the grid by
+ * shifting the stored cells and their vertices, without calculating any glyphs again.
+ * <br>
+ * Everything is drawn again if this is moved, its color changes, the Batch's projection changes, or the Font is
+ * changed with {@link #setFont(Font)}. If the Font is modified in some other way, call {@link #invalidate()}.
+ */
+public class GlyphGrid extends Actor {
+    protected Font font;
+    protected final int gridWidth;
+    protected final int gridHeight;
+    /**
+     * The glyph in each cell, indexed by {@code x * gridHeight + y}; 0 means an empty cell.
+     */
+    protected final long[] glyphs;
+    /**
+     * The RGBA8888 background color of each cell, indexed by {@code x * gridHeight + y}; 0 means no background.
+     */
+    protected final int[] backgrounds;
+    /**
+     * True for each cell that changed since its vertices were last calculated.
+     */
+    protected final boolean[] dirty;
+    /**
+     * The index of each cell where {@link #dirty} is true, so only those need to be visited.
+     */
+    protected final IntArray dirtyCells;
+    /**
+     * If true, {@link #vertices} needs to be put back together from the quads of every cell.
+     */
+    protected boolean structureChanged = true;
+
+    /**
+     * The vertices for every background quad, then every glyph quad, in cell order.
+     */
+    protected final FloatArray vertices = new FloatArray(4096);
+    /**
+     * The Texture used by each run of quads in {@link #vertices}.
+     */
+    protected final Array<Texture> textures = new Array<>(true, 4, Texture.class);
+    /**
+     * The index in {@link #vertices} where each run starts; each run ends where the next one starts, or at the end.
+     */
+    protected final IntArray runStarts = new IntArray(4);
+
+    /**
+     * The quads calculated for the glyph in each cell, 20 floats per quad.
+     */
+    private final float[][] cellVertices;
+    /**
+     * The Texture of each quad in {@link #cellVertices}.
+     */
+    private final Texture[][] cellTextures;
+    /**
+     * How many quads each cell's glyph uses.
+     */
+    private final int[] cellQuads;
+    /**
+     * Where each cell's background quad starts in {@link #vertices}, or -1 if it has none.
+     */
+    private final int[] backgroundStarts;
+    /**
+     * Where each cell's glyph quads start in {@link #vertices}.
+     */
+    private final int[] glyphStarts;
+    /**
+     * True for each cell whose glyph couldn't be captured as quads, such as if a subclass of Font draws it some other
+     * way; those cells are drawn directly with {@link Font#drawGlyph(Batch, long, float, float)} every frame.
+     */
+    private final boolean[] live;
+    /**
+     * How many cells in {@link #live} are true.
+     */
+    private int liveCount;
+    private final RecordingBatch recorder = new RecordingBatch();
+    private final float[] state = new float[7], drawnState = new float[7];
+    private final float[] block = new float[20];
+
+    /**
+     * Creates a GlyphGrid with the given size in cells, using the given Font (which is not copied). The Font should be
+     * monospaced.
+     *
+     * @param font       a Font that will be used directly, not copied
+     * @param gridWidth  how many cells wide the grid should be; must be at least 1
+     * @param gridHeight how many cells tall the grid should be; must be at least 1
+     */
+    public GlyphGrid(Font font, int gridWidth, int gridHeight) {
+        if (gridWidth <= 0 || gridHeight <= 0)
+            throw new RuntimeException("A GlyphGrid must be at least 1x1, but was given " + gridWidth + "x" + gridHeight);
+        this.gridWidth = gridWidth;
+        this.gridHeight = gridHeight;
+        final int cells = gridWidth * gridHeight;
+        glyphs = new long[cells];
+        backgrounds = new int[cells];
+        dirty = new boolean[cells];
+        dirtyCells = new IntArray(cells);
+        cellVertices = new float[cells][];
+        cellTextures = new Texture[cells][];
+        cellQuads = new int[cells];
+        backgroundStarts = new int[cells];
+        glyphStarts = new int[cells];
+        live = new boolean[cells];
+        Arrays.fill(backgroundStarts, -1);
+        setFont(font);
+    }
+
+    public Font getFont() {
+        return font;
+    }
+
+    /**
+     * Sets the Font this uses (without copying it), resizes this Actor to fit the grid using the Font's cell size,
+     * and marks every cell as needing to be drawn again.
+     *
+     * @param font a non-null Font, which should be monospaced
+     */
+    public void setFont(Font font) {
+        if (font == null) throw new RuntimeException("font cannot be null");
+        this.font = font;
+        setSize(gridWidth * font.cellWidth, gridHeight * font.cellHeight);
+        invalidate();
+    }
+
+    /**
+     * Gets how wide the grid is, measured in cells.
+     *
+     * @return how many cells wide the grid is
+     */
+    public int getGridWidth() {
+        return gridWidth;
+    }
+
+    /**
+     * Gets how tall the grid is, measured in cells.
+     *
+     * @return how many cells tall the grid is
+     */
+    public int getGridHeight() {
+        return gridHeight;
+    }
+
+    /**
+     * Marks every cell as needing its vertices calculated again, such as after the Font was changed.
+     */
+    public void invalidate() {
+        dirtyCells.clear();
+        for (int i = 0; i < dirty.length; i++) {
+            dirty[i] = true;
+            dirtyCells.add(i);
+        }
+        structureChanged = true;
+    }
+
+    /**
+     * Places a glyph in the given cell. The glyph stores its char, style, and foreground color, and is usually
+     * produced by {@link Font#markupGlyph(char, String, ColorLookup)} or similar. If x or y is outside the grid, this
+     * does nothing.
+     *
+     * @param x     x position of the cell, from 0 at the left
+     * @param y     y position of the cell, from 0 at the bottom
+     * @param glyph the glyph to place, or 0 to empty the cell
+     */
+    public void put(int x, int y, long glyph) {
+        if (x < 0 || y < 0 || x >= gridWidth || y >= gridHeight) return;
+        final int i = x * gridHeight + y;
+        if (glyphs[i] != glyph) {
+            glyphs[i] = glyph;
+            markDirty(i);
+        }
+    }
+
+    /**
+     * Places a char in the given cell with the given RGBA8888 foreground color and no style.
+     *
+     * @param x     x position of the cell, from 0 at the left
+     * @param y     y position of the cell, from 0 at the bottom
+     * @param c     the char to place
+     * @param color the RGBA8888 foreground color
+     */
+    public void put(int x, int y, char c, int color) {
+        put(x, y, (long) color << 32 | c);
+    }
+
+    /**
+     * Places a char in the given cell with the given RGBA8888 foreground and background colors and no style.
+     *
+     * @param x          x position of the cell, from 0 at the left
+     * @param y          y position of the cell, from 0 at the bottom
+     * @param c          the char to place
+     * @param color      the RGBA8888 foreground color
+     * @param background the RGBA8888 background color, or 0 for none
+     */
+    public void put(int x, int y, char c, int color, int background) {
+        put(x, y, (long) color << 32 | c);
+        setBackground(x, y, background);
+    }
+
+    /**
+     * Gets the glyph in the given cell, or 0 if the cell is empty or outside the grid.
+     *
+     * @param x x position of the cell, from 0 at the left
+     * @param y y position of the cell, from 0 at the bottom
+     * @return the glyph in that cell
+     */
+    public long getGlyph(int x, int y) {
+        if (x < 0 || y < 0 || x >= gridWidth || y >= gridHeight) return 0L;
+        return glyphs[x * gridHeight + y];
+    }
+
+    /**
+     * Changes only the foreground color of the glyph in the given cell, keeping its char and style.
+     *
+     * @param x     x position of the cell, from 0 at the left
+     * @param y     y position of the cell, from 0 at the bottom
+     * @param color the RGBA8888 foreground color
+     */
+    public void setForeground(int x, int y, int color) {
+        if (x < 0 || y < 0 || x >= gridWidth || y >= gridHeight) return;
+        put(x, y, (glyphs[x * gridHeight + y] & 0xFFFFFFFFL) | (long) color << 32);
+    }
+
+    /**
+     * Gets the RGBA8888 foreground color of the glyph in the given cell, or 0 if outside the grid.
+     *
+     * @param x x position of the cell, from 0 at the left
+     * @param y y position of the cell, from 0 at the bottom
+     * @return the RGBA8888 foreground color
+     */
+    public int getForeground(int x, int y) {
+        return (int) (getGlyph(x, y) >>> 32);
+    }
+
+    /**
+     * Sets the RGBA8888 background color of the given cell; 0 (or any fully transparent color) removes the background.
+     *
+     * @param x     x position of the cell, from 0 at the left
+     * @param y     y position of the cell, from 0 at the bottom
+     * @param color the RGBA8888 background color, or 0 for none
+     */
+    public void setBackground(int x, int y, int color) {
+        if (x < 0 || y < 0 || x >= gridWidth || y >= gridHeight) return;
+        final int i = x * gridHeight + y;
+        if (backgrounds[i] != color) {
+            backgrounds[i] = color;
+            markDirty(i);
+        }
+    }
+
+    /**
+     * Gets the RGBA8888 background color of the given cell, or 0 if it has none or is outside the grid.
+     *
+     * @param x x position of the cell, from 0 at the left
+     * @param y y position of the cell, from 0 at the bottom
+     * @return the RGBA8888 background color
+     */
+    public int getBackground(int x, int y) {
+        if (x < 0 || y < 0 || x >= gridWidth || y >= gridHeight) return 0;
+        return backgrounds[x * gridHeight + y];
+    }
+
+    /**
+     * Empties every cell, removing all glyphs and backgrounds.
+     */
+    public void clear() {
+        Arrays.fill(glyphs, 0L);
+        Arrays.fill(backgrounds, 0);
+        Arrays.fill(cellQuads, 0);
+        Arrays.fill(dirty, false);
+        Arrays.fill(live, false);
+        liveCount = 0;
+        dirtyCells.clear();
+        structureChanged = true;
+    }
+
+    /**
+     * Moves the contents of every cell by the given number of cells, such as to scroll a map or a message log. Cells
+     * moved off the grid are lost, and cells that nothing moves into become empty. The vertices already calculated for
+     * each glyph are moved along with it, so this doesn't need to calculate any glyphs again.
+     *
+     * @param dx how many cells to move the contents to the right; negative moves left
+     * @param dy how many cells to move the contents up; negative moves down
+     */
+    public void scroll(int dx, int dy) {
+        if (dx == 0 && dy == 0) return;
+        final float shiftX = dx * font.cellWidth, shiftY = dy * font.cellHeight;
+        // visiting cells in the opposite order to the movement means each source is visited after its destination,
+        // so swapping each cell with its source moves everything without extra storage.
+        final int x0 = dx > 0 ? gridWidth - 1 : 0, xStep = dx > 0 ? -1 : 1;
+        final int y0 = dy > 0 ? gridHeight - 1 : 0, yStep = dy > 0 ? -1 : 1;
+        for (int xi = 0, x = x0; xi < gridWidth; xi++, x += xStep) {
+            final int sx = x - dx;
+            for (int yi = 0, y = y0; yi < gridHeight; yi++, y += yStep) {
+                final int sy = y - dy, i = x * gridHeight + y;
+                if (sx < 0 || sy < 0 || sx >= gridWidth || sy >= gridHeight) {
+                    glyphs[i] = 0L;
+                    backgrounds[i] = 0;
+                    cellQuads[i] = 0;
+                    dirty[i] = false;
+                    live[i] = false;
+                    continue;
+                }
+                final int s = sx * gridHeight + sy;
+                glyphs[i] = glyphs[s];
+                backgrounds[i] = backgrounds[s];
+                dirty[i] = dirty[s];
+                live[i] = live[s];
+                final int quads = cellQuads[i] = cellQuads[s];
+                final float[] verts = cellVertices[s];
+                cellVertices[s] = cellVertices[i];
+                cellVertices[i] = verts;
+                final Texture[] texs = cellTextures[s];
+                cellTextures[s] = cellTextures[i];
+                cellTextures[i] = texs;
+                for (int v = 0, n = quads * 20; v < n; v += 5) {
+                    verts[v] += shiftX;
+                    verts[v + 1] += shiftY;
+                }
+            }
+        }
+        dirtyCells.clear();
+        liveCount = 0;
+        for (int i = 0; i < dirty.length; i++) {
+            if (dirty[i]) dirtyCells.add(i);
+            if (live[i]) liveCount++;
+        }
+        structureChanged = true;
+    }
+
+    /**
+     * Marks one cell, by its index, as needing its vertices calculated again.
+     *
+     * @param index the cell's index, {@code x * gridHeight + y}
+     */
+    protected void markDirty(int index) {
+        if (!dirty[index]) {
+            dirty[index] = true;
+            dirtyCells.add(index);
+        }
+    }
+
+    @Override
+    public void draw(Batch batch, float parentAlpha) {
+        boolean resetShader = (font.distanceField != Font.DistanceFieldType.STANDARD || font.isUsingEffectShader()) && batch.getShader() != font.shader;
+        if (resetShader)
+            font.enableShader(batch);
+        batch.getColor().set(getColor()).a *= parentAlpha;
+        batch.setColor(batch.getColor());
+
+        update(batch);
+        for (int i = 0, n = runStarts.size; i < n; i++) {
+            int start = runStarts.get(i), end = i + 1 < n ? runStarts.get(i + 1) : vertices.size;
+            batch.draw(textures.get(i), vertices.items, start, end - start);
+            if (TextraStats.enabled) TextraStats.quads(textures.get(i), (end - start) / 20);
+        }
+        if (liveCount > 0) {
+            for (int i = 0; i < live.length; i++) {
+                if (live[i]) {
+                    final int x = i / gridHeight, y = i - x * gridHeight;
+                    font.drawGlyph(batch, glyphs[i], getX() + x * font.cellWidth,
+                            getY() + y * font.cellHeight - font.descent * font.scaleY * 2f);
+                }
+            }
+        }
+
+        if (resetShader)
+            batch.setShader(null);
+    }
+
+    /**
+     * Calculates the vertices of any cells that changed, and updates {@link #vertices}. This is called by
+     * {@link #draw(Batch, float)}, and only needs to be called directly if drawing {@link #vertices} some other way.
+     *
+     * @param batch the Batch that will draw this grid, with its color already set
+     */
+    public void update(Batch batch) {
+        state[0] = getX();
+        state[1] = getY();
+        state[2] = batch.getPackedColor();
+        state[3] = batch.getProjectionMatrix().val[0];
+        state[4] = batch.getProjectionMatrix().val[5];
+        state[5] = Gdx.graphics.getBackBufferWidth();
+        state[6] = Gdx.graphics.getBackBufferHeight();
+        if (!Arrays.equals(state, drawnState)) {
+            System.arraycopy(state, 0, drawnState, 0, state.length);
+            invalidate();
+        }
+        if (dirtyCells.isEmpty() && !structureChanged) return;
+
+        final boolean hasSolid = font.getGlyph(font.solidBlock) != null;
+        final float[] v = vertices.items;
+        for (int d = 0, n = dirtyCells.size; d < n; d++) {
+            final int i = dirtyCells.get(d);
+            dirty[i] = false;
+            final int oldQuads = cellQuads[i];
+            final boolean sameTextures = recordCell(batch, i);
+            if (structureChanged) continue;
+            // the cell can only be rewritten in place if it still fits in the same space and the same runs
+            if (oldQuads != cellQuads[i] || !sameTextures) {
+                structureChanged = true;
+                continue;
+            }
+            System.arraycopy(cellVertices[i], 0, v, glyphStarts[i], oldQuads * 20);
+            final boolean hasBackground = hasSolid && (backgrounds[i] & 254) != 0;
+            if (hasBackground != (backgroundStarts[i] >= 0)) {
+                structureChanged = true;
+                continue;
+            }
+            if (hasBackground)
+                writeBackground(v, backgroundStarts[i], i);
+        }
+        dirtyCells.clear();
+        if (structureChanged) rebuild();
+    }
+
+    /**
+     * Calculates the quads for the glyph in one cell, storing them in that cell's own arrays. If the glyph can't be
+     * captured as quads, the cell stores no quads and is drawn directly by {@link #draw(Batch, float)} instead.
+     *
+     * @param batch the Batch that will draw this grid; it is only asked for its state, not drawn to
+     * @param i     the cell's index
+     * @return true if every quad uses the same Texture it did before, as far as the old quads went
+     */
+    private boolean recordCell(Batch batch, int i) {
+        final long glyph = glyphs[i];
+        final char c = (char) glyph;
+        if (c == 0 || (c == ' ' && (glyph & (Font.UNDERLINE | Font.STRIKETHROUGH)) == 0L)) {
+            cellQuads[i] = 0;
+            setLive(i, false);
+            return true;
+        }
+        final int x = i / gridHeight, y = i - x * gridHeight;
+        // nothing is drawn while capturing, so Font leaves it out of the stats; draw() counts what it draws.
+        recorder.startCapturing(batch);
+        font.drawGlyph(recorder, glyph, getX() + x * font.cellWidth,
+                getY() + y * font.cellHeight - font.descent * font.scaleY * 2f);
+        final boolean captured = recorder.stopRecording();
+        setLive(i, !captured);
+        if (!captured) {
+            cellQuads[i] = 0;
+            recorder.clear();
+            return true;
+        }
+        final int floats = recorder.vertices.size - recorder.vertices.size % 20, quads = floats / 20;
+        float[] verts = cellVertices[i];
+        if (verts == null || verts.length < floats)
+            cellVertices[i] = verts = new float[Math.max(floats, 20)];
+        System.arraycopy(recorder.vertices.items, 0, verts, 0, floats);
+        Texture[] texs = cellTextures[i];
+        final int oldQuads = cellQuads[i];
+        boolean same = true;
+        if (texs == null || texs.length < quads) {
+            Texture[] bigger = new Texture[Math.max(quads, 1)];
+            if (texs != null) System.arraycopy(texs, 0, bigger, 0, Math.min(texs.length, oldQuads));
+            cellTextures[i] = texs = bigger;
+        }
+        for (int r = 0, runs = recorder.runStarts.size; r < runs; r++) {
+            final Texture t = recorder.textures.get(r);
+            final int end = (r + 1 < runs ? recorder.runStarts.get(r + 1) : floats) / 20;
+            for (int q = recorder.runStarts.get(r) / 20; q < end; q++) {
+                if (q < oldQuads && texs[q] != t) same = false;
+                texs[q] = t;
+            }
+        }
+        cellQuads[i] = quads;
+        recorder.clear();
+        return same;
+    }
+
+    private void setLive(int i, boolean isLive) {
+        if (live[i] != isLive) {
+            live[i] = isLive;
+            liveCount += isLive ? 1 : -1;
+        }
+    }
+
+    /**
+     * Writes the background quad for one cell into the given array, in the same way as
+     * {@link Font#drawBlocks(Batch, int[][], float, float)}.
+     *
+     * @param dest   the array to write 20 floats into
+     * @param offset where to start writing in dest
+     * @param i      the cell's index
+     */
+    private void writeBackground(float[] dest, int offset, int i) {
+        final TextureRegion solid = font.getGlyph(font.solidBlock);
+        final Texture parent = solid.getTexture();
+        final float u = solid.getU(), v = solid.getV(),
+                u2 = u + 1f / parent.getWidth(), v2 = v + 1f / parent.getHeight();
+        final int x = i / gridHeight, y = i - x * gridHeight;
+        final float left = getX() + x * font.cellWidth + 0x1p-8f, bottom = getY() + y * font.cellHeight + 0x1p-8f;
+        final float color = NumberUtils.intBitsToFloat(Integer.reverseBytes(backgrounds[i] & -2));
+        final float[] b = block;
+        b[0] = left;
+        b[1] = bottom;
+        b[3] = u;
+        b[4] = v;
+        b[5] = left;
+        b[6] = bottom + font.cellHeight;
+        b[8] = u;
+        b[9] = v2;
+        b[10] = left + font.cellWidth;
+        b[11] = bottom + font.cellHeight;
+        b[13] = u2;
+        b[14] = v2;
+        b[15] = left + font.cellWidth;
+        b[16] = bottom;
+        b[18] = u2;
+        b[19] = v;
+        b[2] = b[7] = b[12] = b[17] = color;
+        System.arraycopy(b, 0, dest, offset, 20);
+    }
+
+    /**
+     * Puts {@link #vertices} back together from every cell's background and glyph quads, and finds the runs of quads
+     * that share a Texture.
+     */
+    private void rebuild() {
+        vertices.clear();
+        textures.clear();
+        runStarts.clear();
+        final Font.GlyphRegion solid = font.getGlyph(font.solidBlock);
+        final int cells = glyphs.length;
+        if (solid != null) {
+            final Texture parent = solid.getTexture();
+            for (int i = 0; i < cells; i++) {
+                if ((backgrounds[i] & 254) == 0) {
+                    backgroundStarts[i] = -1;
+                    continue;
+                }
+                addRun(parent);
+                backgroundStarts[i] = vertices.size;
+                writeBackground(vertices.ensureCapacity(20), vertices.size, i);
+                vertices.size += 20;
+            }
+        } else {
+            Arrays.fill(backgroundStarts, -1);
+        }
+        for (int i = 0; i < cells; i++) {
+            glyphStarts[i] = vertices.size;
+            final Texture[] texs = cellTextures[i];
+            for (int q = 0, n = cellQuads[i]; q < n; q++) {
+                addRun(texs[q]);
+                vertices.addAll(cellVertices[i], q * 20, 20);
+            }
+        }
+        structureChanged = false;
+    }
+
+    private void addRun(Texture texture) {
+        if (textures.size == 0 || textures.peek() != texture) {
+            textures.add(texture);
+            runStarts.add(vertices.size);
+        }
+    }
+}
@@ -49,8 +49,13 @@ public class ImageTextraButton extends Button {
         setSkin(skin);
     }
 
+    /**
+     * Creates an ImageTextraButton using the given style. The Font is a copy of one converted from the style's
+     * BitmapFont by {@link FontCache#forWidget}, so it shares glyph data with other widgets using that BitmapFont, but
+     * it can be scaled or otherwise changed on its own.
+     */
     public ImageTextraButton(@Null String text, ImageTextButtonStyle style) {
-        this(text, style, new Font(style.font));
+        this(text, style, FontCache.forWidget(style.font, false));
     }
 
     public ImageTextraButton(@Null String text, Skin skin, Font replacementFont) {
@@ -104,7 +109,7 @@ public class ImageTextraButton extends Button {
 
         if (label != null) {
             ImageTextButtonStyle textButtonStyle = (ImageTextButtonStyle) style;
-            label.setFont(new Font(textButtonStyle.font));
+            label.setFont(FontCache.forWidget(textButtonStyle.font, false));
             Color c = getFontColor();
             if(c != null) label.setColor(c);
         }
@@ -120,7 +125,7 @@ public class ImageTextraButton extends Button {
 
         if (label != null) {
             ImageTextButtonStyle textButtonStyle = (ImageTextButtonStyle) style;
-            label.setFont(new Font(textButtonStyle.font, Font.DistanceFieldType.STANDARD, 0, 0, 0, 0, makeGridGlyphs));
+            label.setFont(FontCache.forWidget(textButtonStyle.font, makeGridGlyphs));
             Color c = getFontColor();
             if(c != null) label.setColor(c);
         }
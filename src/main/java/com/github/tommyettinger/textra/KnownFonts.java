@@ -35,7 +35,9 @@ import static com.github.tommyettinger.textra.Font.DistanceFieldType.*;
  * method. It's likely that many games would only use one Font, and so would generally only need a .fnt file, a
  * .png file, and some kind of license file. They could ignore all other assets required by other fonts. The files this
  * class needs are looked for in the assets root folder by default, but you can change the names or locations of asset
- * files with {@link #setAssetPrefix(String)}.
+ * files with {@link #setAssetPrefix(String)}. If a file with the same name as a needed .fnt or .font file, but with the
+ * extension {@link Font#BINARY_EXTENSION}, is present, that precompiled binary file is loaded instead, which is much
+ * faster for large fonts; these can be made with {@link Font#convertToBinary(FileHandle, FileHandle)}.
  * <br>
  * There's some documentation for every known Font, including a link to a preview image and a listing of all required
  * files to use a Font. The required files include any license you need to abide by; this doesn't necessarily belong in
@@ -83,6 +85,24 @@ public final class KnownFonts implements LifecycleListener {
             instance.prefix = prefix;
     }
 
+    /**
+     * If a precompiled binary version of the given .fnt or .font file exists (with the same name, but with
+     * {@link Font#BINARY_EXTENSION} as its extension), this returns the name of that binary file, so that the Font
+     * can skip parsing text. Otherwise, this returns fileName unchanged. You can create the binary files with
+     * {@link Font#convertToBinary(FileHandle, FileHandle)}.
+     * @param prefix the asset prefix, which is checked as part of the path but not included in the result
+     * @param fileName the name of a .fnt or .font file, without the prefix
+     * @return the name of the binary file if it exists, or fileName otherwise; never includes prefix
+     */
+    private static String preferBinary(String prefix, String fileName) {
+        int dot = fileName.lastIndexOf('.');
+        String binaryName = (dot < 0 ? fileName : fileName.substring(0, dot)) + Font.BINARY_EXTENSION;
+        if (Gdx.files.internal(prefix + binaryName).exists()
+                || (Gdx.files.isLocalStorageAvailable() && Gdx.files.local(prefix + binaryName).exists()))
+            return binaryName;
+        return fileName;
+    }
+
     private Font astarry;
 
     /**
@@ -112,7 +132,7 @@ public final class KnownFonts implements LifecycleListener {
         initialize();
         if (instance.astarry == null) {
             try {
-                instance.astarry = new Font(instance.prefix + "AStarry-standard.fnt",
+                instance.astarry = new Font(instance.prefix + preferBinary(instance.prefix, "AStarry-standard.fnt"),
                         instance.prefix + "AStarry-standard.png", STANDARD, 0, 12, 0, 0, true)
                         .scaleTo(8, 8).setBoldStrength(0.5f)
                         .setDescent(-12f)
@@ -156,7 +176,7 @@ public final class KnownFonts implements LifecycleListener {
         initialize();
         if (instance.astarryMSDF == null) {
             try {
-                instance.astarryMSDF = new Font(instance.prefix + "AStarry-msdf.fnt",
+                instance.astarryMSDF = new Font(instance.prefix + preferBinary(instance.prefix, "AStarry-msdf.fnt"),
                         instance.prefix + "AStarry-msdf.png", MSDF, 0, 0, 0, 0, true)
                         .setUnderlinePosition(0f, -0.2f).setStrikethroughPosition(0f, -0.2f)
                         .setFancyLinePosition(0, -0.125f).setBoldStrength(0.5f)
@@ -198,7 +218,7 @@ public final class KnownFonts implements LifecycleListener {
         initialize();
         if (instance.bitter == null) {
             try {
-                instance.bitter = new Font(instance.prefix + "Bitter-standard.fnt",
+                instance.bitter = new Font(instance.prefix + preferBinary(instance.prefix, "Bitter-standard.fnt"),
                         instance.prefix + "Bitter-standard.png", STANDARD, 0, -20, 0, 0, true)
                         .setInlineImageMetrics(0f, 20f, 0f).setLineMetrics(0, -0.0625f, 0f, -0.5f).setDescent(-16f)
                         .scaleTo(33, 30).setTextureFilter().setName("Bitter");
@@ -238,7 +258,7 @@ public final class KnownFonts implements LifecycleListener {
         initialize();
         if (instance.canada == null) {
             try {
-                instance.canada = new Font(instance.prefix + "Canada1500-standard.fnt",
+                instance.canada = new Font(instance.prefix + preferBinary(instance.prefix, "Canada1500-standard.fnt"),
                         instance.prefix + "Canada1500-standard.png",
                         STANDARD, 0, 8, 0, 0, true).setDescent(-13f)
                         .setInlineImageMetrics(0f, 12f, 4f).setLineMetrics(0f, -0.125f, 0f, -0.25f)
@@ -279,7 +299,7 @@ public final class KnownFonts implements LifecycleListener {
         initialize();
         if (instance.cascadiaMono == null) {
             try {
-                instance.cascadiaMono = new Font(instance.prefix + "CascadiaMono-standard.fnt",
+                instance.cascadiaMono = new Font(instance.prefix + preferBinary(instance.prefix, "CascadiaMono-standard.fnt"),
                         instance.prefix + "CascadiaMono-standard.png", STANDARD, 0f, -4f, 0f, 0f, true)
                         .setFancyLinePosition(0, 0.2f)
                         .setTextureFilter().scaleTo(10, 20).setName("Cascadia Mono");
@@ -319,7 +339,7 @@ public final class KnownFonts implements LifecycleListener {
         initialize();
         if (instance.cascadiaMonoMSDF == null) {
             try {
-                instance.cascadiaMonoMSDF = new Font(instance.prefix + "CascadiaMono-msdf.fnt",
+                instance.cascadiaMonoMSDF = new Font(instance.prefix + preferBinary(instance.prefix, "CascadiaMono-msdf.fnt"),
                         instance.prefix + "CascadiaMono-msdf.png", MSDF, 0f, 0f, -4f, -4f, true)
                         .setLineMetrics(0, -0.08f, 0f, -0.25f).setFancyLinePosition(0, 0.2f)
                         .scaleTo(10, 20).setName("Cascadia Mono (MSDF)");
@@ -358,7 +378,7 @@ public final class KnownFonts implements LifecycleListener {
         initialize();
         if (instance.caveat == null) {
             try {
-                instance.caveat = new Font(instance.prefix + "Caveat-standard.fnt",
+                instance.caveat = new Font(instance.prefix + preferBinary(instance.prefix, "Caveat-standard.fnt"),
                         instance.prefix + "Caveat-standard.png",
                         STANDARD, -10, 25, 0, 0, true)
                         .setDescent(-8f)
@@ -401,7 +421,7 @@ public final class KnownFonts implements LifecycleListener {
         initialize();
         if (instance.cozette == null) {
             try {
-                instance.cozette = new Font(instance.prefix + "Cozette-standard.fnt",
+                instance.cozette = new Font(instance.prefix + preferBinary(instance.prefix, "Cozette-standard.fnt"),
                         instance.prefix + "Cozette-standard.png", STANDARD, 1f, 5f, 0, 0, false)
                         .useIntegerPositions(true)
                         .setDescent(-3f)
@@ -446,7 +466,7 @@ public final class KnownFonts implements LifecycleListener {
         initialize();
         if (instance.dejaVuSansMono == null) {
             try {
-                instance.dejaVuSansMono = new Font(instance.prefix + "DejaVuSansMono-msdf.fnt",
+                instance.dejaVuSansMono = new Font(instance.prefix + preferBinary(instance.prefix, "DejaVuSansMono-msdf.fnt"),
                         instance.prefix + "DejaVuSansMono-msdf.png", MSDF, 0f, 0f, 0f, 0f, true)
                         .setDescent(-6f).scaleTo(9, 20)
                         .setFancyLinePosition(0f, 0.25f)
@@ -488,7 +508,7 @@ public final class KnownFonts implements LifecycleListener {
         initialize();
         if (instance.gentium == null) {
             try {
-                instance.gentium = new Font(instance.prefix + "Gentium-standard.fnt",
+                instance.gentium = new Font(instance.prefix + preferBinary(instance.prefix, "Gentium-standard.fnt"),
                         instance.prefix + "Gentium-standard.png", Font.DistanceFieldType.STANDARD, 0f, 10f, 0f, 0f, true)
                         .scaleTo(31, 35).setInlineImageMetrics(-4f, 32f, 8f).setLineMetrics(0f, -0.2f, 0f, -0.4f)
                         .setDescent(-9f)
@@ -532,7 +552,7 @@ public final class KnownFonts implements LifecycleListener {
         initialize();
         if (instance.gentiumMSDF == null) {
             try {
-                instance.gentiumMSDF = new Font(instance.prefix + "Gentium-msdf.fnt",
+                instance.gentiumMSDF = new Font(instance.prefix + preferBinary(instance.prefix, "Gentium-msdf.fnt"),
                         instance.prefix + "Gentium-msdf.png", MSDF, 0f, 0f, 0f, 0f, true)
                         .scaleTo(50, 45).adjustLineHeight(0.625f).setCrispness(3f).setName("Gentium (MSDF)");
             } catch (Exception e) {
@@ -573,7 +593,7 @@ public final class KnownFonts implements LifecycleListener {
         initialize();
         if (instance.gentiumSDF == null) {
             try {
-                instance.gentiumSDF = new Font(instance.prefix + "Gentium-sdf.fnt",
+                instance.gentiumSDF = new Font(instance.prefix + preferBinary(instance.prefix, "Gentium-sdf.fnt"),
                         instance.prefix + "Gentium-sdf.png", SDF, 4f, -45f, 0f, 0f, true)
                         .scaleTo(50, 45).adjustLineHeight(0.625f).setFancyLinePosition(0f, 1.1f)
                         .setLineMetrics(0.05f, 1f, 0f, -0.5f).setInlineImageMetrics(0f, -42f, 8f)
@@ -620,7 +640,7 @@ public final class KnownFonts implements LifecycleListener {
         initialize();
         if (instance.gentiumUnItalic == null) {
             try {
-                instance.gentiumUnItalic = new Font(instance.prefix + "GentiumUnItalic-standard.fnt",
+                instance.gentiumUnItalic = new Font(instance.prefix + preferBinary(instance.prefix, "GentiumUnItalic-standard.fnt"),
                         instance.prefix + "GentiumUnItalic-standard.png", Font.DistanceFieldType.STANDARD, 0f, 4f, 0f, -12f, true)
                         .scaleTo(60, 36).setTextureFilter().setFancyLinePosition(0, 0.375f).setDescent(-32f)
                         .setLineMetrics(0f, 0.15f, 0f, -0.3125f).setInlineImageMetrics(0f, -24f, 8f)
@@ -664,7 +684,7 @@ public final class KnownFonts implements LifecycleListener {
         initialize();
         if (instance.goNotoUniversal == null) {
             try {
-                instance.goNotoUniversal = new Font(instance.prefix + "GoNotoUniversal-standard.fnt",
+                instance.goNotoUniversal = new Font(instance.prefix + preferBinary(instance.prefix, "GoNotoUniversal-standard.fnt"),
                         instance.prefix + "GoNotoUniversal-standard.png", STANDARD, 0f, 0f, 0f, 0f, true)
                         .scaleTo(66, 33).setFancyLinePosition(0, 0.4f)
                         .setLineMetrics(0f, 0.1875f, 0f, -0.375f).setInlineImageMetrics(0f, -4f, 6f)
@@ -717,7 +737,7 @@ public final class KnownFonts implements LifecycleListener {
         initialize();
         if (instance.goNotoUniversalSDF == null) {
             try {
-                instance.goNotoUniversalSDF = new Font(instance.prefix + "GoNotoUniversal-sdf.fnt",
+                instance.goNotoUniversalSDF = new Font(instance.prefix + preferBinary(instance.prefix, "GoNotoUniversal-sdf.fnt"),
                         instance.prefix + "GoNotoUniversal-sdf.png", SDF, 0f, -16f, 0f, 0f, true)
                         .scaleTo(43.25f, 34).adjustLineHeight(0.625f)
                         .setCrispness(1.8f).setFancyLinePosition(0f, 1.15f)
@@ -758,7 +778,7 @@ public final class KnownFonts implements LifecycleListener {
         initialize();
         if (instance.hanazono == null) {
             try {
-                instance.hanazono = new Font(instance.prefix + "Hanazono-standard.fnt",
+                instance.hanazono = new Font(instance.prefix + preferBinary(instance.prefix, "Hanazono-standard.fnt"),
                         instance.prefix + "Hanazono-standard.png", STANDARD, -4, 0, 0, 0, true)
                         .setDescent(-6f).scaleTo(16, 20).setFancyLinePosition(-0.5f, 0.125f)
                         .setLineMetrics(-0.25f, 0f, 0f, -0.5f).setInlineImageMetrics(-16f, -4f, 0f)
@@ -806,7 +826,7 @@ public final class KnownFonts implements LifecycleListener {
         initialize();
         if (instance.ibm8x16 == null) {
             try {
-                instance.ibm8x16 = new Font(instance.prefix, "IBM-8x16-standard.font", true)
+                instance.ibm8x16 = new Font(instance.prefix, preferBinary(instance.prefix, "IBM-8x16-standard.font"), true)
                         .setBoldStrength(0.5f).setLineMetrics(-0.25f, 0f, 0f, 0f)
                         .setInlineImageMetrics(-40, 0, 0).fitCell(8, 16, false).setName("IBM 8x16").setDescent(-3f);
             } catch (Exception e) {
@@ -842,7 +862,7 @@ public final class KnownFonts implements LifecycleListener {
         initialize();
         if (instance.inconsolata == null) {
             try {
-                instance.inconsolata = new Font(instance.prefix + "Inconsolata-LGC-Custom-standard.fnt",
+                instance.inconsolata = new Font(instance.prefix + preferBinary(instance.prefix, "Inconsolata-LGC-Custom-standard.fnt"),
                         instance.prefix + "Inconsolata-LGC-Custom-standard.png", STANDARD, 1f, 6f, -4f, 0f, true)
                         .setFancyLinePosition(0f, 0.2f)
                         .setLineMetrics(0f, 0f, 0f, -0.4f).setInlineImageMetrics(0f, 8f, 0f).setDescent(-21f)
@@ -880,7 +900,7 @@ public final class KnownFonts implements LifecycleListener {
         initialize();
         if (instance.inconsolataMSDF == null) {
             try {
-                instance.inconsolataMSDF = new Font(instance.prefix + "Inconsolata-LGC-Custom-msdf.fnt",
+                instance.inconsolataMSDF = new Font(instance.prefix + preferBinary(instance.prefix, "Inconsolata-LGC-Custom-msdf.fnt"),
                         instance.prefix + "Inconsolata-LGC-Custom-msdf.png", MSDF, 1f, 1f, -8f, -8f, true)
                         .setFancyLinePosition(0f, 0.25f)
                         .scaleTo(12, 26).setCrispness(1.2f).setName("Inconsolata LGC (MSDF)");
@@ -921,7 +941,7 @@ public final class KnownFonts implements LifecycleListener {
         initialize();
         if (instance.iosevka == null) {
             try {
-                instance.iosevka = new Font(instance.prefix + "Iosevka-standard.fnt",
+                instance.iosevka = new Font(instance.prefix + preferBinary(instance.prefix, "Iosevka-standard.fnt"),
                         instance.prefix + "Iosevka-standard.png", STANDARD, -2f, 12f, 0f, 0f, true)
                         .scaleTo(10, 24).fitCell(10, 24, false)
                         .setDescent(-10f).setLineMetrics(-0.125f, -0.125f, 0f, -0.25f).setInlineImageMetrics(-6f, 12f, 0f)
@@ -969,7 +989,7 @@ public final class KnownFonts implements LifecycleListener {
             try {
                 // NOTE: If the .fnt file is changed, the manual adjustment to '_' (id=95) will be lost. yoffset was changed to 4.
                 // This should be OK now that this uses the box-drawing underline.
-                instance.iosevkaMSDF = new Font(instance.prefix + "Iosevka-msdf.fnt",
+                instance.iosevkaMSDF = new Font(instance.prefix + preferBinary(instance.prefix, "Iosevka-msdf.fnt"),
                         instance.prefix + "Iosevka-msdf.png", MSDF, 1f, 0f, 0f, 0f, true).setDescent(-12)
                         .setLineMetrics(0.25f, 0.125f, 0f, -0.4f).setFancyLinePosition(0f, 0.375f)
                         .setCrispness(2.5f).scaleTo(12, 26).fitCell(10, 25, false)
@@ -1017,7 +1037,7 @@ public final class KnownFonts implements LifecycleListener {
             try {
                 // NOTE: If the .fnt file is changed, the manual adjustment to '_' (id=95) will be lost. yoffset was changed to 4.
                 // This should be OK now that this uses the box-drawing underline.
-                instance.iosevkaSDF = new Font(instance.prefix + "Iosevka-sdf.fnt",
+                instance.iosevkaSDF = new Font(instance.prefix + preferBinary(instance.prefix, "Iosevka-sdf.fnt"),
                         instance.prefix + "Iosevka-sdf.png", SDF, 2f, 0f, -2f, -2f, true)
                         .setLineMetrics(0.25f, -0.125f, 0f, -0.4f).setInlineImageMetrics(8f, 12f, 12f)
                         .setCrispness(0.75f).scaleTo(12, 26).fitCell(10, 25, false)
@@ -1059,7 +1079,7 @@ public final class KnownFonts implements LifecycleListener {
         initialize();
         if (instance.iosevkaSlab == null) {
             try {
-                instance.iosevkaSlab = new Font(instance.prefix + "Iosevka-Slab-standard.fnt",
+                instance.iosevkaSlab = new Font(instance.prefix + preferBinary(instance.prefix, "Iosevka-Slab-standard.fnt"),
                         instance.prefix + "Iosevka-Slab-standard.png", STANDARD, 0f, 12f, 0f, 0f, true)
                         .scaleTo(10, 24).fitCell(10, 24, false)
                         .setDescent(-10f).setLineMetrics(-0.125f, -0.125f, 0f, -0.25f).setInlineImageMetrics(-6f, 12f, 0f)
@@ -1103,7 +1123,7 @@ public final class KnownFonts implements LifecycleListener {
         initialize();
         if (instance.iosevkaSlabMSDF == null) {
             try {
-                instance.iosevkaSlabMSDF = new Font(instance.prefix + "Iosevka-Slab-msdf.fnt",
+                instance.iosevkaSlabMSDF = new Font(instance.prefix + preferBinary(instance.prefix, "Iosevka-Slab-msdf.fnt"),
                         instance.prefix + "Iosevka-Slab-msdf.png", MSDF, 1f, 0f, 0f, 0f, true).setDescent(-12)
                         .setLineMetrics(0.25f, 0.125f, 0f, -0.4f).setFancyLinePosition(0f, 0.375f)
                         .setCrispness(2.5f).scaleTo(12, 26).fitCell(10, 25, false)
@@ -1150,7 +1170,7 @@ public final class KnownFonts implements LifecycleListener {
             try {
                 // NOTE: If the .fnt file is changed, the manual adjustment to '_' (id=95) will be lost. yoffset was changed to 4.
                 // This might be OK now that this uses the box-drawing underline.
-                instance.iosevkaSlabSDF = new Font(instance.prefix + "Iosevka-Slab-sdf.fnt",
+                instance.iosevkaSlabSDF = new Font(instance.prefix + preferBinary(instance.prefix, "Iosevka-Slab-sdf.fnt"),
                         instance.prefix + "Iosevka-Slab-sdf.png", SDF, 2f, 0f, -2f, -2f, true)
                         .setLineMetrics(0.25f, -0.125f, 0f, -0.4f).setInlineImageMetrics(8f, 12f, 12f)
                         .setCrispness(0.75f).scaleTo(12, 26).fitCell(10, 25, false)
@@ -1198,7 +1218,7 @@ public final class KnownFonts implements LifecycleListener {
         initialize();
         if (instance.kingthingsFoundation == null) {
             try {
-                instance.kingthingsFoundation = new Font(instance.prefix + "KingthingsFoundation-standard.fnt",
+                instance.kingthingsFoundation = new Font(instance.prefix + preferBinary(instance.prefix, "KingthingsFoundation-standard.fnt"),
                         instance.prefix + "KingthingsFoundation-standard.png", STANDARD, 0, 40, 0, 25, true)
                         .setUnderlineMetrics(0f, -0.125f, 0.125f, -0.2f).setStrikethroughMetrics(0f, -0.125f, 0.125f, -0.2f)
                         .setInlineImageMetrics(0f, 48f, 8f).setDescent(-20f)
@@ -1240,7 +1260,7 @@ public final class KnownFonts implements LifecycleListener {
         initialize();
         if (instance.kingthingsPetrock == null) {
             try {
-                instance.kingthingsPetrock = new Font(instance.prefix + "KingthingsPetrock-standard.fnt",
+                instance.kingthingsPetrock = new Font(instance.prefix + preferBinary(instance.prefix, "KingthingsPetrock-standard.fnt"),
                         instance.prefix + "KingthingsPetrock-standard.png", STANDARD, 0, 8, 2, 0, true)
                         .setDescent(-20f).setInlineImageMetrics(0f, 22f, 8f).setFancyLinePosition(0, 0.2f)
                         .scaleTo(25, 32).setTextureFilter().setName("Kingthings Petrock");
@@ -1282,7 +1302,7 @@ public final class KnownFonts implements LifecycleListener {
         initialize();
         if (instance.lanaPixel == null) {
             try {
-                instance.lanaPixel = new Font(instance.prefix + "LanaPixel-standard.fnt",
+                instance.lanaPixel = new Font(instance.prefix + preferBinary(instance.prefix, "LanaPixel-standard.fnt"),
                         instance.prefix + "LanaPixel-standard.png", STANDARD, 0, 0, 0, 0, false)
                         .setInlineImageMetrics(-64, 0, 16).setFancyLinePosition(0f, 0.5f)
                         .useIntegerPositions(true).setBoldStrength(0.5f).setLineMetrics(0f, -0.0625f, 0f, 0f)
@@ -1325,7 +1345,7 @@ public final class KnownFonts implements LifecycleListener {
         initialize();
         if (instance.libertinusSerif == null) {
             try {
-                instance.libertinusSerif = new Font(instance.prefix + "LibertinusSerif-standard.fnt",
+                instance.libertinusSerif = new Font(instance.prefix + preferBinary(instance.prefix, "LibertinusSerif-standard.fnt"),
                         instance.prefix + "LibertinusSerif-standard.png", STANDARD, 0, 6, 0, 0, true)
                         .setLineMetrics(0.05f, 0f, 0.0625f, -0.25f).setFancyLinePosition(0f, 0.15f)
                         .scaleTo(40, 34).setTextureFilter().setName("Libertinus Serif");
@@ -1363,7 +1383,7 @@ public final class KnownFonts implements LifecycleListener {
         initialize();
         if (instance.nowAlt == null) {
             try {
-                instance.nowAlt = new Font(instance.prefix + "Now-Alt-standard.fnt",
+                instance.nowAlt = new Font(instance.prefix + preferBinary(instance.prefix, "Now-Alt-standard.fnt"),
                         instance.prefix + "Now-Alt-standard.png", STANDARD, 0, 24, 0, 8, true)
                         .setDescent(-12f).setLineMetrics(0.05f, -0.1f, 0f, 0f).setInlineImageMetrics(0f, 24f, 8f)
                         .scaleTo(29, 33).setTextureFilter().setName("Now Alt");
@@ -1399,7 +1419,7 @@ public final class KnownFonts implements LifecycleListener {
         initialize();
         if (instance.openSans == null) {
             try {
-                instance.openSans = new Font(instance.prefix + "OpenSans-standard.fnt",
+                instance.openSans = new Font(instance.prefix + preferBinary(instance.prefix, "OpenSans-standard.fnt"),
                         instance.prefix + "OpenSans-standard.png", STANDARD, 0, 16, 0, 0, true).setDescent(-8f)
                         .setLineMetrics(0f, -0.125f, 0f, -0.4f).setInlineImageMetrics(0f, 8f, 4f)
                         .setFancyLinePosition(0f, 0.1f).scaleTo(20, 28).setTextureFilter().setName("OpenSans");
@@ -1437,7 +1457,7 @@ public final class KnownFonts implements LifecycleListener {
         initialize();
         if (instance.oxanium == null) {
             try {
-                instance.oxanium = new Font(instance.prefix + "Oxanium-standard.fnt",
+                instance.oxanium = new Font(instance.prefix + preferBinary(instance.prefix, "Oxanium-standard.fnt"),
                         instance.prefix + "Oxanium-standard.png", STANDARD, 0, 2, -4, 0, true).setDescent(-12f)
                         .setLineMetrics(0f, -0.125f, 0f, 0f).setInlineImageMetrics(0f, 12f, 4f)
                         .scaleTo(31, 35).setTextureFilter().setName("Oxanium");
@@ -1480,7 +1500,7 @@ public final class KnownFonts implements LifecycleListener {
             try {
                 // Manual adjustment: id 95 ('_') had yoffset changed from 5, to 6.
                 // This makes underlines use a different row than the bottom of letters.
-                instance.quanPixel = new Font(instance.prefix + "QuanPixel-standard.fnt",
+                instance.quanPixel = new Font(instance.prefix + preferBinary(instance.prefix, "QuanPixel-standard.fnt"),
                         instance.prefix + "QuanPixel-standard.png", STANDARD, 0, 2, 0, 2, false)
                         .setLineMetrics(0.0625f, -0.0625f, -0.25f, 0f).setInlineImageMetrics(-40f, -4f, 0f)
                         .setFancyLinePosition(0f, 0.375f).useIntegerPositions(true).setDescent(-4f)
@@ -1520,7 +1540,7 @@ public final class KnownFonts implements LifecycleListener {
         initialize();
         if (instance.robotoCondensed == null) {
             try {
-                instance.robotoCondensed = new Font(instance.prefix + "RobotoCondensed-standard.fnt",
+                instance.robotoCondensed = new Font(instance.prefix + preferBinary(instance.prefix, "RobotoCondensed-standard.fnt"),
                         instance.prefix + "RobotoCondensed-standard.png", STANDARD, 0, 25, 0, 20, true)
                         .setDescent(-15f).setInlineImageMetrics(0f, 8f, 6f).setFancyLinePosition(0f, 0.3f)
                         .setUnderlineMetrics(0f, 0f, 0f, -0.4f).setStrikethroughMetrics(0f, -0.0625f, 0f, -0.4f)
@@ -1561,7 +1581,7 @@ public final class KnownFonts implements LifecycleListener {
         initialize();
         if (instance.tangerine == null) {
             try {
-                instance.tangerine = new Font(instance.prefix + "Tangerine-standard.fnt",
+                instance.tangerine = new Font(instance.prefix + preferBinary(instance.prefix, "Tangerine-standard.fnt"),
                         instance.prefix + "Tangerine-standard.png", STANDARD, 0f, 16f, 0f, 0f, true)
                         .setUnderlineMetrics(0f, 0f, 0f, -0.6f).setStrikethroughMetrics(0f, -0.125f, 0f, -0.6f)
                         .setInlineImageMetrics(4f, 20f, 8f).setDescent(-20f).setFancyLinePosition(0f, 0.2f)
@@ -1601,7 +1621,7 @@ public final class KnownFonts implements LifecycleListener {
         initialize();
         if (instance.tangerineSDF == null) {
             try {
-                instance.tangerineSDF = new Font(instance.prefix + "Tangerine-sdf.fnt",
+                instance.tangerineSDF = new Font(instance.prefix + preferBinary(instance.prefix, "Tangerine-sdf.fnt"),
                         instance.prefix + "Tangerine-sdf.png", SDF, 0f, 28f, 0f, 0, false).setFancyLinePosition(0, 0.2f)
                         .setLineMetrics(-0.5f, 0f, 0f, 0f).setInlineImageMetrics(0f, 0f, 8f)
                         .scaleTo(45, 30).setCrispness(0.375f).setName("Tangerine (SDF)");
@@ -1639,7 +1659,7 @@ public final class KnownFonts implements LifecycleListener {
         initialize();
         if (instance.kaffeesatz == null) {
             try {
-                instance.kaffeesatz = new Font(instance.prefix + "YanoneKaffeesatz-standard.fnt",
+                instance.kaffeesatz = new Font(instance.prefix + preferBinary(instance.prefix, "YanoneKaffeesatz-standard.fnt"),
                         instance.prefix + "YanoneKaffeesatz-standard.png", STANDARD, 2f, 6f, 0f, 0, true)
                         .setDescent(-8f).setLineMetrics(0f, -0.2f, 0f, 0f).setInlineImageMetrics(0f, 18f, 4f)
                         .scaleTo(26, 30).setTextureFilter().setName("Yanone Kaffeesatz");
@@ -1677,7 +1697,7 @@ public final class KnownFonts implements LifecycleListener {
         initialize();
         if (instance.kaffeesatzMSDF == null) {
             try {
-                instance.kaffeesatzMSDF = new Font(instance.prefix + "YanoneKaffeesatz-msdf.fnt",
+                instance.kaffeesatzMSDF = new Font(instance.prefix + preferBinary(instance.prefix, "YanoneKaffeesatz-msdf.fnt"),
                         instance.prefix + "YanoneKaffeesatz-msdf.png", MSDF, 0f, 20f, 0f, 0, true)
                         .setFancyLinePosition(0f, 0.25f)
                         .scaleTo(26, 30).setCrispness(2.5f).setName("Yanone Kaffeesatz (MSDF)");
@@ -1718,7 +1738,7 @@ public final class KnownFonts implements LifecycleListener {
         initialize();
         if (instance.yataghanMSDF == null) {
             try {
-                instance.yataghanMSDF = new Font(instance.prefix + "Yataghan-msdf.fnt",
+                instance.yataghanMSDF = new Font(instance.prefix + preferBinary(instance.prefix, "Yataghan-msdf.fnt"),
                         instance.prefix + "Yataghan-msdf.png", MSDF, 0f, 4f, 0f, 0f, true)
                         .setLineMetrics(0f, 0.125f, 0f, -0.4f).setFancyLinePosition(0, 0.375f)
                         .scaleTo(20, 32).setName("Yataghan (MSDF)");
@@ -21,6 +21,7 @@ import com.badlogic.gdx.graphics.g2d.Batch;
 import com.badlogic.gdx.graphics.g2d.TextureAtlas;
 import com.badlogic.gdx.utils.Array;
 import com.badlogic.gdx.utils.LongArray;
+import com.badlogic.gdx.utils.Pool;
 
 /**
  * A replacement for libGDX's GlyphLayout, more or less; stores one or more (possibly empty) {@link Line}s of text,
@@ -32,19 +33,53 @@ public class Layout {
 
     protected Font font;
     protected final Array<Line> lines = new Array<>(true, 8);
+    /**
+     * Holds Lines that were removed from this Layout, so they (and their LongArrays) can be reused when this needs
+     * more Lines, such as when a TypingLabel restarts or its text is wrapped again.
+     */
+    protected final Pool<Line> linePool = new Pool<Line>(4, 64) {
+        @Override
+        protected Line newObject() {
+            return new Line();
+        }
+    };
     protected int maxLines = Integer.MAX_VALUE;
     protected boolean atLimit = false;
     protected String ellipsis = null;
     protected float targetWidth = 0f;
     protected float baseColor = Color.WHITE_FLOAT_BITS;
+    /**
+     * The target width this was last wrapped at by {@link Font#regenerateLayout(Layout, int, int)}, or NaN if it
+     * hasn't been wrapped that way since it was last cleared. Used to tell whether only some lines need wrapping again.
+     */
+    protected float wrapWidth = Float.NaN;
+    /**
+     * Prefix sums of the glyph counts of each Line; {@code lineStarts[i]} is the global index of the first glyph in
+     * the Line at index {@code i}, and {@code lineStarts[indexedLines]} is the total glyph count. This is only
+     * meaningful while {@link #indexDirty} is false; it is rebuilt lazily by {@link #findLine(int)}.
+     */
+    protected int[] lineStarts = new int[9];
+    /**
+     * How many lines were present when {@link #lineStarts} was last built.
+     */
+    protected int indexedLines = 0;
+    /**
+     * If true, {@link #lineStarts} must be rebuilt before it can be used. Set by {@link #invalidateIndex()}.
+     */
+    protected boolean indexDirty = true;
+    /**
+     * The last line found by {@link #findLine(int)}; effects typically ask for glyphs in ascending order, so checking
+     * this line and the one after it first usually avoids a binary search.
+     */
+    protected int cursorLine = 0;
 
     public Layout() {
-        lines.add(new Line());
+        lines.add(linePool.obtain());
     }
 
     public Layout(Font font) {
         this.font = font;
-        lines.add(new Line());
+        lines.add(linePool.obtain());
     }
 
     public Layout(Layout other) {
@@ -54,12 +89,46 @@ public class Layout {
         this.ellipsis = other.ellipsis;
         this.targetWidth = other.targetWidth;
         this.baseColor = other.baseColor;
+        this.wrapWidth = other.wrapWidth;
         for (int i = 0; i < other.lines(); i++) {
             Line ln = new Line(), o = other.lines.get(i);
             ln.glyphs.addAll(o.glyphs);
             lines.add(ln.size(o.width, o.height));
         }
     }
+
+    /**
+     * Makes this Layout a copy of {@code other}, including its font, settings, and the contents of each Line. This
+     * reuses the Line objects this already has where possible, so it allocates less than {@link #Layout(Layout)}.
+     *
+     * @param other another Layout to copy; will not be modified
+     * @return this Layout, for chaining
+     */
+    public Layout set(Layout other) {
+        if (other == this) return this;
+        this.font = other.font;
+        this.maxLines = other.maxLines;
+        this.atLimit = other.atLimit;
+        this.ellipsis = other.ellipsis;
+        this.targetWidth = other.targetWidth;
+        this.baseColor = other.baseColor;
+        this.wrapWidth = other.wrapWidth;
+        final int n = other.lines.size;
+        truncateLines(n);
+        for (int i = 0; i < n; i++) {
+            Line o = other.lines.get(i), ln;
+            if (i < lines.size) {
+                ln = lines.get(i);
+                ln.glyphs.clear();
+            } else {
+                lines.add(ln = new Line(o.glyphs.size));
+            }
+            ln.glyphs.addAll(o.glyphs);
+            ln.size(o.width, o.height);
+        }
+        indexDirty = true;
+        return this;
+    }
     /**
      * One of the ways to set the font on a Layout; this one returns this Layout for chaining.
      *
@@ -69,8 +138,10 @@ public class Layout {
     public Layout font(Font font) {
         if (this.font == null || !this.font.equals(font)) {
             this.font = font;
+            linePool.freeAll(lines);
             lines.clear();
-            lines.add(new Line());
+            lines.add(linePool.obtain());
+            indexDirty = true;
         }
         return this;
     }
@@ -100,6 +171,7 @@ public class Layout {
                 pushLine();
             } else {
                 lines.peek().glyphs.add(glyph);
+                indexDirty = true;
             }
         }
 
@@ -107,9 +179,12 @@ public class Layout {
     }
 
     public Layout clear() {
+        linePool.freeAll(lines);
         lines.clear();
-        lines.add(new Line());
+        lines.add(linePool.obtain());
         atLimit = false;
+        wrapWidth = Float.NaN;
+        indexDirty = true;
         return this;
     }
 
@@ -154,23 +229,44 @@ public class Layout {
             return null;
         }
 
-        Line line = new Line(), prev = lines.peek();
+        Line line = linePool.obtain(), prev = lines.peek();
         prev.glyphs.add('\n');
         line.height = 0;
         lines.add(line);
+        indexDirty = true;
         return line;
     }
 
+    /**
+     * Removes every Line after the first {@code count} Lines, keeping them to be reused when this needs more Lines.
+     * Any Lines removed this way must not be used by other code afterwards.
+     *
+     * @param count how many Lines to keep; if this has fewer Lines than this, nothing changes
+     * @return this Layout, for chaining
+     */
+    public Layout truncateLines(int count) {
+        count = Math.max(count, 0);
+        if (lines.size > count) {
+            for (int i = count; i < lines.size; i++) {
+                linePool.free(lines.get(i));
+            }
+            lines.truncate(count);
+            indexDirty = true;
+        }
+        return this;
+    }
+
     public Line insertLine(int index) {
         if (lines.size >= maxLines) {
             atLimit = true;
             return null;
         }
         if (index < 0 || index >= maxLines) return null;
-        Line line = new Line(), prev = lines.get(index);
+        Line line = linePool.obtain(), prev = lines.get(index);
         prev.glyphs.add('\n');
         line.height = prev.height;
         lines.insert(index + 1, line);
+        indexDirty = true;
         return line;
     }
 
@@ -272,6 +368,127 @@ public class Layout {
         }
         return layoutSize;
     }
+
+    /**
+     * Marks the glyph index used by {@link #findLine(int)} as stale, so it will be rebuilt the next time it is needed.
+     * The methods in Layout call this automatically, as do {@link Font#markup(String, Layout)} and
+     * {@link Font#regenerateLayout(Layout)}. If you add or remove glyphs in a {@link Line} directly (by changing
+     * {@link Line#glyphs}), or add or remove Lines without using this class' methods, you should call this afterwards.
+     * Only changing the value of a glyph, without changing how many glyphs are in a Line, doesn't require this.
+     */
+    public void invalidateIndex() {
+        indexDirty = true;
+    }
+
+    /**
+     * Rebuilds {@link #lineStarts} from the current lines; this takes time proportional to {@link #lines()}.
+     */
+    protected void buildIndex() {
+        final int n = lines.size;
+        if (lineStarts.length <= n)
+            lineStarts = new int[n + 1 + (n >>> 1)];
+        int total = 0;
+        for (int i = 0; i < n; i++) {
+            lineStarts[i] = total;
+            total += lines.get(i).glyphs.size;
+        }
+        lineStarts[n] = total;
+        indexedLines = n;
+        if (cursorLine >= n) cursorLine = 0;
+        indexDirty = false;
+    }
+
+    /**
+     * Finds the index of the Line that contains the glyph with the given global index, where global indices count
+     * every glyph in every Line, in order. This is usually constant-time when called with ascending indices, and
+     * otherwise takes logarithmic time in {@link #lines()}, unless the index was invalidated and has to be rebuilt.
+     * If the index is out of bounds, this returns -1.
+     *
+     * @param index the 0-based global index of a glyph
+     * @return the index of the Line containing that glyph, or -1 if index is out of bounds
+     */
+    public int findLine(int index) {
+        if (indexDirty || indexedLines != lines.size)
+            buildIndex();
+        int ln = locate(index);
+        // If a Line changed size without invalidateIndex() being called, catch it here and try again.
+        if (ln >= 0 && index - lineStarts[ln] >= lines.get(ln).glyphs.size) {
+            buildIndex();
+            ln = locate(index);
+        }
+        return ln;
+    }
+
+    private int locate(int index) {
+        final int n = indexedLines;
+        if (index < 0 || index >= lineStarts[n])
+            return -1;
+        int c = cursorLine;
+        if (index >= lineStarts[c]) {
+            if (index < lineStarts[c + 1])
+                return c;
+            if (c + 2 <= n && index < lineStarts[c + 2])
+                return cursorLine = c + 1;
+        }
+        int lo = 0, hi = n - 1;
+        while (lo < hi) {
+            int mid = lo + hi + 1 >>> 1;
+            if (lineStarts[mid] <= index) lo = mid;
+            else hi = mid - 1;
+        }
+        return cursorLine = lo;
+    }
+
+    /**
+     * Gets the global index of the first glyph in the Line at the given line index. This uses the same index as
+     * {@link #findLine(int)}, and will rebuild it if needed. If lineIndex is equal to {@link #lines()}, this returns
+     * the total number of glyphs.
+     *
+     * @param lineIndex the index of a Line, from 0 to {@link #lines()} inclusive
+     * @return the global glyph index of the start of that Line
+     */
+    public int lineStart(int lineIndex) {
+        if (indexDirty || indexedLines != lines.size)
+            buildIndex();
+        return lineStarts[Math.max(0, Math.min(lineIndex, indexedLines))];
+    }
+
+    /**
+     * Gets the glyph at the given global index, where global indices count every glyph in every Line, in order.
+     * This uses {@link #findLine(int)}, so it doesn't need to walk through every Line before the requested one.
+     *
+     * @param index the 0-based global index of the glyph to get
+     * @return the glyph, if it was found, or 16777215 (0xFFFFFF in hexadecimal) if the index was out of bounds
+     */
+    public long getGlyph(int index) {
+        int ln = findLine(index);
+        if (ln < 0) return 0xFFFFFFL;
+        return lines.get(ln).glyphs.get(index - lineStarts[ln]);
+    }
+
+    /**
+     * Sets the glyph at the given global index, where global indices count every glyph in every Line, in order.
+     * If the index is out of bounds, this does nothing.
+     *
+     * @param index    the 0-based global index of the glyph to change
+     * @param newGlyph the glyph to place at that index
+     */
+    public void setGlyph(int index, long newGlyph) {
+        int ln = findLine(index);
+        if (ln >= 0)
+            lines.get(ln).glyphs.set(index - lineStarts[ln], newGlyph);
+    }
+
+    /**
+     * Gets the Line containing the glyph at the given global index, or null if the index is out of bounds.
+     *
+     * @param index the 0-based global index of a glyph
+     * @return the Line containing that glyph, or null if index is out of bounds
+     */
+    public Line getLineForGlyph(int index) {
+        int ln = findLine(index);
+        return ln < 0 ? null : lines.get(ln);
+    }
     /**
      * Resets the object for reuse. The font is nulled, but the lines are freed, cleared, and then one blank line is
      * re-added to lines so it can be used normally later.
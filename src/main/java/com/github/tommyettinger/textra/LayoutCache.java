@@ -0,0 +1,246 @@
+/*
+ * Copyright (c) 2023 See AUTHORS file.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.tommyettinger.textra;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * An optional, bounded, least-recently-used cache of {@link Layout}s produced by {@link Font#markup(String, Layout)}.
+ * When the same markup text is laid out again with the same Font object and the same Layout settings (target width,
+ * max lines, ellipsis, and base color), this copies the cached result instead of parsing the markup again. This is
+ * meant for text that shows up repeatedly, like item tooltips, HUD labels, or list rows that get recycled.
+ * <br>
+ * Fonts are compared by identity, not {@link Font#equals(Object)}, because a Font's settings can change after it is
+ * constructed. If you change a Font in a way that would affect layout (such as scaling it, or adding an atlas), call
+ * {@link #invalidate(Font)} or {@link #clear()}, or any cached Layouts for that Font will be out-of-date.
+ * <br>
+ * You can use this directly with {@link #markup(Font, String, Layout)}, or assign it to
+ * {@link TextraLabel#layoutCache} so {@link TextraLabel#setText(String)} uses it. This class is not thread-safe.
+ */
+public class LayoutCache {
+    /**
+     * The most Layouts this can hold; when more would be added, the least-recently-used one is removed.
+     */
+    public final int capacity;
+    /**
+     * How many lookups found a cached Layout.
+     */
+    protected long hits = 0L;
+    /**
+     * How many lookups had to parse markup because there was no cached Layout.
+     */
+    protected long misses = 0L;
+    /**
+     * How many cached Layouts were removed to stay within {@link #capacity}.
+     */
+    protected long evictions = 0L;
+
+    private final LinkedHashMap<Key, Layout> cache;
+    /**
+     * Reused for lookups, so a cache hit doesn't allocate a Key.
+     */
+    private final Key probe = new Key();
+
+    /**
+     * Creates a LayoutCache that holds up to 256 Layouts.
+     */
+    public LayoutCache() {
+        this(256);
+    }
+
+    /**
+     * Creates a LayoutCache that holds up to {@code capacity} Layouts.
+     *
+     * @param capacity the maximum number of Layouts to keep; will be at least 1
+     */
+    public LayoutCache(int capacity) {
+        this.capacity = Math.max(1, capacity);
+        cache = new LinkedHashMap<Key, Layout>(Math.min(this.capacity, 1024), 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, Layout> eldest) {
+                if (size() > LayoutCache.this.capacity) {
+                    ++evictions;
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Acts like {@code font.markup(text, into.clear())}, but uses a cached Layout if one matches. The target width,
+     * max lines, ellipsis, and base color of {@code into} are used as part of the lookup, so set those first.
+     * The contents of {@code into} are replaced with a copy of the cached Layout, so it can be modified freely.
+     *
+     * @param font the Font to lay out text with; compared by identity
+     * @param text the markup text to lay out
+     * @param into a Layout that will be cleared and filled with the laid-out text
+     * @return {@code into}, for chaining
+     */
+    public Layout markup(Font font, String text, Layout into) {
+        Layout cached = get(font, text, into.targetWidth, into.maxLines, into.ellipsis, into.baseColor);
+        return into.set(cached);
+    }
+
+    /**
+     * Gets the cached Layout for the given parameters, laying out the text with {@link Font#markup(String, Layout)}
+     * and caching it if it wasn't already present. The returned Layout is shared with the cache, and must be treated
+     * as read-only; if you want to modify it, copy it with {@link Layout#Layout(Layout)} or {@link Layout#set(Layout)}.
+     *
+     * @param font        the Font to lay out text with; compared by identity
+     * @param text        the markup text to lay out
+     * @param targetWidth the width at which text will wrap, or 0 to not wrap
+     * @param maxLines    the maximum number of lines the Layout can have
+     * @param ellipsis    a String to show if text is truncated due to maxLines, or null
+     * @param baseColor   the initial color of the text, as packed float bits
+     * @return a shared, read-only Layout holding the laid-out text
+     */
+    public Layout get(Font font, String text, float targetWidth, int maxLines, String ellipsis, float baseColor) {
+        probe.set(font, text, targetWidth, maxLines, ellipsis, baseColor);
+        Layout cached = cache.get(probe);
+        if (cached != null) {
+            ++hits;
+            return cached;
+        }
+        ++misses;
+        cached = new Layout(font);
+        cached.setTargetWidth(targetWidth);
+        cached.setMaxLines(maxLines);
+        cached.setEllipsis(ellipsis);
+        cached.setBaseColor(baseColor);
+        font.markup(text, cached);
+        cache.put(new Key().set(font, text, targetWidth, maxLines, ellipsis, baseColor), cached);
+        return cached;
+    }
+
+    /**
+     * Removes every cached Layout that was made with the given Font, such as after the Font was scaled.
+     *
+     * @param font a Font that may have been used with this cache; compared by identity
+     */
+    public void invalidate(Font font) {
+        for (Iterator<Key> it = cache.keySet().iterator(); it.hasNext(); ) {
+            if (it.next().font == font) it.remove();
+        }
+    }
+
+    /**
+     * Removes every cached Layout. This does not reset the hit, miss, or eviction counts; use {@link #resetStats()}.
+     */
+    public void clear() {
+        cache.clear();
+    }
+
+    /**
+     * @return how many Layouts are currently cached
+     */
+    public int size() {
+        return cache.size();
+    }
+
+    /**
+     * @return how many lookups found a cached Layout since this was created or {@link #resetStats()} was called
+     */
+    public long getHits() {
+        return hits;
+    }
+
+    /**
+     * @return how many lookups had to lay out text since this was created or {@link #resetStats()} was called
+     */
+    public long getMisses() {
+        return misses;
+    }
+
+    /**
+     * @return how many Layouts were removed to stay within {@link #capacity} since this was created or
+     * {@link #resetStats()} was called
+     */
+    public long getEvictions() {
+        return evictions;
+    }
+
+    /**
+     * Gets the fraction of lookups that found a cached Layout, or 0 if there were no lookups.
+     *
+     * @return the hit rate, from 0 to 1
+     */
+    public float getHitRate() {
+        long total = hits + misses;
+        return total == 0L ? 0f : hits / (float) total;
+    }
+
+    /**
+     * Sets the hit, miss, and eviction counts to 0.
+     */
+    public void resetStats() {
+        hits = 0L;
+        misses = 0L;
+        evictions = 0L;
+    }
+
+    @Override
+    public String toString() {
+        return "LayoutCache{size=" + cache.size() + ", capacity=" + capacity + ", hits=" + hits + ", misses=" + misses
+                + ", evictions=" + evictions + '}';
+    }
+
+    private static final class Key {
+        Font font;
+        String text;
+        float targetWidth;
+        int maxLines;
+        String ellipsis;
+        float baseColor;
+        int hash;
+
+        Key set(Font font, String text, float targetWidth, int maxLines, String ellipsis, float baseColor) {
+            this.font = font;
+            this.text = text;
+            this.targetWidth = targetWidth;
+            this.maxLines = maxLines;
+            this.ellipsis = ellipsis;
+            this.baseColor = baseColor;
+            int h = System.identityHashCode(font);
+            h = 31 * h + text.hashCode();
+            h = 31 * h + Float.floatToIntBits(targetWidth);
+            h = 31 * h + maxLines;
+            h = 31 * h + (ellipsis == null ? 0 : ellipsis.hashCode());
+            h = 31 * h + Float.floatToIntBits(baseColor);
+            this.hash = h;
+            return this;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Key)) return false;
+            Key k = (Key) o;
+            return hash == k.hash && font == k.font && maxLines == k.maxLines
+                    && Float.floatToIntBits(targetWidth) == Float.floatToIntBits(k.targetWidth)
+                    && Float.floatToIntBits(baseColor) == Float.floatToIntBits(k.baseColor)
+                    && text.equals(k.text) && (ellipsis == null ? k.ellipsis == null : ellipsis.equals(k.ellipsis));
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+}
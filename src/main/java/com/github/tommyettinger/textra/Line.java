@@ -17,6 +17,7 @@
 package com.github.tommyettinger.textra;
 
 import com.badlogic.gdx.utils.LongArray;
+import com.badlogic.gdx.utils.Pool;
 
 /**
  * One line of possibly-colorful, possibly-styled text, with a width and height set by
@@ -24,7 +25,7 @@ import com.badlogic.gdx.utils.LongArray;
  * {@code long} in a libGDX {@link LongArray}. This is a Poolable class, and you can obtain a
  * Line with {@code new Line()}, or just using a constructor.
  */
-public class Line {
+public class Line implements Pool.Poolable {
 
     public final LongArray glyphs;
     public float width, height;
@@ -46,6 +47,7 @@ public class Line {
     /**
      * Resets the object for reuse. This clears {@link #glyphs}, rather than nulling it. The sizes are set to 0.
      */
+    @Override
     public void reset() {
         glyphs.clear();
         width = 0;
@@ -0,0 +1,41 @@
+/*
+ * Copyright (c) 2023 See AUTHORS file.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.tommyettinger.textra;
+
+import com.badlogic.gdx.utils.LongArray;
+
+/**
+ * Scratch space that {@link Font#markup(String, Layout, MarkupContext)} uses while it parses markup. Each Font has its
+ * own MarkupContext, used by {@link Font#markup(String, Layout)}, so that method should only be called by one thread at
+ * a time for any given Font. To lay out text on other threads, such as on an executor while a loading screen is shown,
+ * give each thread its own MarkupContext and its own Layouts, and call {@link Font#markup(String, Layout, MarkupContext)}.
+ * The Font must not be changed (scaled, given a new family, and so on) while this happens, and drawing the resulting
+ * Layouts must still happen on the rendering thread.
+ */
+public class MarkupContext {
+    /**
+     * Stores previous glyph states (color, style, scale, and font) so {@code []} markup can return to them.
+     */
+    public final LongArray historyBuffer = new LongArray(64);
+    /**
+     * Holds glyphs temporarily while a word is moved to the next line during wrapping.
+     */
+    public final LongArray glyphBuffer = new LongArray(128);
+
+    public MarkupContext() {
+    }
+}
@@ -19,6 +19,7 @@ package com.github.tommyettinger.textra;
 import com.badlogic.gdx.graphics.Colors;
 import com.badlogic.gdx.math.MathUtils;
 import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.TimeUtils;
 import com.github.tommyettinger.textra.utils.CaseInsensitiveIntMap;
 import com.github.tommyettinger.textra.utils.Palette;
 import regexodus.Matcher;
@@ -58,6 +59,7 @@ public class Parser {
      * Parses all tokens from the given {@link TypingLabel}.
      */
     public static void parseTokens(TypingLabel label) {
+        final long start = TextraStats.start();
         // Compile patterns if necessary
         if (PATTERN_TOKEN_STRIP == null || TypingConfig.dirtyEffectMaps) {
             PATTERN_TOKEN_STRIP = compileTokenPattern();
@@ -67,13 +69,19 @@ public class Parser {
         }
 
         // Remove any previous entries
-        label.tokenEntries.clear();
-
-        // Parse all tokens with text replacements, namely color and var.
-        parseReplacements(label);
-
-        // Parse all regular tokens and properly register them
-        parseRegularTokens(label);
+        label.freeTokenEntries();
+
+        if (TypingConfig.REGEX_PARSING) {
+            // Parse all tokens with text replacements, namely color and var.
+            parseReplacements(label);
+
+            // Parse all regular tokens and properly register them
+            parseRegularTokens(label);
+        } else {
+            // Same as above, but each step only goes through the text once.
+            scanReplacements(label);
+            scanRegularTokens(label);
+        }
 
         // Parse color markups and register SKIP tokens
 //        parseColorMarkups(label);
@@ -83,6 +91,7 @@ public class Parser {
         // Sort token entries
         label.tokenEntries.sort();
 //        label.tokenEntries.reverse();
+        if (TextraStats.enabled) TextraStats.parse(TimeUtils.nanoTime() - start);
     }
 
     /**
@@ -116,66 +125,12 @@ public class Parser {
             }
 
             // Process tokens and handle replacement
-            String replacement;
-            switch (internalToken) {
-                case COLOR:
-                    replacement = stringToColorMarkup(param);
-                    break;
-                case STYLE:
-                case SIZE:
-                    replacement = stringToStyleMarkup(param);
-                    break;
-                case FONT:
-                    replacement = "[@" + param + ']';
-                    break;
-                case ENDCOLOR:
-                case CLEARCOLOR:
-                    replacement = "[#" + label.getClearColor().toString() + ']';
-                    break;
-                case CLEARSIZE:
-                    replacement = "[%]";
-                    break;
-                case CLEARFONT:
-                    replacement = "[@]";
-                    break;
-                case VAR:
-                    replacement = null;
-
-                    // Try to replace variable through listener.
-                    if (label.getTypingListener() != null) {
-                        replacement = label.getTypingListener().replaceVariable(param);
-                    }
-
-                    // If replacement is null, get value from maps.
-                    if (replacement == null) {
-                        replacement = label.getVariables().get(param.toUpperCase());
-                    }
-
-                    // If replacement is still null, get value from global scope
-                    if (replacement == null) {
-                        replacement = TypingConfig.GLOBAL_VARS.get(param.toUpperCase());
-                    }
+            String replacement = getReplacement(label, internalToken, param);
 
-                    // Make sure we're not inserting "null" to the text.
-                    if (replacement == null) replacement = param.toUpperCase();
-                    break;
-                case IF:
-                    // Process token
-                    replacement = processIfToken(label, param);
-
-                    // Make sure we're not inserting "null" to the text.
-                    if(replacement == null) replacement = param.toUpperCase();
-                    break;
-                case RESET:
-                    replacement = RESET_REPLACEMENT + label.getDefaultToken();
-                    break;
-                case UNDO:
-                    replacement = "[]";
-                    break;
-                default:
-                    // We don't want to process this token now. Move one index forward to continue the search
-                    matcherIndexOffset++;
-                    continue;
+            // We don't want to process this token now. Move one index forward to continue the search
+            if (replacement == null) {
+                matcherIndexOffset++;
+                continue;
             }
 
             // Update text with replacement
@@ -187,6 +142,73 @@ public class Parser {
         label.setIntermediateText(text, false, false);
     }
 
+    /**
+     * Gets the text that should replace the given token, or null if the token isn't one that gets replaced.
+     */
+    private static String getReplacement(TypingLabel label, InternalToken internalToken, String param) {
+        String replacement;
+        switch (internalToken) {
+            case COLOR:
+                replacement = stringToColorMarkup(param);
+                break;
+            case STYLE:
+            case SIZE:
+                replacement = stringToStyleMarkup(param);
+                break;
+            case FONT:
+                replacement = "[@" + param + ']';
+                break;
+            case ENDCOLOR:
+            case CLEARCOLOR:
+                replacement = "[#" + label.getClearColor().toString() + ']';
+                break;
+            case CLEARSIZE:
+                replacement = "[%]";
+                break;
+            case CLEARFONT:
+                replacement = "[@]";
+                break;
+            case VAR:
+                replacement = null;
+
+                // Try to replace variable through listener.
+                if (label.getTypingListener() != null) {
+                    replacement = label.getTypingListener().replaceVariable(param);
+                }
+
+                // If replacement is null, get value from maps.
+                if (replacement == null) {
+                    replacement = label.getVariables().get(param.toUpperCase());
+                }
+
+                // If replacement is still null, get value from global scope
+                if (replacement == null) {
+                    replacement = TypingConfig.GLOBAL_VARS.get(param.toUpperCase());
+                }
+
+                // Make sure we're not inserting "null" to the text.
+                if (replacement == null) replacement = param.toUpperCase();
+                break;
+            case IF:
+                // Process token
+                replacement = processIfToken(label, param);
+
+                // Make sure we're not inserting "null" to the text.
+                if(replacement == null) replacement = param.toUpperCase();
+                break;
+            case RESET:
+                replacement = RESET_REPLACEMENT + label.getDefaultToken();
+                break;
+            case UNDO:
+                replacement = "[]";
+                break;
+            default:
+                // We don't want to process this token now.
+                return null;
+        }
+        return replacement;
+    }
+
     private static String processIfToken(TypingLabel label, String paramsString) {
         // Split params
         final String[] params = paramsString == null ? new String[0] : paramsString.split(";");
@@ -278,25 +300,12 @@ public class Parser {
             m2.find();
             // Get token name and category
             String tokenName = m.group(INDEX_TOKEN).toUpperCase();
-            TokenCategory tokenCategory = null;
-            InternalToken tmpToken = InternalToken.fromName(tokenName);
-            if (tmpToken == null) {
-                if (TypingConfig.EFFECT_START_TOKENS.containsKey(tokenName)) {
-                    tokenCategory = TokenCategory.EFFECT_START;
-                } else if (TypingConfig.EFFECT_END_TOKENS.containsKey(tokenName)) {
-                    tokenCategory = TokenCategory.EFFECT_END;
-                }
-            } else {
-                tokenCategory = tmpToken.category;
-            }
+            TokenCategory tokenCategory = getCategory(tokenName);
 
             // Get token, param and index of where the token begins
             int groupCount = m.groupCount();
             final String paramsString = groupCount == INDEX_PARAM ? m.group(INDEX_PARAM) : null;
-            final String[] params = paramsString == null ? new String[0] : paramsString.split(";");
-            final String firstParam = params.length > 0 ? params[0] : null;
             final int index = m.start(0);
-            int indexOffset = 0;
 
             // If token couldn't be parsed, move one index forward to continue the search
             if (tokenCategory == null) {
@@ -304,82 +313,263 @@ public class Parser {
                 continue;
             }
 
-            // Process tokens
-            float floatValue = 0;
-            String stringValue = null;
-            Effect effect = null;
+            // Register token
+            label.tokenEntries.add(createEntry(label, tokenName, tokenCategory, paramsString, index, m.end(0)));
+
+            // Set new text without tokens
+            matcherIndexOffset = m.end();
+            m2.setPosition(0);
+            text2 = m2.replaceFirst("");
+        }
+
+//        System.out.println("Modified: "+text);
+        // Update label text
+        label.setIntermediateText(text2, false, false);
+    }
+
+    /**
+     * Gets the category of a token that isn't replaced with other text, or null if the name isn't a known token.
+     * @param tokenName the upper-case name of a token, such as {@code WAIT} or {@code ENDWAVE}
+     */
+    private static TokenCategory getCategory(String tokenName) {
+        InternalToken tmpToken = InternalToken.fromName(tokenName);
+        if (tmpToken == null) {
+            if (TypingConfig.EFFECT_START_TOKENS.containsKey(tokenName)) {
+                return TokenCategory.EFFECT_START;
+            } else if (TypingConfig.EFFECT_END_TOKENS.containsKey(tokenName)) {
+                return TokenCategory.EFFECT_END;
+            }
+            return null;
+        }
+        return tmpToken.category;
+    }
 
-            switch (tokenCategory) {
-                case WAIT: {
-                    floatValue = stringToFloat(firstParam, TypingConfig.DEFAULT_WAIT_VALUE);
+    /**
+     * Creates the TokenEntry for a token that isn't replaced with other text, such as a wait or an effect.
+     */
+    private static TokenEntry createEntry(TypingLabel label, String tokenName, TokenCategory tokenCategory,
+                                          String paramsString, int index, int endIndex) {
+        // Only the first parameter is needed here; effects split all of their parameters when they are produced
+        final int semicolon = paramsString == null ? -1 : paramsString.indexOf(';');
+        final String firstParam = semicolon < 0 ? paramsString : paramsString.substring(0, semicolon);
+        int indexOffset = 0;
+
+        // Process tokens
+        float floatValue = 0;
+        String stringValue = null;
+        Effect effect = null;
+
+        switch (tokenCategory) {
+            case WAIT: {
+                floatValue = stringToFloat(firstParam, TypingConfig.DEFAULT_WAIT_VALUE);
 //                    indexOffset = 1;
-                    break;
-                }
-                case EVENT: {
-                    stringValue = paramsString;
+                break;
+            }
+            case EVENT: {
+                stringValue = paramsString;
 //                    indexOffset = -1;
-                    break;
-                }
-                case SPEED: {
-                    switch (tokenName) {
-                        case "SPEED": {
-                            float minModifier = TypingConfig.MIN_SPEED_MODIFIER;
-                            float maxModifier = TypingConfig.MAX_SPEED_MODIFIER;
-                            float modifier = MathUtils.clamp(stringToFloat(firstParam, 1), minModifier, maxModifier);
-                            floatValue = TypingConfig.DEFAULT_SPEED_PER_CHAR / modifier;
-                            break;
-                        }
-                        case "SLOWER":
-                            floatValue = TypingConfig.DEFAULT_SPEED_PER_CHAR * 2f;
-                            break;
-                        case "SLOW":
-                            floatValue = TypingConfig.DEFAULT_SPEED_PER_CHAR * 1.5f;
-                            break;
-                        case "NORMAL":
-                            floatValue = TypingConfig.DEFAULT_SPEED_PER_CHAR;
-                            break;
-                        case "FAST":
-                            floatValue = TypingConfig.DEFAULT_SPEED_PER_CHAR * 0.5f;
-                            break;
-                        case "FASTER":
-                            floatValue = TypingConfig.DEFAULT_SPEED_PER_CHAR * 0.25f;
-                            break;
-                        case "NATURAL": {
-                            float minModifier = TypingConfig.MIN_SPEED_MODIFIER;
-                            float maxModifier = TypingConfig.MAX_SPEED_MODIFIER;
-                            float modifier = MathUtils.clamp(stringToFloat(firstParam, 1), minModifier, maxModifier);
-                            floatValue = -TypingConfig.DEFAULT_SPEED_PER_CHAR / modifier;
-                            break;
-                        }
+                break;
+            }
+            case SPEED: {
+                switch (tokenName) {
+                    case "SPEED": {
+                        float minModifier = TypingConfig.MIN_SPEED_MODIFIER;
+                        float maxModifier = TypingConfig.MAX_SPEED_MODIFIER;
+                        float modifier = MathUtils.clamp(stringToFloat(firstParam, 1), minModifier, maxModifier);
+                        floatValue = TypingConfig.DEFAULT_SPEED_PER_CHAR / modifier;
+                        break;
+                    }
+                    case "SLOWER":
+                        floatValue = TypingConfig.DEFAULT_SPEED_PER_CHAR * 2f;
+                        break;
+                    case "SLOW":
+                        floatValue = TypingConfig.DEFAULT_SPEED_PER_CHAR * 1.5f;
+                        break;
+                    case "NORMAL":
+                        floatValue = TypingConfig.DEFAULT_SPEED_PER_CHAR;
+                        break;
+                    case "FAST":
+                        floatValue = TypingConfig.DEFAULT_SPEED_PER_CHAR * 0.5f;
+                        break;
+                    case "FASTER":
+                        floatValue = TypingConfig.DEFAULT_SPEED_PER_CHAR * 0.25f;
+                        break;
+                    case "NATURAL": {
+                        float minModifier = TypingConfig.MIN_SPEED_MODIFIER;
+                        float maxModifier = TypingConfig.MAX_SPEED_MODIFIER;
+                        float modifier = MathUtils.clamp(stringToFloat(firstParam, 1), minModifier, maxModifier);
+                        floatValue = -TypingConfig.DEFAULT_SPEED_PER_CHAR / modifier;
+                        break;
                     }
-                    break;
                 }
-                case EFFECT_START: {
-                    Effect.EffectBuilder eb = TypingConfig.EFFECT_START_TOKENS.get(tokenName.toUpperCase());
-                    if (eb != null) {
-                        effect = eb.produce(label, params);
+                break;
+            }
+            case EFFECT_START: {
+                effect = label.obtainEffect(tokenName, paramsString);
+                break;
+            }
+            case EFFECT_END: {
+                break;
+            }
+        }
+
+        TokenEntry entry = TokenEntry.obtain(tokenName, tokenCategory, index + indexOffset, endIndex, floatValue, stringValue);
+        entry.effect = effect;
+        return entry;
+    }
+
+    /**
+     * Does the same thing as {@link #parseReplacements(TypingLabel)}, but goes through the text only once instead of
+     * searching it again after each replacement. Text that replaces a token is scanned before the rest of the text, so
+     * tokens inside a replacement (such as in a variable's value) are handled just like in the regex version.
+     */
+    private static void scanReplacements(TypingLabel label) {
+        CharSequence text = label.layout.appendIntoDirect(new StringBuilder());
+        final int length = text.length();
+        StringBuilder result = new StringBuilder(length);
+        // The text that hasn't been scanned yet, stored in reverse so replacements can be added to the front cheaply.
+        StringBuilder pending = new StringBuilder(length);
+        for (int i = length - 1; i >= 0; i--) {
+            pending.append(text.charAt(i));
+        }
+        ReversedSequence ahead = new ReversedSequence(pending);
+
+        while (pending.length() > 0) {
+            final int last = pending.length() - 1;
+            final char c = pending.charAt(last);
+            if (c == '{') {
+                final int end = tokenEnd(ahead, 0);
+                if (end >= 0) {
+                    final int eq = indexOf(ahead, '=', 1, end - 1);
+                    final InternalToken internalToken = InternalToken.fromName(ahead.subSequence(1, eq < 0 ? end - 1 : eq).toString());
+                    if (internalToken != null) {
+                        final String replacement = getReplacement(label, internalToken,
+                                eq < 0 ? null : ahead.subSequence(eq + 1, end - 1).toString());
+                        if (replacement != null) {
+                            pending.setLength(pending.length() - end);
+                            for (int i = replacement.length() - 1; i >= 0; i--) {
+                                pending.append(replacement.charAt(i));
+                            }
+                            continue;
+                        }
                     }
-                    break;
                 }
-                case EFFECT_END: {
-                    break;
+            }
+            result.append(c);
+            pending.setLength(last);
+        }
+
+        label.setIntermediateText(result, false, false);
+    }
+
+    /**
+     * Does the same thing as {@link #parseRegularTokens(TypingLabel)}, but goes through the text a fixed number of
+     * times instead of searching it again after each token. Token indices are positions in the text with square-bracket
+     * markup removed (but with tokens still present), as in the regex version.
+     */
+    private static void scanRegularTokens(TypingLabel label) {
+        CharSequence text = label.getIntermediateText();
+        final int length = text.length();
+
+        // Remove square-bracket markup, the same as PATTERN_MARKUP_STRIP, remembering where each char came from.
+        StringBuilder stripped = new StringBuilder(length);
+        int[] sources = new int[length];
+        for (int i = 0; i < length; i++) {
+            char c = text.charAt(i);
+            if (c == '[' && (i == 0 || text.charAt(i - 1) != '[')) {
+                int j = i + 1;
+                while (j < length && text.charAt(j) != '[' && text.charAt(j) != ']') j++;
+                if (j == length) break;
+                if (text.charAt(j) == ']') {
+                    i = j;
+                    continue;
                 }
             }
+            sources[stripped.length()] = i;
+            stripped.append(c);
+        }
 
-            // Register token
-            TokenEntry entry = new TokenEntry(tokenName, tokenCategory, index + indexOffset, m.end(0), floatValue, stringValue);
-            entry.effect = effect;
-            label.tokenEntries.add(entry);
+        // Register tokens and copy everything but those tokens into the new intermediate text.
+        StringBuilder result = new StringBuilder(length);
+        int copied = 0;
+        for (int i = 0, n = stripped.length(); i < n; i++) {
+            if (stripped.charAt(i) != '{') continue;
+            final int end = tokenEnd(stripped, i);
+            if (end < 0) continue;
+            final int eq = indexOf(stripped, '=', i + 1, end - 1);
+            final String tokenName = stripped.substring(i + 1, eq < 0 ? end - 1 : eq).toUpperCase();
+            final TokenCategory tokenCategory = getCategory(tokenName);
+            if (tokenCategory == null) continue;
+            final String paramsString = eq < 0 ? null : stripped.substring(eq + 1, end - 1);
+            label.tokenEntries.add(createEntry(label, tokenName, tokenCategory, paramsString, i, end));
+
+            result.append(text, copied, sources[i]);
+            copied = sources[end - 1] + 1;
+            i = end - 1;
+        }
+        result.append(text, copied, length);
 
-            // Set new text without tokens
-            matcherIndexOffset = m.end();
-            m2.setPosition(0);
-            text2 = m2.replaceFirst("");
+        label.setIntermediateText(result, false, false);
+    }
+
+    /**
+     * Given the index of a '{' in {@code text}, finds the end (exclusive) of a token shaped like {@code {NAME}} or
+     * {@code {NAME=params}}, or returns -1 if there isn't one there. This matches the same shapes as the token pattern,
+     * but doesn't check the name; params can't contain curly braces and can't be empty.
+     */
+    private static int tokenEnd(CharSequence text, int start) {
+        final int length = text.length();
+        int i = start + 1, eq = -1;
+        for (; i < length; i++) {
+            char c = text.charAt(i);
+            if (c == '}') break;
+            if (c == '{') return -1;
+            if (c == '=' && eq < 0) eq = i;
         }
+        if (i == length || eq == start + 1 || eq == i - 1) return -1;
+        return i + 1;
+    }
 
-//        System.out.println("Modified: "+text);
-        // Update label text
-        label.setIntermediateText(text2, false, false);
+    private static int indexOf(CharSequence text, char c, int start, int end) {
+        for (int i = start; i < end; i++) {
+            if (text.charAt(i) == c) return i;
+        }
+        return -1;
+    }
+
+    /**
+     * A read-only view of a StringBuilder with its chars in reverse order.
+     */
+    private static final class ReversedSequence implements CharSequence {
+        private final StringBuilder reversed;
+
+        ReversedSequence(StringBuilder reversed) {
+            this.reversed = reversed;
+        }
+
+        @Override
+        public int length() {
+            return reversed.length();
+        }
+
+        @Override
+        public char charAt(int index) {
+            return reversed.charAt(reversed.length() - 1 - index);
+        }
+
+        @Override
+        public CharSequence subSequence(int start, int end) {
+            StringBuilder sb = new StringBuilder(end - start);
+            for (int i = start; i < end; i++) {
+                sb.append(charAt(i));
+            }
+            return sb.toString();
+        }
+
+        @Override
+        public String toString() {
+            return subSequence(0, length()).toString();
+        }
     }
 
     /**
@@ -394,7 +584,7 @@ public class Parser {
         while (m.find()) {
             final String tag = m.group(0);
             final int index = m.start(0);
-            label.tokenEntries.add(new TokenEntry("SKIP", TokenCategory.SKIP, index, m.end(0), 0, tag));
+            label.tokenEntries.add(TokenEntry.obtain("SKIP", TokenCategory.SKIP, index, m.end(0), 0, tag));
         }
     }
 
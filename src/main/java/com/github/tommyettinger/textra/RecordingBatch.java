@@ -0,0 +1,502 @@
+/*
+ * Copyright (c) 2023 See AUTHORS file.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.tommyettinger.textra;
+
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.g2d.Batch;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.graphics.glutils.ShaderProgram;
+import com.badlogic.gdx.math.Affine2;
+import com.badlogic.gdx.math.Matrix4;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.FloatArray;
+import com.badlogic.gdx.utils.IntArray;
+
+/**
+ * A {@link Batch} that passes every call through to another Batch, while also recording the vertices given to
+ * {@link #draw(Texture, float[], int, int)}, which is how {@link Font} draws every glyph. The recorded vertices can then
+ * be drawn again with {@link #replay(Batch)}, using one {@link Batch#draw(Texture, float[], int, int)} call per run of
+ * glyphs that share a Texture, without recalculating any of them. This is used by {@link TextraLabel} when it is
+ * {@link TextraLabel#setRetained(boolean) retained}.
+ * <br>
+ * Recording only works if everything drawn goes through {@link #draw(Texture, float[], int, int)}; if anything else is
+ * drawn, or the shader, blending, or matrices are changed while recording, {@link #stopRecording()} returns false, and
+ * the recorded vertices shouldn't be replayed.
+ * <br>
+ * This can also defer drawing with {@link #startDeferred(Batch)}, which records without passing vertices through, and
+ * then draws them grouped by Texture when {@link #stopRecording()} is called. Text that mixes several Textures, such as
+ * a multi-page Font, a {@link Font.FontFamily}, or emoji from {@link KnownFonts#addEmoji(Font)}, would otherwise make
+ * the Batch flush every time the Texture changes. Quads are only moved earlier if they don't overlap anything drawn
+ * between, so backgrounds, underlines, outlines, and shadows still draw in the right order.
+ */
+public class RecordingBatch implements Batch {
+    /**
+     * The vertices recorded so far, in the order they were drawn.
+     */
+    public final FloatArray vertices = new FloatArray(400);
+    /**
+     * The Texture used by each run of vertices.
+     */
+    public final Array<Texture> textures = new Array<>(true, 4, Texture.class);
+    /**
+     * The index in {@link #vertices} where each run starts; each run ends where the next one starts, or at the end.
+     */
+    public final IntArray runStarts = new IntArray(4);
+    /**
+     * The Batch that calls are passed through to while recording.
+     */
+    protected Batch batch;
+    /**
+     * False if something was done while recording that {@link #replay(Batch)} can't reproduce.
+     */
+    protected boolean complete = true;
+    /**
+     * True while recording with {@link #startDeferred(Batch)}, when vertices are held until {@link #stopRecording()}.
+     */
+    protected boolean deferred = false;
+    /**
+     * True while recording with {@link #startCapturing(Batch)}, when vertices are recorded but never drawn.
+     */
+    protected boolean capturing = false;
+
+    private final FloatArray sortedVertices = new FloatArray(400);
+    private final FloatArray quadBounds = new FloatArray(80), groupBounds = new FloatArray(16);
+    private final IntArray groupHeads = new IntArray(4), groupTails = new IntArray(4), nextInGroup = new IntArray(20);
+    private final Array<Texture> groupTextures = new Array<>(true, 4, Texture.class);
+
+    public RecordingBatch() {
+    }
+
+    /**
+     * Clears any previously recorded vertices and starts passing calls through to {@code batch}, recording vertices.
+     * The given batch should already be drawing (that is, {@link Batch#begin()} was called on it).
+     *
+     * @param batch the Batch that will actually draw while recording
+     */
+    public void startRecording(Batch batch) {
+        this.batch = batch;
+        vertices.clear();
+        textures.clear();
+        runStarts.clear();
+        complete = true;
+        deferred = false;
+        capturing = false;
+    }
+
+    /**
+     * Clears any previously recorded vertices and starts recording vertices without drawing them yet; they are drawn
+     * with {@code batch}, grouped by Texture, when {@link #stopRecording()} is called. Other calls are still passed
+     * through to {@code batch}, but anything that isn't recorded first draws everything deferred so far, so it still
+     * appears in the right order. The given batch should already be drawing.
+     *
+     * @param batch the Batch that will draw the deferred vertices
+     */
+    public void startDeferred(Batch batch) {
+        startRecording(batch);
+        deferred = true;
+    }
+
+    /**
+     * Clears any previously recorded vertices and starts recording vertices without drawing them at all, not even when
+     * {@link #stopRecording()} is called; they can be drawn later with {@link #replay(Batch)}, or copied out of
+     * {@link #vertices}. The given batch is still used for anything a Font needs to know while drawing, such as the
+     * color, shader, and projection matrix. Drawing that can't be recorded is dropped rather than passed through, and
+     * makes {@link #stopRecording()} return false. This is used by {@link GlyphGrid} to calculate the quads for one cell.
+     *
+     * @param batch the Batch that would normally be drawn to
+     */
+    public void startCapturing(Batch batch) {
+        startRecording(batch);
+        capturing = true;
+    }
+
+    /**
+     * Stops passing calls through to the Batch given to {@link #startRecording(Batch)}. If this was started with
+     * {@link #startDeferred(Batch)}, the recorded vertices are first sorted with {@link #sortByTexture()} and drawn;
+     * they stay recorded, so they can be replayed later without sorting again.
+     *
+     * @return true if the recorded vertices can be replayed, or false if something was drawn that wasn't recorded
+     */
+    public boolean stopRecording() {
+        if (deferred) {
+            sortByTexture();
+            replay(batch);
+            deferred = false;
+        }
+        capturing = false;
+        batch = null;
+        return complete;
+    }
+
+    /**
+     * Reorders the recorded vertices so quads that use the same Texture are drawn together, which lets
+     * {@link #replay(Batch)} draw with fewer Texture changes. A quad is only moved earlier, into the last group
+     * using its Texture, if its bounding box doesn't overlap any quad drawn between that group and the quad itself.
+     * Quads that overlap keep their original order, so the result looks the same as drawing in the original order.
+     * This expects 20 floats per quad, as SpriteBatch uses, and does nothing otherwise.
+     */
+    public void sortByTexture() {
+        final int runs = runStarts.size;
+        if (runs <= 1 || vertices.size % 20 != 0) return;
+        final int quads = vertices.size / 20;
+        final float[] v = vertices.items;
+        nextInGroup.clear();
+        groupHeads.clear();
+        groupTails.clear();
+        groupTextures.clear();
+        groupBounds.clear();
+        final float[] qb = quadBounds.setSize(quads << 2);
+        for (int run = 0, q = 0; run < runs; run++) {
+            final Texture texture = textures.get(run);
+            final int runEnd = (run + 1 < runs ? runStarts.get(run + 1) : vertices.size) / 20;
+            for (; q < runEnd; q++) {
+                int b = q * 20;
+                float minX = v[b], maxX = minX, minY = v[b + 1], maxY = minY;
+                for (int c = b + 5; c < b + 20; c += 5) {
+                    minX = Math.min(minX, v[c]);
+                    maxX = Math.max(maxX, v[c]);
+                    minY = Math.min(minY, v[c + 1]);
+                    maxY = Math.max(maxY, v[c + 1]);
+                }
+                qb[q << 2] = minX;
+                qb[q << 2 | 1] = minY;
+                qb[q << 2 | 2] = maxX;
+                qb[q << 2 | 3] = maxY;
+
+                int target = -1;
+                for (int g = groupTextures.size - 1; g >= 0; g--) {
+                    if (groupTextures.get(g) == texture) {
+                        target = g;
+                        break;
+                    }
+                    if (overlapsGroup(g, minX, minY, maxX, maxY)) break;
+                }
+                if (target < 0) {
+                    target = groupTextures.size;
+                    groupTextures.add(texture);
+                    groupHeads.add(q);
+                    groupTails.add(q);
+                    groupBounds.add(minX, minY, maxX, maxY);
+                } else {
+                    nextInGroup.set(groupTails.get(target), q);
+                    groupTails.set(target, q);
+                    float[] gb = groupBounds.items;
+                    int t = target << 2;
+                    gb[t] = Math.min(gb[t], minX);
+                    gb[t + 1] = Math.min(gb[t + 1], minY);
+                    gb[t + 2] = Math.max(gb[t + 2], maxX);
+                    gb[t + 3] = Math.max(gb[t + 3], maxY);
+                }
+                nextInGroup.add(-1);
+            }
+        }
+        final int groups = groupTextures.size;
+        if (groups == runs) return;
+
+        final float[] sorted = sortedVertices.setSize(vertices.size);
+        textures.clear();
+        runStarts.clear();
+        for (int g = 0, out = 0; g < groups; g++) {
+            textures.add(groupTextures.get(g));
+            runStarts.add(out);
+            for (int q = groupHeads.get(g); q != -1; q = nextInGroup.get(q)) {
+                System.arraycopy(v, q * 20, sorted, out, 20);
+                out += 20;
+            }
+        }
+        System.arraycopy(sorted, 0, v, 0, vertices.size);
+        groupTextures.clear();
+    }
+
+    private boolean overlapsGroup(int group, float minX, float minY, float maxX, float maxY) {
+        final float[] gb = groupBounds.items, qb = quadBounds.items;
+        final int g = group << 2;
+        if (maxX <= gb[g] || minX >= gb[g + 2] || maxY <= gb[g + 1] || minY >= gb[g + 3]) return false;
+        for (int q = groupHeads.get(group); q != -1; q = nextInGroup.get(q)) {
+            int b = q << 2;
+            if (maxX > qb[b] && minX < qb[b + 2] && maxY > qb[b + 1] && minY < qb[b + 3]) return true;
+        }
+        return false;
+    }
+
+    /**
+     * Called before passing through anything that can't be recorded. This marks the recording as incomplete, and if
+     * drawing is deferred, draws and clears everything deferred so far so the order of drawing is kept.
+     */
+    protected void interrupt() {
+        complete = false;
+        if (deferred && !capturing) {
+            sortByTexture();
+            replay(batch);
+            clear();
+        }
+    }
+
+    /**
+     * Returns true if vertices given to this are being held instead of drawn right away, which happens while
+     * recording with {@link #startDeferred(Batch)} or {@link #startCapturing(Batch)}. Those vertices are counted by
+     * {@link TextraStats} when {@link #replay(Batch)} actually draws them, so a Font doesn't count them as they arrive.
+     *
+     * @return true if vertices drawn to this now are held for later
+     */
+    public boolean isHolding() {
+        return deferred || capturing;
+    }
+
+    /**
+     * Returns true while recording with {@link #startCapturing(Batch)}, when nothing given to this is ever drawn. A Font
+     * doesn't count glyphs drawn to this while it is capturing in {@link TextraStats}.
+     *
+     * @return true if nothing drawn to this now will be drawn at all
+     */
+    public boolean isCapturing() {
+        return capturing;
+    }
+
+    /**
+     * Draws all recorded vertices with the given Batch, which should already be drawing.
+     *
+     * @param batch the Batch to draw with, typically the same one that was used while recording
+     */
+    public void replay(Batch batch) {
+        for (int i = 0, n = runStarts.size; i < n; i++) {
+            int start = runStarts.get(i), end = i + 1 < n ? runStarts.get(i + 1) : vertices.size;
+            batch.draw(textures.get(i), vertices.items, start, end - start);
+            if (TextraStats.enabled) TextraStats.quads(textures.get(i), (end - start) / 20);
+        }
+    }
+
+    /**
+     * Removes all recorded vertices.
+     */
+    public void clear() {
+        vertices.clear();
+        textures.clear();
+        runStarts.clear();
+    }
+
+    @Override
+    public void draw(Texture texture, float[] spriteVertices, int offset, int count) {
+        if (!deferred && !capturing) batch.draw(texture, spriteVertices, offset, count);
+        if (textures.size == 0 || textures.peek() != texture) {
+            textures.add(texture);
+            runStarts.add(vertices.size);
+        }
+        vertices.addAll(spriteVertices, offset, count);
+    }
+
+    @Override
+    public void begin() {
+        batch.begin();
+    }
+
+    @Override
+    public void end() {
+        batch.end();
+    }
+
+    @Override
+    public void setColor(Color tint) {
+        batch.setColor(tint);
+    }
+
+    @Override
+    public void setColor(float r, float g, float b, float a) {
+        batch.setColor(r, g, b, a);
+    }
+
+    @Override
+    public Color getColor() {
+        return batch.getColor();
+    }
+
+    @Override
+    public void setPackedColor(float packedColor) {
+        batch.setPackedColor(packedColor);
+    }
+
+    @Override
+    public float getPackedColor() {
+        return batch.getPackedColor();
+    }
+
+    @Override
+    public void draw(Texture texture, float x, float y, float originX, float originY, float width, float height, float scaleX, float scaleY, float rotation, int srcX, int srcY, int srcWidth, int srcHeight, boolean flipX, boolean flipY) {
+        interrupt();
+        if (!capturing) batch.draw(texture, x, y, originX, originY, width, height, scaleX, scaleY, rotation, srcX, srcY, srcWidth, srcHeight, flipX, flipY);
+    }
+
+    @Override
+    public void draw(Texture texture, float x, float y, float width, float height, int srcX, int srcY, int srcWidth, int srcHeight, boolean flipX, boolean flipY) {
+        interrupt();
+        if (!capturing) batch.draw(texture, x, y, width, height, srcX, srcY, srcWidth, srcHeight, flipX, flipY);
+    }
+
+    @Override
+    public void draw(Texture texture, float x, float y, int srcX, int srcY, int srcWidth, int srcHeight) {
+        interrupt();
+        if (!capturing) batch.draw(texture, x, y, srcX, srcY, srcWidth, srcHeight);
+    }
+
+    @Override
+    public void draw(Texture texture, float x, float y, float width, float height, float u, float v, float u2, float v2) {
+        interrupt();
+        if (!capturing) batch.draw(texture, x, y, width, height, u, v, u2, v2);
+    }
+
+    @Override
+    public void draw(Texture texture, float x, float y) {
+        interrupt();
+        if (!capturing) batch.draw(texture, x, y);
+    }
+
+    @Override
+    public void draw(Texture texture, float x, float y, float width, float height) {
+        interrupt();
+        if (!capturing) batch.draw(texture, x, y, width, height);
+    }
+
+    @Override
+    public void draw(TextureRegion region, float x, float y) {
+        interrupt();
+        if (!capturing) batch.draw(region, x, y);
+    }
+
+    @Override
+    public void draw(TextureRegion region, float x, float y, float width, float height) {
+        interrupt();
+        if (!capturing) batch.draw(region, x, y, width, height);
+    }
+
+    @Override
+    public void draw(TextureRegion region, float x, float y, float originX, float originY, float width, float height, float scaleX, float scaleY, float rotation) {
+        interrupt();
+        if (!capturing) batch.draw(region, x, y, originX, originY, width, height, scaleX, scaleY, rotation);
+    }
+
+    @Override
+    public void draw(TextureRegion region, float x, float y, float originX, float originY, float width, float height, float scaleX, float scaleY, float rotation, boolean clockwise) {
+        interrupt();
+        if (!capturing) batch.draw(region, x, y, originX, originY, width, height, scaleX, scaleY, rotation, clockwise);
+    }
+
+    @Override
+    public void draw(TextureRegion region, float width, float height, Affine2 transform) {
+        interrupt();
+        if (!capturing) batch.draw(region, width, height, transform);
+    }
+
+    @Override
+    public void flush() {
+        batch.flush();
+    }
+
+    @Override
+    public void disableBlending() {
+        interrupt();
+        batch.disableBlending();
+    }
+
+    @Override
+    public void enableBlending() {
+        interrupt();
+        batch.enableBlending();
+    }
+
+    @Override
+    public void setBlendFunction(int srcFunc, int dstFunc) {
+        interrupt();
+        batch.setBlendFunction(srcFunc, dstFunc);
+    }
+
+    @Override
+    public void setBlendFunctionSeparate(int srcFuncColor, int dstFuncColor, int srcFuncAlpha, int dstFuncAlpha) {
+        interrupt();
+        batch.setBlendFunctionSeparate(srcFuncColor, dstFuncColor, srcFuncAlpha, dstFuncAlpha);
+    }
+
+    @Override
+    public int getBlendSrcFunc() {
+        return batch.getBlendSrcFunc();
+    }
+
+    @Override
+    public int getBlendDstFunc() {
+        return batch.getBlendDstFunc();
+    }
+
+    @Override
+    public int getBlendSrcFuncAlpha() {
+        return batch.getBlendSrcFuncAlpha();
+    }
+
+    @Override
+    public int getBlendDstFuncAlpha() {
+        return batch.getBlendDstFuncAlpha();
+    }
+
+    @Override
+    public Matrix4 getProjectionMatrix() {
+        return batch.getProjectionMatrix();
+    }
+
+    @Override
+    public Matrix4 getTransformMatrix() {
+        return batch.getTransformMatrix();
+    }
+
+    @Override
+    public void setProjectionMatrix(Matrix4 projection) {
+        interrupt();
+        batch.setProjectionMatrix(projection);
+    }
+
+    @Override
+    public void setTransformMatrix(Matrix4 transform) {
+        interrupt();
+        batch.setTransformMatrix(transform);
+    }
+
+    @Override
+    public void setShader(ShaderProgram shader) {
+        interrupt();
+        batch.setShader(shader);
+    }
+
+    @Override
+    public ShaderProgram getShader() {
+        return batch.getShader();
+    }
+
+    @Override
+    public boolean isBlendingEnabled() {
+        return batch.isBlendingEnabled();
+    }
+
+    @Override
+    public boolean isDrawing() {
+        return batch.isDrawing();
+    }
+
+    /**
+     * Does nothing; this doesn't own the Batch it passes calls through to, so it doesn't dispose it.
+     */
+    @Override
+    public void dispose() {
+    }
+}
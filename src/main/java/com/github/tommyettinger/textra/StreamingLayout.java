@@ -0,0 +1,258 @@
+/*
+ * Copyright (c) 2023 See AUTHORS file.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.github.tommyettinger.textra;
+
+import com.badlogic.gdx.utils.LongArray;
+
+/**
+ * A {@link Layout} meant for chat panes, logs, and consoles, where text is only ever added to the end. Text is added
+ * with {@link Font#markupAppend(String, StreamingLayout)} (or {@link TextraLabel#appendText(String)} when this is a
+ * TextraLabel's {@link TextraLabel#layout}), which only parses and wraps the new text, and carries the markup state
+ * (color, style, scale, font, and the {@code []} history) from the end of one appended piece of text to the start of
+ * the next. The cost of appending a message is therefore about the same whether the history has ten lines or ten
+ * thousand.
+ * <br>
+ * This can keep a bounded history: when it holds more than {@link #getMaxRetainedLines()} lines or more than
+ * {@link #getMaxRetainedGlyphs()} glyphs, the oldest lines are removed and reused for new text. So that removal stays
+ * cheap, it waits until the limit is exceeded by an eighth before removing lines, and then removes enough to get back
+ * under the limit; at most times this holds somewhat more than the limit. Only the last line can be partly filled, so
+ * removed lines are always whole lines.
+ * <br>
+ * Other ways of changing the Lines in this, such as {@link Font#markup(String, Layout)}, still work, but they don't
+ * update the markup state or the glyph count this uses for {@link #getMaxRetainedGlyphs()}; {@link #clear()} resets
+ * both, and {@link #set(Layout)} resets the markup state and counts the glyphs it copied.
+ */
+public class StreamingLayout extends Layout {
+    /**
+     * The most lines this keeps before removing the oldest ones.
+     */
+    protected int maxRetainedLines = Integer.MAX_VALUE;
+    /**
+     * The most glyphs this keeps before removing the oldest lines.
+     */
+    protected int maxRetainedGlyphs = Integer.MAX_VALUE;
+    /**
+     * How many glyphs are in all Lines, as counted by {@link Font#markupAppend(String, StreamingLayout)}.
+     */
+    protected int glyphCount = 0;
+    /**
+     * How many lines have been removed from the start of this since it was created or cleared.
+     */
+    protected long droppedLines = 0L;
+
+    /**
+     * The index of the last Line when {@link #beginAppend()} was called.
+     */
+    private int appendFrom = 0;
+    /**
+     * How many glyphs were in the last Line when {@link #beginAppend()} was called.
+     */
+    private int appendFromGlyphs = 0;
+
+    /**
+     * True once markup state has been stored by {@link Font#markupAppend(String, StreamingLayout)}.
+     */
+    boolean hasMarkupState = false;
+    /**
+     * The color and style bits that the next appended glyph will use.
+     */
+    long markupCurrent = 0L;
+    /**
+     * The scale index of the next appended glyph, as used by {@link Font#markup(String, Layout)}.
+     */
+    int markupScale = 3;
+    /**
+     * The index in the Font's family of the Font the next appended glyph will use.
+     */
+    int markupFontIndex = -1;
+    boolean markupCapitalize = false, markupCapsLock = false, markupLowerCase = false, markupPreviousWasLetter = false;
+    /**
+     * Previous glyph states, so {@code []} in later appended text can return to them.
+     */
+    final LongArray markupHistory = new LongArray(16);
+
+    public StreamingLayout() {
+        super();
+    }
+
+    public StreamingLayout(Font font) {
+        super(font);
+    }
+
+    /**
+     * Creates a StreamingLayout that uses the given Font and keeps about {@code maxRetainedLines} lines.
+     *
+     * @param font             the Font to use
+     * @param maxRetainedLines the most lines to keep before the oldest are removed; will be at least 1
+     */
+    public StreamingLayout(Font font, int maxRetainedLines) {
+        super(font);
+        setMaxRetainedLines(maxRetainedLines);
+    }
+
+    /**
+     * Gets the most lines this keeps before removing the oldest ones.
+     *
+     * @return the line limit; {@link Integer#MAX_VALUE} if unlimited
+     */
+    public int getMaxRetainedLines() {
+        return maxRetainedLines;
+    }
+
+    /**
+     * Sets the most lines this keeps before removing the oldest ones. This takes effect the next time text is
+     * appended.
+     *
+     * @param maxRetainedLines the line limit; will be at least 1
+     * @return this, for chaining
+     */
+    public StreamingLayout setMaxRetainedLines(int maxRetainedLines) {
+        this.maxRetainedLines = Math.max(1, maxRetainedLines);
+        return this;
+    }
+
+    /**
+     * Gets the most glyphs this keeps before removing the oldest lines.
+     *
+     * @return the glyph limit; {@link Integer#MAX_VALUE} if unlimited
+     */
+    public int getMaxRetainedGlyphs() {
+        return maxRetainedGlyphs;
+    }
+
+    /**
+     * Sets the most glyphs this keeps before removing the oldest lines. This takes effect the next time text is
+     * appended. The last line is never removed, even if it alone has more glyphs than this.
+     *
+     * @param maxRetainedGlyphs the glyph limit; will be at least 1
+     * @return this, for chaining
+     */
+    public StreamingLayout setMaxRetainedGlyphs(int maxRetainedGlyphs) {
+        this.maxRetainedGlyphs = Math.max(1, maxRetainedGlyphs);
+        return this;
+    }
+
+    /**
+     * @return how many lines have been removed from the start of this since it was created or cleared
+     */
+    public long getDroppedLines() {
+        return droppedLines;
+    }
+
+    /**
+     * Forgets the markup state carried between appended pieces of text, so the next appended text starts in
+     * {@link #getBaseColor()} with no styles, as if this was empty. The text already in this is unchanged.
+     */
+    public void resetMarkupState() {
+        hasMarkupState = false;
+        markupCurrent = 0L;
+        markupScale = 3;
+        markupFontIndex = -1;
+        markupCapitalize = false;
+        markupCapsLock = false;
+        markupLowerCase = false;
+        markupPreviousWasLetter = false;
+        markupHistory.clear();
+    }
+
+    @Override
+    public Layout clear() {
+        super.clear();
+        resetMarkupState();
+        glyphCount = 0;
+        droppedLines = 0L;
+        appendFrom = 0;
+        appendFromGlyphs = 0;
+        return this;
+    }
+
+    /**
+     * Makes this a copy of the Lines and settings in {@code other}, as {@link Layout#set(Layout)} does. Because the
+     * copied text didn't come from {@link Font#markupAppend(String, StreamingLayout)}, the markup state is reset and
+     * the glyph count is counted again from the copied Lines.
+     *
+     * @param other another Layout to copy; will not be modified
+     * @return this, for chaining
+     */
+    @Override
+    public Layout set(Layout other) {
+        if (other == this) return this;
+        super.set(other);
+        resetMarkupState();
+        glyphCount = countGlyphs();
+        droppedLines = 0L;
+        appendFrom = 0;
+        appendFromGlyphs = 0;
+        return this;
+    }
+
+    @Override
+    public Layout font(Font font) {
+        if (this.font == null || !this.font.equals(font)) {
+            super.font(font);
+            resetMarkupState();
+            glyphCount = 0;
+            appendFrom = 0;
+            appendFromGlyphs = 0;
+        }
+        return this;
+    }
+
+    /**
+     * Remembers where the text is about to be appended, so {@link #endAppend()} only needs to count the new glyphs.
+     */
+    void beginAppend() {
+        appendFrom = lines.size - 1;
+        appendFromGlyphs = lines.peek().glyphs.size;
+    }
+
+    /**
+     * Counts the glyphs added since {@link #beginAppend()}, then removes the oldest lines if there are too many.
+     */
+    void endAppend() {
+        int added = -appendFromGlyphs;
+        for (int i = Math.min(appendFrom, lines.size - 1), n = lines.size; i < n; i++) {
+            added += lines.get(i).glyphs.size;
+        }
+        glyphCount = Math.max(0, glyphCount + added);
+        trim();
+    }
+
+    /**
+     * Removes the oldest lines once this has more than an eighth too many lines or glyphs, until it is back within
+     * {@link #getMaxRetainedLines()} and {@link #getMaxRetainedGlyphs()}. This is called automatically by
+     * {@link Font#markupAppend(String, StreamingLayout)}.
+     */
+    public void trim() {
+        if (lines.size - maxRetainedLines <= (maxRetainedLines >>> 3)
+                && glyphCount - maxRetainedGlyphs <= (maxRetainedGlyphs >>> 3))
+            return;
+        int remove = 0, removedGlyphs = 0;
+        final int last = lines.size - 1;
+        while (remove < last && (lines.size - remove > maxRetainedLines || glyphCount - removedGlyphs > maxRetainedGlyphs)) {
+            Line line = lines.get(remove++);
+            removedGlyphs += line.glyphs.size;
+            linePool.free(line);
+        }
+        if (remove == 0) return;
+        lines.removeRange(0, remove - 1);
+        glyphCount -= removedGlyphs;
+        droppedLines += remove;
+        invalidateIndex();
+    }
+}
@@ -45,8 +45,13 @@ public class TextraButton extends Button {
         setSkin(skin);
     }
 
+    /**
+     * Creates a TextraButton using the given style. The Font is a copy of one converted from the style's BitmapFont by
+     * {@link FontCache#forWidget}, so it shares glyph data with other widgets using that BitmapFont, but it can be
+     * scaled or otherwise changed on its own.
+     */
     public TextraButton(@Null String text, TextButtonStyle style) {
-        this(text, style, new Font(style.font));
+        this(text, style, FontCache.forWidget(style.font, false));
     }
 
 
@@ -89,7 +94,7 @@ public class TextraButton extends Button {
 
         if (label != null) {
             TextButtonStyle textButtonStyle = (TextButtonStyle) style;
-            label.setFont(new Font(textButtonStyle.font, Font.DistanceFieldType.STANDARD, 0, 0, 0, 0, makeGridGlyphs));
+            label.setFont(FontCache.forWidget(textButtonStyle.font, makeGridGlyphs));
             if (textButtonStyle.fontColor != null) label.setColor(textButtonStyle.fontColor);
         }
     }
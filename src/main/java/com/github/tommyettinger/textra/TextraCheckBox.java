@@ -44,8 +44,13 @@ public class TextraCheckBox extends TextraButton {
         this(text, skin.get(styleName, CheckBoxStyle.class));
     }
 
+    /**
+     * Creates a TextraCheckBox using the given style. The Font is a copy of one converted from the style's BitmapFont
+     * by {@link FontCache#forWidget}, so it shares glyph data with other widgets using that BitmapFont, but it can be
+     * scaled or otherwise changed on its own.
+     */
     public TextraCheckBox(@Null String text, CheckBoxStyle style) {
-        this(text, style, new Font(style.font));
+        this(text, style, FontCache.forWidget(style.font, false));
     }
 
     public TextraCheckBox(@Null String text, Skin skin, Font replacementFont) {
@@ -552,6 +552,7 @@ public class TextraField extends Widget implements Disableable {
 		LongArray glyphs = label.layout.getLine(0).glyphs;
 		if(glyphs.size > 0 && minIndex <= maxIndex)
 			glyphs.removeRange(minIndex, Math.max(Math.min(glyphs.size - 1, maxIndex), 0));
+		label.layout.invalidateIndex();
 		if (fireChangeEvent)
 			changeText(text, label.layout.toString());
 		else
@@ -668,6 +669,7 @@ public class TextraField extends Widget implements Disableable {
 		String oldText = text;
 		text = "";
 		label.layout.getLine(0).glyphs.clear();
+		label.layout.invalidateIndex();
 		cursor = 0;
 		hasSelection = false;
 		paste(str, false);
@@ -16,26 +16,31 @@
 
 package com.github.tommyettinger.textra;
 
+import com.badlogic.gdx.Gdx;
 import com.badlogic.gdx.graphics.Color;
 import com.badlogic.gdx.graphics.g2d.Batch;
 import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.math.Rectangle;
 import com.badlogic.gdx.scenes.scene2d.Group;
 import com.badlogic.gdx.scenes.scene2d.Stage;
 import com.badlogic.gdx.scenes.scene2d.ui.Label;
 import com.badlogic.gdx.scenes.scene2d.ui.Skin;
 import com.badlogic.gdx.scenes.scene2d.ui.Widget;
+import com.badlogic.gdx.scenes.scene2d.utils.Cullable;
 import com.badlogic.gdx.scenes.scene2d.utils.Drawable;
 import com.badlogic.gdx.scenes.scene2d.utils.TransformDrawable;
 import com.badlogic.gdx.utils.Align;
 import com.badlogic.gdx.utils.LongArray;
 
+import java.util.Arrays;
+
 import static com.github.tommyettinger.textra.Font.ALTERNATE;
 
 /**
  * A scene2d.ui Widget that displays text using a {@link Font} rather than a libGDX BitmapFont. This supports being
  * laid out in a Table just like the typical Label (when {@link #isWrap() wrap} is false, which is the default).
  */
-public class TextraLabel extends Widget {
+public class TextraLabel extends Widget implements Cullable {
     public Layout layout;
     protected Font font;
     public int align = Align.left;
@@ -48,6 +53,42 @@ public class TextraLabel extends Widget {
     public boolean wrap = false;
     public String storedText;
     public Label.LabelStyle style;
+    /**
+     * If non-null, {@link #setText(String)} gets its Layout from this cache instead of always parsing markup, which
+     * can help when the same text is set repeatedly, such as in recycled list rows. This is null by default.
+     * A LayoutCache can be shared by many labels, as long as they are all used on one thread.
+     */
+    public LayoutCache layoutCache = null;
+    /**
+     * If true, the vertices of the glyphs this draws are recorded and drawn again on later frames, as long as nothing
+     * that affects them has changed. Set with {@link #setRetained(boolean)}.
+     */
+    protected boolean retained = false;
+    /**
+     * If true, the glyphs this draws are gathered and drawn grouped by Texture, so the Batch flushes less often when
+     * text mixes Textures. Set with {@link #setTextureSorted(boolean)}.
+     */
+    protected boolean textureSorted = false;
+    /**
+     * Holds the recorded vertices when {@link #retained} or {@link #textureSorted} is true; null until first needed.
+     */
+    protected RecordingBatch recording = null;
+    /**
+     * True when {@link #recording} holds vertices that can be drawn again if {@link #recordedState} still matches.
+     */
+    protected boolean recordingValid = false;
+    /**
+     * Everything that the recorded vertices depend on, other than the Layout's contents and the Font, when they were
+     * recorded. Compared with {@link #currentState} each frame.
+     */
+    private final float[] recordedState = new float[17], currentState = new float[17];
+    private Font recordedFont = null;
+    private Layout recordedLayout = null;
+    /**
+     * The area of this label that can be seen, in its own coordinates, as set by {@link #setCullingArea(Rectangle)};
+     * lines that are entirely outside this area aren't drawn. If null, every line is drawn.
+     */
+    protected Rectangle cullingArea = null;
 
     /**
      * Creates a TextraLabel that uses the default libGDX font (lsans-15 in the current version) with white color.
@@ -147,6 +188,8 @@ public class TextraLabel extends Widget {
 
     /**
      * Creates a TextraLabel with the given text (which may be multi-line) and using the given style.
+     * The Font is a copy of one converted from the style's BitmapFont by {@link FontCache#forWidget}, so it shares
+     * glyph data with other widgets using that BitmapFont, but it can be scaled or otherwise changed on its own.
      *
      * @param text           the text to use; may be multi-line, but will default to not wrapping
      * @param style          the Label.LabelStyle to use
@@ -154,7 +197,7 @@ public class TextraLabel extends Widget {
      *                       may be drawn more clearly; if false, underline/strikethrough will use underscore/dash
      */
     public TextraLabel(String text, Label.LabelStyle style, boolean makeGridGlyphs) {
-        this(text, style, new Font(style.font, Font.DistanceFieldType.STANDARD, 0, 0, 0, 0, makeGridGlyphs));
+        this(text, style, FontCache.forWidget(style.font, makeGridGlyphs));
     }
 
     /**
@@ -262,7 +305,6 @@ public class TextraLabel extends Widget {
         final float sn = MathUtils.sinDeg(rot);
         final float cs = MathUtils.cosDeg(rot);
 
-        int bgc;
         final int lines = layout.lines();
         float baseX = getX(), baseY = getY();
 
@@ -323,12 +365,79 @@ public class TextraLabel extends Widget {
         if (layout.lines.isEmpty() || parentAlpha <= 0f) return;
 
         // we only change the shader or batch color if we actually are drawing something.
-        boolean resetShader = font.distanceField != Font.DistanceFieldType.STANDARD && batch.getShader() != font.shader;
+        boolean resetShader = (font.distanceField != Font.DistanceFieldType.STANDARD || font.isUsingEffectShader()) && batch.getShader() != font.shader;
         if (resetShader)
             font.enableShader(batch);
         batch.getColor().set(getColor()).a *= parentAlpha;
         batch.setColor(batch.getColor());
 
+        if (retained) {
+            if (recording == null) recording = new RecordingBatch();
+            float[] state = currentState;
+            state[0] = baseX;
+            state[1] = baseY;
+            state[2] = rot;
+            state[3] = originX;
+            state[4] = originY;
+            state[5] = batch.getPackedColor();
+            state[6] = align;
+            state[7] = lines;
+            state[8] = layout.countGlyphs();
+            state[9] = batch.getProjectionMatrix().val[0];
+            state[10] = batch.getProjectionMatrix().val[5];
+            state[11] = Gdx.graphics.getBackBufferWidth();
+            state[12] = Gdx.graphics.getBackBufferHeight();
+            if (cullingArea == null) {
+                state[13] = state[14] = state[15] = 0f;
+                state[16] = -1f;
+            } else {
+                state[13] = cullingArea.x;
+                state[14] = cullingArea.y;
+                state[15] = cullingArea.width;
+                state[16] = cullingArea.height;
+            }
+            if (recordingValid && recordedFont == font && recordedLayout == layout
+                    && Arrays.equals(state, recordedState)) {
+                recording.replay(batch);
+            } else {
+                if (textureSorted) recording.startDeferred(batch);
+                else recording.startRecording(batch);
+                drawLines(recording, baseX, baseY);
+                recordingValid = recording.stopRecording();
+                System.arraycopy(state, 0, recordedState, 0, state.length);
+                recordedFont = font;
+                recordedLayout = layout;
+            }
+        } else if (textureSorted) {
+            if (recording == null) recording = new RecordingBatch();
+            recording.startDeferred(batch);
+            drawLines(recording, baseX, baseY);
+            recording.stopRecording();
+        } else {
+            drawLines(batch, baseX, baseY);
+        }
+
+        if (resetShader)
+            batch.setShader(null);
+    }
+
+    /**
+     * Draws each Line in {@link #layout}, starting at the given position (which already accounts for alignment and any
+     * background), using the current rotation and origin of this label.
+     *
+     * @param batch the Batch to draw with
+     * @param baseX the x position to start from, before moving down by the first line's height
+     * @param baseY the y position to start from, before moving down by the first line's height
+     */
+    protected void drawLines(Batch batch, float baseX, float baseY) {
+        final float rot = getRotation();
+        final float originX = getOriginX();
+        final float originY = getOriginY();
+        final float sn = MathUtils.sinDeg(rot);
+        final float cs = MathUtils.cosDeg(rot);
+        final int lines = layout.lines();
+        int bgc;
+
 //        baseX -= 0.5f * font.cellWidth;
 //
 //        baseX += cs * 0.5f * font.cellWidth;
@@ -345,6 +454,11 @@ public class TextraLabel extends Widget {
             baseY -= cs * glyphs.height;
             if (glyphs.glyphs.size == 0)
                 continue;
+            if (cullingArea != null && rot == 0f) {
+                int cull = cullLine(baseY, glyphs.height);
+                if (cull > 0) break;
+                if (cull < 0) continue;
+            }
 
             float x = baseX, y = baseY;
 
@@ -388,14 +502,14 @@ public class TextraLabel extends Widget {
 
                 if (f.kerning != null) {
                     kern = kern << 16 | (int) ((glyph = glyphs.glyphs.get(i)) & 0xFFFF);
-                    float amt = f.kerning.get(kern, 0) * f.scaleX * ((glyph & ALTERNATE) != 0L ? 1f : ((glyph + 0x300000L >>> 20 & 15) + 1) * 0.25f);
+                    float amt = f.getKerning(kern) * f.scaleX * ((glyph & ALTERNATE) != 0L ? 1f : ((glyph + 0x300000L >>> 20 & 15) + 1) * 0.25f);
                     xChange += cs * amt;
                     yChange += sn * amt;
                 } else {
                     kern = -1;
                 }
                 if (i == 0) {
-                    Font.GlyphRegion reg = font.mapping.get((char) glyph);
+                    Font.GlyphRegion reg = font.getGlyph((char) glyph);
                     if (reg != null && reg.offsetX < 0) {
                         float ox = reg.offsetX * f.scaleX * ((glyph & ALTERNATE) != 0L ? 1f : ((glyph + 0x300000L >>> 20 & 15) + 1) * 0.25f);
                         xChange -= cs * ox;
@@ -410,9 +524,41 @@ public class TextraLabel extends Widget {
                 yChange += sn * single;
             }
         }
+    }
 
-        if (resetShader)
-            batch.setShader(null);
+    /**
+     * Called by a {@link com.badlogic.gdx.scenes.scene2d.ui.ScrollPane} or other parent to tell this label which part
+     * of it can be seen. While this label isn't rotated, lines that are entirely outside the given area are skipped
+     * when drawing, so a very long label in a ScrollPane only costs as much to draw as its visible lines.
+     *
+     * @param cullingArea the visible area of this label, in its own coordinates, or null to draw every line
+     */
+    @Override
+    public void setCullingArea(Rectangle cullingArea) {
+        this.cullingArea = cullingArea;
+    }
+
+    /**
+     * @return the visible area of this label given to {@link #setCullingArea(Rectangle)}, or null if all is visible
+     */
+    public Rectangle getCullingArea() {
+        return cullingArea;
+    }
+
+    /**
+     * Checks whether a line is outside {@link #cullingArea}, given the y-position the line is drawn at and its height.
+     * A line's height is allowed as slack both above and below it, so descenders, effects, and outlines that go a bit
+     * past the line aren't cut off. This assumes the label isn't rotated, and that {@link #cullingArea} isn't null.
+     *
+     * @param lineY      the y-position the line is drawn at, in the same coordinates as {@link #getY()}
+     * @param lineHeight the height of the line
+     * @return negative if the line is above the culling area, positive if it is below it, or 0 if it could be visible
+     */
+    protected int cullLine(float lineY, float lineHeight) {
+        float bottom = lineY - getY();
+        if (bottom - lineHeight > cullingArea.y + cullingArea.height) return -1;
+        if (bottom + lineHeight * 2f < cullingArea.y) return 1;
+        return 0;
     }
 
     @Override
@@ -479,6 +625,7 @@ public class TextraLabel extends Widget {
 
     @Override
     public void layout() {
+        recordingValid = false;
         float width = getWidth();
         if (style != null && style.background != null) {
             width = (width - (style.background.getLeftWidth() + style.background.getRightWidth()));
@@ -512,12 +659,70 @@ public class TextraLabel extends Widget {
      */
     public void setAlignment(int alignment) {
         align = alignment;
+        recordingValid = false;
     }
 
     public Font getFont() {
         return font;
     }
 
+    /**
+     * Returns true if this label records the vertices it draws and draws them again on later frames when nothing that
+     * affects them has changed.
+     *
+     * @return whether this is in retained mode
+     * @see #setRetained(boolean)
+     */
+    public boolean isRetained() {
+        return retained;
+    }
+
+    /**
+     * Sets whether this label should record the vertices it draws and reuse them on later frames. This is a good idea
+     * for static text that is drawn every frame but rarely changes, such as most UI labels, since drawing the
+     * recorded vertices costs about as much as copying them into the Batch. The recording is redone automatically
+     * when the text, font, alignment, layout, position, rotation, origin, color, or projection changes. If you change
+     * the {@link #layout} or {@link #font} directly in another way, call {@link #invalidate()} so the recording will
+     * be redone. This has no effect on {@link TypingLabel}, which changes what it draws each frame.
+     *
+     * @param retained true to record and reuse vertices; false to calculate them every frame
+     * @return this, for chaining
+     */
+    public TextraLabel setRetained(boolean retained) {
+        this.retained = retained;
+        recordingValid = false;
+        if (!retained && recording != null) recording.clear();
+        return this;
+    }
+
+    /**
+     * Returns true if this label gathers the glyphs it draws and draws them grouped by Texture.
+     *
+     * @return whether this sorts its glyphs by Texture
+     * @see #setTextureSorted(boolean)
+     */
+    public boolean isTextureSorted() {
+        return textureSorted;
+    }
+
+    /**
+     * Sets whether this label should gather the quads it draws each frame and draw them grouped by Texture, instead of
+     * in reading order. When text mixes glyphs from several Textures, such as a Font with multiple pages, a
+     * {@link Font.FontFamily}, or emoji and icons added with {@link KnownFonts#addEmoji(Font)}, each change of Texture
+     * makes the Batch flush, and this can remove most of those flushes. Quads only move if they don't overlap anything
+     * drawn between, so backgrounds, underlines, outlines, and shadows still look the same. This costs a little extra
+     * work per glyph, so it is only worth enabling for text that actually switches Textures often. When this label is
+     * also {@link #setRetained(boolean) retained}, the sorted vertices are what get reused.
+     *
+     * @param textureSorted true to draw quads grouped by Texture; false to draw them in reading order
+     * @return this, for chaining
+     */
+    public TextraLabel setTextureSorted(boolean textureSorted) {
+        this.textureSorted = textureSorted;
+        recordingValid = false;
+        return this;
+    }
+
     /**
      * Sets the font to the specified Font and then regenerates the layout using {@link Font#regenerateLayout(Layout)}.
      * This is equivalent to calling {@link #setFont(Font, boolean)} with true for regenerate.
@@ -527,6 +732,7 @@ public class TextraLabel extends Widget {
     public void setFont(Font font) {
         if(!this.font.equals(this.font = font))
             font.regenerateLayout(layout);
+        recordingValid = false;
     }
 
     /**
@@ -539,6 +745,25 @@ public class TextraLabel extends Widget {
     public void setFont(Font font, boolean regenerate) {
         if(!this.font.equals(this.font = font) && regenerate)
             font.regenerateLayout(layout);
+        recordingValid = false;
+    }
+
+    /**
+     * Adds the given markup text to the end of this label's text. If {@link #layout} is a {@link StreamingLayout},
+     * this uses {@link Font#markupAppend(String, StreamingLayout)}, so only the new text is parsed and wrapped, and it
+     * continues in the color and style the existing text ended with; this is meant for chat and log labels that grow
+     * a message at a time. Otherwise, the new text is parsed starting from the default color and style. Unlike
+     * {@link #setText(String)}, this does not change {@link #storedText}.
+     *
+     * @param markupText a String that can contain Font markup, to add after the current text
+     */
+    public void appendText(String markupText) {
+        if (layout instanceof StreamingLayout)
+            font.markupAppend(markupText, (StreamingLayout) layout);
+        else
+            font.markup(markupText, layout);
+        recordingValid = false;
+        invalidateHierarchy();
     }
 
     /**
@@ -552,7 +777,11 @@ public class TextraLabel extends Widget {
 //            layout.setTargetWidth(getWidth());
 //        else
 //            layout.setTargetWidth(0f);
-        font.markup(markupText, layout.clear());
+        if (layoutCache != null)
+            layoutCache.markup(font, markupText, layout);
+        else
+            font.markup(markupText, layout.clear());
+        recordingValid = false;
 //        setWidth(layout.getWidth() + (style != null && style.background != null ?
 //                style.background.getLeftWidth() + style.background.getRightWidth() : 0.0f));
         invalidateHierarchy();
@@ -605,14 +834,7 @@ public class TextraLabel extends Widget {
      * @return the glyph, if it was found, or 16777215 (0xFFFFFF in hexadecimal) if the index was out of bounds
      */
     public long getGlyph(int index) {
-        for (int i = 0, n = layout.lines(); i < n && index >= 0; i++) {
-            LongArray glyphs = layout.getLine(i).glyphs;
-            if (index < glyphs.size)
-                return glyphs.get(index);
-            else
-                index -= glyphs.size;
-        }
-        return 0xFFFFFFL;
+        return layout.getGlyph(index);
     }
 
     /**
@@ -701,14 +923,8 @@ public class TextraLabel extends Widget {
      * @return the height of the Line containing the specified glyph
      */
     public float getLineHeight(int index) {
-        for (int i = 0, n = layout.lines(); i < n && index >= 0; i++) {
-            LongArray glyphs = layout.getLine(i).glyphs;
-            if (index < glyphs.size)
-                return layout.getLine(i).height;
-            else
-                index -= glyphs.size;
-        }
-        return font.cellHeight;
+        Line line = layout.getLineForGlyph(index);
+        return line == null ? font.cellHeight : line.height;
     }
 
 }
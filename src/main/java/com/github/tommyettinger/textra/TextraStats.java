@@ -0,0 +1,246 @@
+/*
+ * Copyright (c) 2023 See AUTHORS file.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.github.tommyettinger.textra;
+
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.utils.ObjectIntMap;
+import com.badlogic.gdx.utils.TimeUtils;
+
+/**
+ * Optional counters for how much work TextraTypist does, meant to be shown in a profiler overlay or logged. This is
+ * off by default; set {@link #enabled} to true to start counting. While it is false, every place that reports here
+ * only checks that boolean and does nothing else.
+ * <br>
+ * The counts accumulate until {@link #reset()} is called. To get per-frame numbers, call {@link #frame(Snapshot)}
+ * once per frame (usually at the end of render()), which copies the current counts into a Snapshot you own and then
+ * resets them. The counters are plain static fields and are not thread-safe; work done with
+ * {@link Font#markup(String, Layout, MarkupContext)} on other threads may be counted imprecisely, so only enable this
+ * while laying out text on one thread if you need exact numbers.
+ */
+public final class TextraStats {
+    /**
+     * If true, Font, TypingLabel, TextraLabel, and Parser report what they do here. Defaults to false.
+     */
+    public static boolean enabled = false;
+
+    private static final Snapshot totals = new Snapshot();
+    private static Texture lastTexture = null;
+
+    private TextraStats() {
+    }
+
+    /**
+     * Counts one glyph drawn by {@link Font#drawGlyph(com.badlogic.gdx.graphics.g2d.Batch, long, float, float, float, float, float, int)}.
+     */
+    public static void glyph() {
+        ++totals.glyphsDrawn;
+    }
+
+    /**
+     * Counts one quad drawn with the given Texture, and a texture switch if the last quad used a different Texture.
+     *
+     * @param texture the Texture the quad was drawn with
+     */
+    public static void quad(Texture texture) {
+        quads(texture, 1);
+    }
+
+    /**
+     * Counts {@code count} quads drawn in a row with the given Texture, and a texture switch if the last quad used a
+     * different Texture.
+     *
+     * @param texture the Texture the quads were drawn with
+     * @param count   how many quads were drawn
+     */
+    public static void quads(Texture texture, int count) {
+        if (texture != lastTexture) {
+            if (lastTexture != null) ++totals.textureSwitches;
+            lastTexture = texture;
+        }
+        totals.quads += count;
+        totals.quadsPerTexture.getAndIncrement(texture, 0, count);
+    }
+
+    /**
+     * Counts one call to {@link Font#markup(String, Layout, MarkupContext)} that took the given time.
+     *
+     * @param nanos how long the call took, in nanoseconds
+     */
+    public static void markup(long nanos) {
+        ++totals.markupCalls;
+        totals.markupNanos += nanos;
+    }
+
+    /**
+     * Counts one call to {@link Parser#parseTokens(TypingLabel)} that took the given time.
+     *
+     * @param nanos how long the call took, in nanoseconds
+     */
+    public static void parse(long nanos) {
+        ++totals.parseCalls;
+        totals.parseNanos += nanos;
+    }
+
+    /**
+     * Counts an Effect being applied to {@code glyphs} glyphs. Effects are grouped by {@link Effect#name}, or by class
+     * name if they weren't registered with a name.
+     *
+     * @param effect the Effect that was applied
+     * @param glyphs how many glyphs it was applied to
+     */
+    public static void effect(Effect effect, int glyphs) {
+        String name = effect.name == null ? effect.getClass().getName() : effect.name;
+        totals.effectApplications += glyphs;
+        totals.effectsByName.getAndIncrement(name, 0, glyphs);
+    }
+
+    /**
+     * Counts one call to {@link Font#regenerateLayout(Layout, int, int)}.
+     */
+    public static void regeneration() {
+        ++totals.layoutRegenerations;
+    }
+
+    /**
+     * Gets the current time in nanoseconds if {@link #enabled} is true, or 0 otherwise; used to time calls.
+     *
+     * @return {@link TimeUtils#nanoTime()} if enabled, otherwise 0
+     */
+    public static long start() {
+        return enabled ? TimeUtils.nanoTime() : 0L;
+    }
+
+    /**
+     * Copies the current counts into {@code into}, without resetting them.
+     *
+     * @param into a Snapshot that will be overwritten; if null, a new one is created
+     * @return into, or a new Snapshot if it was null
+     */
+    public static Snapshot snapshot(Snapshot into) {
+        if (into == null) into = new Snapshot();
+        return into.set(totals);
+    }
+
+    /**
+     * Sets every count to 0.
+     */
+    public static void reset() {
+        totals.clear();
+        lastTexture = null;
+    }
+
+    /**
+     * Copies the current counts into {@code into} and then resets them, so the next call gets only what happened
+     * since this one. Calling this once per frame gives per-frame counts.
+     *
+     * @param into a Snapshot that will be overwritten; if null, a new one is created
+     * @return into, or a new Snapshot if it was null
+     */
+    public static Snapshot frame(Snapshot into) {
+        into = snapshot(into);
+        reset();
+        return into;
+    }
+
+    /**
+     * A copy of the counts from {@link TextraStats} at some point in time.
+     */
+    public static class Snapshot {
+        /**
+         * How many glyphs were drawn by Font.
+         */
+        public long glyphsDrawn;
+        /**
+         * How many quads (textured rectangles) were drawn in total; one glyph can use several, such as for underline.
+         */
+        public long quads;
+        /**
+         * How many times a quad used a different Texture than the quad before it; each of these usually makes the
+         * Batch flush. Multi-page fonts, emoji atlases, and mixing fonts all cause these.
+         */
+        public long textureSwitches;
+        /**
+         * How many times Font.markup() was called, and how many nanoseconds those calls took in total.
+         */
+        public long markupCalls, markupNanos;
+        /**
+         * How many times TypingLabel tokens were parsed, and how many nanoseconds that took in total.
+         */
+        public long parseCalls, parseNanos;
+        /**
+         * How many times Font.regenerateLayout() was called.
+         */
+        public long layoutRegenerations;
+        /**
+         * How many glyphs had an Effect applied to them, counting once per Effect.
+         */
+        public long effectApplications;
+        /**
+         * How many quads were drawn with each Texture.
+         */
+        public final ObjectIntMap<Texture> quadsPerTexture = new ObjectIntMap<>();
+        /**
+         * How many glyphs each kind of Effect was applied to, by name.
+         */
+        public final ObjectIntMap<String> effectsByName = new ObjectIntMap<>();
+
+        /**
+         * Copies every count from other into this.
+         *
+         * @param other another Snapshot to copy
+         * @return this, for chaining
+         */
+        public Snapshot set(Snapshot other) {
+            glyphsDrawn = other.glyphsDrawn;
+            quads = other.quads;
+            textureSwitches = other.textureSwitches;
+            markupCalls = other.markupCalls;
+            markupNanos = other.markupNanos;
+            parseCalls = other.parseCalls;
+            parseNanos = other.parseNanos;
+            layoutRegenerations = other.layoutRegenerations;
+            effectApplications = other.effectApplications;
+            quadsPerTexture.clear();
+            quadsPerTexture.putAll(other.quadsPerTexture);
+            effectsByName.clear();
+            effectsByName.putAll(other.effectsByName);
+            return this;
+        }
+
+        /**
+         * Sets every count to 0.
+         *
+         * @return this, for chaining
+         */
+        public Snapshot clear() {
+            glyphsDrawn = quads = textureSwitches = markupCalls = markupNanos = parseCalls = parseNanos
+                    = layoutRegenerations = effectApplications = 0L;
+            quadsPerTexture.clear();
+            effectsByName.clear();
+            return this;
+        }
+
+        @Override
+        public String toString() {
+            return "glyphs=" + glyphsDrawn + ", quads=" + quads + ", textureSwitches=" + textureSwitches
+                    + ", markup=" + markupCalls + " (" + markupNanos / 1000L + "us), parse=" + parseCalls
+                    + " (" + parseNanos / 1000L + "us), regenerations=" + layoutRegenerations
+                    + ", effectApplications=" + effectApplications + ", effects=" + effectsByName;
+        }
+    }
+}
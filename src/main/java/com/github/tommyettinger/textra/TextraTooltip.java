@@ -52,8 +52,13 @@ public class TextraTooltip extends Tooltip<TextraLabel> {
         this(text, manager, skin.get(styleName, TextTooltipStyle.class));
     }
 
+    /**
+     * Creates a TextraTooltip using the given style. The Font is a copy of one converted from the style's BitmapFont by
+     * {@link FontCache#forWidget}, so it shares glyph data with other widgets using that BitmapFont, but it can be
+     * scaled or otherwise changed on its own.
+     */
     public TextraTooltip(@Null String text, final TooltipManager manager, TextTooltipStyle style) {
-        this(text, manager, style, new Font(style.label.font, Font.DistanceFieldType.STANDARD, 0, 0, 0, 0, false));
+        this(text, manager, style, FontCache.forWidget(style.label.font, false));
     }
 
     public TextraTooltip(@Null String text, Skin skin, Font replacementFont) {
@@ -109,7 +114,7 @@ public class TextraTooltip extends Tooltip<TextraLabel> {
         if (style == null) throw new NullPointerException("style cannot be null");
         Container<TextraLabel> container = getContainer();
         // we don't want to regenerate the layout yet.
-        container.getActor().setFont(new Font(style.label.font, Font.DistanceFieldType.STANDARD, 0, 0, 0, 0, makeGridGlyphs), false);
+        container.getActor().setFont(FontCache.forWidget(style.label.font, makeGridGlyphs), false);
         // we set the target width first.
         container.getActor().layout.targetWidth = style.wrapWidth;
         if (style.label.fontColor != null) container.getActor().setColor(style.label.fontColor);
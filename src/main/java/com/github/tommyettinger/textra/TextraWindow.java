@@ -69,8 +69,13 @@ public class TextraWindow extends Table {
         this(title, style, false);
     }
 
+    /**
+     * Creates a TextraWindow using the given style. The Font is a copy of one converted from the style's BitmapFont by
+     * {@link FontCache#forWidget}, so it shares glyph data with other widgets using that BitmapFont, but it can be
+     * scaled or otherwise changed on its own.
+     */
     public TextraWindow(String title, WindowStyle style, boolean makeGridGlyphs) {
-        this(title, style, new Font(style.titleFont, Font.DistanceFieldType.STANDARD, 0, 0, 0, 0, makeGridGlyphs));
+        this(title, style, FontCache.forWidget(style.titleFont, makeGridGlyphs));
     }
 
     public TextraWindow(String title, Skin skin, Font replacementFont) {
@@ -264,7 +269,7 @@ public class TextraWindow extends Table {
         this.style = style;
 
         setBackground(style.background);
-        titleLabel.setFont(font = new Font(style.titleFont, Font.DistanceFieldType.STANDARD, 0, 0, 0, 0, makeGridGlyphs));
+        titleLabel.setFont(font = FontCache.forWidget(style.titleFont, makeGridGlyphs));
         if (style.titleFontColor != null) titleLabel.setColor(style.titleFontColor);
         invalidateHierarchy();
     }
@@ -16,10 +16,22 @@
 
 package com.github.tommyettinger.textra;
 
+import com.badlogic.gdx.utils.Pool;
+
 /**
  * Container representing a token, parsed parameters and its position in text.
  */
-class TokenEntry implements Comparable<TokenEntry> {
+class TokenEntry implements Comparable<TokenEntry>, Pool.Poolable {
+    /**
+     * TokenEntry objects are only used on the thread that updates TypingLabels, so they can share one Pool.
+     */
+    static final Pool<TokenEntry> POOL = new Pool<TokenEntry>(16, 1024) {
+        @Override
+        protected TokenEntry newObject() {
+            return new TokenEntry();
+        }
+    };
+
     String token;
     TokenCategory category;
     int index;
@@ -28,13 +40,36 @@ class TokenEntry implements Comparable<TokenEntry> {
     String stringValue;
     Effect effect;
 
+    TokenEntry() {
+    }
+
     TokenEntry(String token, TokenCategory category, int index, int endIndex, float floatValue, String stringValue) {
+        set(token, category, index, endIndex, floatValue, stringValue);
+    }
+
+    /**
+     * Gets a TokenEntry from {@link #POOL} and sets its fields; free it with {@code POOL.free()} when it is used.
+     */
+    static TokenEntry obtain(String token, TokenCategory category, int index, int endIndex, float floatValue, String stringValue) {
+        return POOL.obtain().set(token, category, index, endIndex, floatValue, stringValue);
+    }
+
+    TokenEntry set(String token, TokenCategory category, int index, int endIndex, float floatValue, String stringValue) {
         this.token = token;
         this.category = category;
         this.index = index;
         this.endIndex = endIndex;
         this.floatValue = floatValue;
         this.stringValue = stringValue;
+        return this;
+    }
+
+    @Override
+    public void reset() {
+        token = null;
+        category = null;
+        stringValue = null;
+        effect = null;
     }
 
     @Override
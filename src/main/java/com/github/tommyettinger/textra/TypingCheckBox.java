@@ -41,8 +41,13 @@ public class TypingCheckBox extends TypingButton {
         this(text, skin.get(styleName, CheckBox.CheckBoxStyle.class));
     }
 
+    /**
+     * Creates a TypingCheckBox using the given style. The Font is a copy of one converted from the style's BitmapFont
+     * by {@link FontCache#forWidget}, so it shares glyph data with other widgets using that BitmapFont, but it can be
+     * scaled or otherwise changed on its own.
+     */
     public TypingCheckBox(@Null String text, CheckBox.CheckBoxStyle style) {
-        this(text, style, new Font(style.font));
+        this(text, style, FontCache.forWidget(style.font, false));
     }
 
     public TypingCheckBox(@Null String text, Skin skin, Font replacementFont) {
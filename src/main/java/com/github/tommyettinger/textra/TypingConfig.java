@@ -55,6 +55,13 @@ public class TypingConfig {
      */
     public static int CHAR_LIMIT_PER_FRAME = -1;
 
+    /**
+     * If true, {@link Parser} finds tokens with the older regular-expression-based code, which searches the text again
+     * after each token is replaced or removed. If false, tokens are found by scanning the text once. Both should
+     * produce the same results; this is mostly useful to check that they do. Default value is {@code false}.
+     */
+    public static boolean REGEX_PARSING = false;
+
     /**
      * Default color for the {@code CLEARCOLOR} token. Can be overridden by {@link TypingLabel#getClearColor()}.
      */
@@ -121,6 +128,14 @@ public class TypingConfig {
      */
     static boolean dirtyEffectMaps = true;
 
+    /**
+     * Incremented every time an effect is registered or unregistered. Each TypingLabel compares this with the value it
+     * saw last, and drops any Effects it kept for reuse when they differ, because those may have been produced by a
+     * builder that was since replaced or removed. Unlike {@link #dirtyEffectMaps}, this is never reset, so every label
+     * notices a change, not only the first one to parse its tokens afterward.
+     */
+    static int effectGeneration = 0;
+
     /**
      * Registers a new effect to TypingLabel.
      *
@@ -133,6 +148,7 @@ public class TypingConfig {
         EFFECT_START_TOKENS.put(name, b);
         EFFECT_END_TOKENS.put("END"+name, b);
         dirtyEffectMaps = true;
+        effectGeneration++;
     }
 
     /**
@@ -145,6 +161,7 @@ public class TypingConfig {
         EFFECT_START_TOKENS.remove(name);
         EFFECT_END_TOKENS.remove("END"+name);
         dirtyEffectMaps = true;
+        effectGeneration++;
     }
 
     static {
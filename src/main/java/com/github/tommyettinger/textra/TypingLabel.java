@@ -28,6 +28,7 @@ import com.badlogic.gdx.scenes.scene2d.utils.TransformDrawable;
 import com.badlogic.gdx.utils.Align;
 import com.badlogic.gdx.utils.Array;
 import com.badlogic.gdx.utils.FloatArray;
+import com.badlogic.gdx.utils.IntArray;
 import com.badlogic.gdx.utils.LongArray;
 import com.badlogic.gdx.utils.NumberUtils;
 import com.badlogic.gdx.utils.ObjectMap;
@@ -63,16 +64,35 @@ public class TypingLabel extends TextraLabel {
     protected final Layout workingLayout = new Layout();
     /**
      * Contains two floats per glyph; even items are x offsets, odd items are y offsets.
+     * Each frame, only the glyphs that an {@link Effect} was applied to during the last frame are reset to 0.
      */
     public final FloatArray offsets = new FloatArray();
     /**
      * Contains two floats per glyph, as size multipliers; even items apply to x, odd items apply to y.
+     * Each frame, only the glyphs that an {@link Effect} was applied to during the last frame are reset to 1.
      */
     public final FloatArray sizing = new FloatArray();
     /**
      * Contains one float per glyph; each is a rotation in degrees to apply to that glyph (around its center).
+     * Each frame, only the glyphs that an {@link Effect} was applied to during the last frame are reset to 0.
      */
     public final FloatArray rotations = new FloatArray();
+    /**
+     * The range of glyph indices, from inclusive start to exclusive end, that effects could have changed in
+     * {@link #offsets}, {@link #sizing}, and {@link #rotations} since they were last reset.
+     */
+    private int changedStart = 0, changedEnd = Integer.MAX_VALUE;
+    /**
+     * If true, {@link #act(float)} needs to recalculate the size of {@link #workingLayout}. This is set by the methods
+     * here that change the working layout; if you change it some other way, call {@link #invalidate()}.
+     */
+    private boolean sizeDirty = true;
+    /**
+     * What the glyph count, line count, and Font were when {@link #workingLayout} was last measured; if any of these
+     * differ, the size is recalculated even if {@link #sizeDirty} is false.
+     */
+    private int sizedGlyphs = -1, sizedLines = -1;
+    private Font sizedFont = null;
     /**
      * If true, this will attempt to track which glyph the user's mouse or other pointer is over (see {@link #overIndex}
      * and {@link #lastTouchedIndex}).
@@ -89,7 +109,7 @@ public class TypingLabel extends TextraLabel {
     public boolean selectable = false;
     /**
      * The global glyph index (as used by {@link #setInWorkingLayout(int, long)}) of the last glyph touched by the user.
-     * If nothing in this TypingLabel was touched during the last call to {@link #draw(Batch, float)}, then this will be
+     * If nothing in this TypingLabel was touched during the last call to {@link #act(float)}, then this will be
      * either -1 (if the last touch was, roughly, before the first glyph) or -2 (if the last touch was after the last
      * glyph). This only changes when a click, tap, or other touch was just issued.
      */
@@ -97,7 +117,7 @@ public class TypingLabel extends TextraLabel {
     /**
      * The global glyph index (as used by {@link #setInWorkingLayout(int, long)}) of the last glyph hovered or dragged
      * over by the user (including a click and mouse movement without a click). If nothing in this TypingLabel was moved
-     * over during the last call to {@link #draw(Batch, float)}, then this will be -1 . This changes whenever the mouse
+     * over during the last call to {@link #act(float)}, then this will be -1 . This changes whenever the mouse
      * or a pointer is over a glyph in this.
      */
     public int overIndex = -1;
@@ -116,8 +136,35 @@ public class TypingLabel extends TextraLabel {
 
     private final Vector2 temp = new Vector2(0f, 0f);
 
+    /**
+     * Where the glyphs are drawn, for {@link #glyphIndexAt(float, float)}. These are in this label's unrotated frame,
+     * relative to its position, and don't include effect offsets. For each line with glyphs, there is the global index
+     * of its first glyph and its bottom and top; for each glyph, there is its left and right edge.
+     */
+    private final IntArray hitLineStarts = new IntArray();
+    private final FloatArray hitLineBottoms = new FloatArray(), hitLineTops = new FloatArray();
+    private final FloatArray hitLefts = new FloatArray(), hitRights = new FloatArray();
+    /**
+     * If true, the hit-testing positions are rebuilt the next time {@link #glyphIndexAt(float, float)} needs them.
+     * They are also rebuilt if the revealed glyph count, size, or alignment is different from what they were built
+     * with, which is stored in the other hit fields.
+     */
+    private boolean hitDirty = true;
+    private int hitEnd = -1, hitAlign = -1;
+    private float hitWidth = -1f, hitHeight = -1f;
+
     protected boolean dragging = false;
     protected final Array<Effect> activeEffects = new Array<>(Effect.class);
+    /**
+     * Effects that finished or were left over after a restart, grouped by the effect token that produced them, so
+     * they can be {@link Effect#reset() reset} and reused when the same token with the same parameters shows up again.
+     */
+    protected final ObjectMap<String, Array<Effect>> effectPool = new ObjectMap<>();
+    /**
+     * The value of {@link TypingConfig#effectGeneration} when {@link #effectPool} was last checked; if they differ,
+     * effects were registered or unregistered since, and the pool is emptied.
+     */
+    private int effectPoolGeneration = TypingConfig.effectGeneration;
     private float textSpeed = TypingConfig.DEFAULT_SPEED_PER_CHAR;
     private float charCooldown = textSpeed;
     private int rawCharIndex = -2; // All chars, including color codes
@@ -253,6 +300,8 @@ public class TypingLabel extends TextraLabel {
             setWidth(workingLayout.getWidth() + (style != null && style.background != null ?
                     style.background.getLeftWidth() + style.background.getRightWidth() : 0.0f));
         }
+        sizeDirty = true;
+        hitDirty = true;
         if (modifyOriginalText) saveOriginalText(newText);
         if (restart) {
             this.restart();
@@ -262,6 +311,34 @@ public class TypingLabel extends TextraLabel {
         }
     }
 
+    /**
+     * Adds the given markup text to the end of the original text, without restarting the text progression. The
+     * tokens are parsed again for the whole text, and any token entries the progression has already passed are
+     * dropped, so glyphs already shown stay shown and the new text is typed after them. If this label had already
+     * ended, the progression continues with the new text, and {@link TypingListener#end()} will be called again once
+     * it reaches the new end. A TypingLabel needs all of its text to parse its tokens, so this marks up the whole
+     * text again rather than only the new part, even if {@link #layout} is a {@link StreamingLayout}.
+     *
+     * @param markupText a String that can contain Font markup and tokens, to add after the current text
+     */
+    @Override
+    public void appendText(String markupText) {
+        originalText.append(Parser.preprocess(markupText));
+        if (!parsed) return;
+        // Don't let setText() skip to the end of the new text if we had already ended.
+        ended = false;
+        parseTokens();
+        // Entries at or before rawCharIndex were already handled by processCharProgression().
+        for (int i = tokenEntries.size - 1; i >= 0; i--) {
+            TokenEntry entry = tokenEntries.get(i);
+            if (entry.index <= rawCharIndex) {
+                tokenEntries.removeIndex(i);
+                freeEffect(entry.effect);
+                TokenEntry.POOL.free(entry);
+            }
+        }
+    }
+
     /**
      * Similar to {@link Layout#toString()}, but returns the original text with all the tokens unchanged.
      */
@@ -338,6 +415,77 @@ public class TypingLabel extends TextraLabel {
         this.parsed = false;
     }
 
+    /**
+     * Gets an Effect for the given effect token and parameters, reusing one from {@link #effectPool} if one was
+     * produced for the same token and parameters before, or producing a new one with the registered
+     * {@link Effect.EffectBuilder} otherwise.
+     *
+     * @param tokenName    the name of an effect start token, as it appeared in the text
+     * @param paramsString everything after the {@code =} in the token, or null if there were no parameters
+     * @return an Effect ready to be started, or null if no effect is registered for tokenName
+     */
+    Effect obtainEffect(String tokenName, String paramsString) {
+        validateEffectPool();
+        Array<Effect> pooled = effectPool.get(tokenName);
+        if (pooled != null) {
+            for (int i = pooled.size - 1; i >= 0; i--) {
+                Effect effect = pooled.get(i);
+                if (paramsString == null ? effect.poolParams == null : paramsString.equals(effect.poolParams)) {
+                    pooled.removeIndex(i);
+                    effect.reset();
+                    return effect;
+                }
+            }
+        }
+        Effect.EffectBuilder eb = TypingConfig.EFFECT_START_TOKENS.get(tokenName.toUpperCase());
+        if (eb == null) return null;
+        Effect effect = eb.produce(this, paramsString == null ? new String[0] : paramsString.split(";"));
+        if (effect != null) {
+            effect.poolToken = tokenName;
+            effect.poolParams = paramsString;
+            effect.poolGeneration = effectPoolGeneration;
+        }
+        return effect;
+    }
+
+    /**
+     * Keeps an Effect that is no longer used so {@link #obtainEffect(String, String)} can reuse it, if its
+     * {@link Effect#reusable()} method returns true. At most 16 Effects are kept for each effect token.
+     *
+     * @param effect an Effect produced for this label that is no longer active or waiting in a token; may be null
+     */
+    void freeEffect(Effect effect) {
+        if (effect == null || effect.poolToken == null || !effect.reusable()) return;
+        validateEffectPool();
+        if (effect.poolGeneration != effectPoolGeneration) return;
+        Array<Effect> pooled = effectPool.get(effect.poolToken);
+        if (pooled == null) effectPool.put(effect.poolToken, pooled = new Array<>(false, 4, Effect.class));
+        if (pooled.size < 16) pooled.add(effect);
+    }
+
+    /**
+     * Empties {@link #effectPool} if any effect was registered or unregistered since it was last checked, so Effects
+     * produced by a builder that was replaced or removed are never reused.
+     */
+    private void validateEffectPool() {
+        if (effectPoolGeneration != TypingConfig.effectGeneration) {
+            effectPool.clear();
+            effectPoolGeneration = TypingConfig.effectGeneration;
+        }
+    }
+
+    /**
+     * Removes every entry from {@link #tokenEntries}, freeing the entries and any Effects they hold to be reused.
+     */
+    void freeTokenEntries() {
+        for (int i = 0; i < tokenEntries.size; i++) {
+            TokenEntry entry = tokenEntries.get(i);
+            freeEffect(entry.effect);
+            TokenEntry.POOL.free(entry);
+        }
+        tokenEntries.clear();
+    }
+
     /**
      * Parses all tokens of this label. Use this after setting the text and any variables that should be replaced.
      */
@@ -458,11 +606,17 @@ public class TypingLabel extends TextraLabel {
         Line first = workingLayout.lines.first();
         first.glyphs.clear();
         first.width = first.height = 0;
-        workingLayout.lines.clear();
-        workingLayout.lines.add(first);
+        workingLayout.truncateLines(1);
+        workingLayout.invalidateIndex();
         offsets.clear();
         sizing.clear();
         rotations.clear();
+        changedStart = 0;
+        changedEnd = Integer.MAX_VALUE;
+        sizeDirty = true;
+        for (int i = 0; i < activeEffects.size; i++) {
+            freeEffect(activeEffects.get(i));
+        }
         activeEffects.clear();
 
         // Reset state
@@ -483,7 +637,7 @@ public class TypingLabel extends TextraLabel {
         saveOriginalText(newText);
 
         // Parse tokens
-        tokenEntries.clear();
+        freeTokenEntries();
         parseTokens();
     }
 
@@ -547,14 +701,15 @@ public class TypingLabel extends TextraLabel {
                 processCharProgression();
             }
         }
-        font.calculateSize(workingLayout);
         int glyphCount = workingLayout.countGlyphs();
-        offsets.setSize(glyphCount + glyphCount);
-        Arrays.fill(offsets.items, 0, glyphCount + glyphCount, 0f);
-        sizing.setSize(glyphCount + glyphCount);
-        Arrays.fill(sizing.items, 0, glyphCount + glyphCount, 1f);
-        rotations.setSize(glyphCount);
-        Arrays.fill(rotations.items, 0, glyphCount, 0f);
+        if (sizeDirty || glyphCount != sizedGlyphs || workingLayout.lines() != sizedLines || font != sizedFont) {
+            measureWorkingLayout(glyphCount);
+            hitDirty = true;
+        }
+        resetTransforms(glyphCount);
+        if (trackingInput) {
+            trackInput();
+        }
 
         // Apply effects
         if (!ignoringEffects) {
@@ -567,20 +722,228 @@ public class TypingLabel extends TextraLabel {
 
                 // If effect is finished, remove it
                 if (effect.isFinished()) {
-                    activeEffects.removeIndex(i);
+                    freeEffect(activeEffects.removeIndex(i));
                     continue;
                 }
 
-                // Apply effect to glyph
-                for (int j = Math.max(0, start); j <= glyphCharIndex && j <= end && j < glyphCount; j++) {
-                    long glyph = getInLayout(workingLayout, j);
-                    if (glyph == 0xFFFFFFL) break; // invalid char
-                    effect.apply(glyph, j, delta);
+                // Apply effect to glyph, and remember which glyphs need resetting next time
+                int first = Math.max(0, start), last = Math.min(Math.min(glyphCharIndex, end), glyphCount - 1);
+                if (first <= last) {
+                    changedStart = Math.min(changedStart, first);
+                    changedEnd = Math.max(changedEnd, last + 1);
+                    effect.applyRange(first, last, delta);
+                    if (TextraStats.enabled) TextraStats.effect(effect, last - first + 1);
+                }
+            }
+        }
+    }
+
+    /**
+     * Calculates the size of {@link #workingLayout} and remembers what it was measured with.
+     * @param glyphCount how many glyphs are in {@link #workingLayout}
+     */
+    private void measureWorkingLayout(int glyphCount) {
+        font.calculateSize(workingLayout);
+        sizeDirty = false;
+        sizedGlyphs = glyphCount;
+        sizedLines = workingLayout.lines();
+        sizedFont = font;
+    }
+
+    /**
+     * Finds which glyph the pointer is over and updates {@link #overIndex}, {@link #lastTouchedIndex}, and the
+     * selection, using {@link #glyphIndexAt(float, float)}.
+     */
+    private void trackInput() {
+        if(hasParent())
+            getParent().screenToLocalCoordinates(temp.set(Gdx.input.getX(), Gdx.input.getY()));
+        else {
+            // I have no idea why the y has to be flipped here, but not above.
+            screenToLocalCoordinates(temp.set(Gdx.input.getX(), Gdx.graphics.getHeight() - Gdx.input.getY()));
+        }
+        float inX = temp.x, inY = temp.y;
+
+        if(!Gdx.input.isTouched())
+            lastTouchedIndex = inY < getY() ? -2 : inY > getY() + getHeight() ? -1 :
+                    inX < getX() ? -1 : inX > getX() + getWidth() ? -2 : -1;
+        overIndex = glyphIndexAt(inX, inY);
+        if (overIndex < 0 || !isTouchable()) return;
+        if (Gdx.input.justTouched()) {
+            lastTouchedIndex = overIndex;
+            selectionStart = -1;
+            selectionEnd = -1;
+        }
+        else if(selectable) {
+            if (Gdx.input.isTouched()) {
+                int adjustedIndex = (lastTouchedIndex == -2) ? workingLayout.countGlyphs() : lastTouchedIndex;
+                selectionStart = Math.min(adjustedIndex, overIndex);
+                selectionEnd = Math.max(adjustedIndex, overIndex);
+                dragging = true;
+            } else if(dragging){
+                dragging = false;
+                if(selectionStart != selectionEnd){
+                    triggerEvent("*SELECTED", true);
+                }
+                else {
+                    selectionStart = selectionEnd = -1;
+                }
+            }
+        }
+    }
+
+    /**
+     * Gets the global glyph index (as used by {@link #setInWorkingLayout(int, long)}) of the glyph at the given
+     * position, or -1 if there is no glyph there. The position is in the same coordinates as {@link #getX()} and
+     * {@link #getY()}, and this label's rotation is taken into account. Only glyphs that have been revealed so far can
+     * be found. The position of each line and glyph is calculated from {@link #workingLayout} the first time this is
+     * called after the layout, revealed glyphs, size, or alignment change, and kept until then. It finds the line with
+     * a binary search on line bottoms, then the glyph with a binary search on left edges, so it doesn't check every
+     * glyph.
+     * Effect offsets are not considered, so a glyph that an effect has moved is found where it would be without it.
+     *
+     * @param x the x-position to check, in the parent's coordinates
+     * @param y the y-position to check, in the parent's coordinates
+     * @return the global index of the glyph at that position, or -1 if there isn't one
+     */
+    public int glyphIndexAt(float x, float y) {
+        if (hitDirty || hitEnd != glyphCharIndex || hitAlign != align || hitWidth != getWidth() || hitHeight != getHeight())
+            buildHitIndex();
+        final int lines = hitLineStarts.size;
+        if (lines == 0) return -1;
+        final float originX = getOriginX(), originY = getOriginY();
+        final float rot = getRotation();
+        final float sn = MathUtils.sinDeg(rot), cs = MathUtils.cosDeg(rot);
+        final float dx = x - getX() - originX, dy = y - getY() - originY;
+        final float ux = cs * dx + sn * dy + originX, uy = cs * dy - sn * dx + originY;
+
+        // Lines go from top to bottom, so their bottoms descend; find the first line with a bottom at or below uy.
+        final float[] bottoms = hitLineBottoms.items;
+        int lo = 0, hi = lines - 1, ln = -1;
+        while (lo <= hi) {
+            int mid = lo + hi >>> 1;
+            if (bottoms[mid] <= uy) {
+                ln = mid;
+                hi = mid - 1;
+            } else lo = mid + 1;
+        }
+        if (ln < 0 || uy > hitLineTops.items[ln]) return -1;
+
+        // Find the last glyph in that line with a left edge at or before ux.
+        final float[] lefts = hitLefts.items;
+        int g = -1;
+        lo = hitLineStarts.items[ln];
+        hi = (ln + 1 < lines ? hitLineStarts.items[ln + 1] : hitLefts.size) - 1;
+        while (lo <= hi) {
+            int mid = lo + hi >>> 1;
+            if (lefts[mid] <= ux) {
+                g = mid;
+                lo = mid + 1;
+            } else hi = mid - 1;
+        }
+        if (g < 0 || ux > hitRights.items[g]) return -1;
+        return g;
+    }
+
+    /**
+     * Calculates where each revealed glyph is drawn, for {@link #glyphIndexAt(float, float)}. This follows the same
+     * steps as {@link #draw(Batch, float)}, but without rotation, relative to this label's position, and without
+     * drawing anything or considering effect offsets.
+     */
+    private void buildHitIndex() {
+        hitLineStarts.clear();
+        hitLineBottoms.clear();
+        hitLineTops.clear();
+        hitLefts.clear();
+        hitRights.clear();
+        hitDirty = false;
+        hitEnd = glyphCharIndex;
+        hitAlign = align;
+        hitWidth = getWidth();
+        hitHeight = getHeight();
+        if (layout.lines.isEmpty()) return;
+
+        float baseX = 0f, baseY = 0f;
+        float height = workingLayout.getHeight();
+        if (Align.isBottom(align)) baseY += height;
+        else if (Align.isCenterVertical(align)) baseY += height * 0.5f;
+        if (Align.isRight(align)) baseX += hitWidth;
+        else if (Align.isCenterHorizontal(align)) baseX += hitWidth * 0.5f;
+        if (Align.isTop(align)) baseY += hitHeight;
+        else if (Align.isCenterVertical(align)) baseY += hitHeight * 0.5f;
+        if (style != null && style.background != null) {
+            Drawable background = style.background;
+            if (Align.isLeft(align)) baseX += background.getLeftWidth();
+            else if (Align.isRight(align)) baseX -= background.getRightWidth();
+            else baseX += (background.getLeftWidth() - background.getRightWidth()) * 0.5f;
+            if (Align.isBottom(align)) baseY += background.getBottomHeight();
+            else if (Align.isTop(align)) baseY -= background.getTopHeight();
+            else baseY += (background.getBottomHeight() - background.getTopHeight()) * 0.5f;
+        }
+
+        int gi = 0;
+        EACH_LINE:
+        for (int ln = 0, lines = workingLayout.lines(); ln < lines; ln++) {
+            Line line = workingLayout.getLine(ln);
+            baseY -= line.height;
+            if (line.glyphs.size == 0) continue;
+            float x = baseX, y = baseY, xChange = 0f;
+            if (Align.isCenterHorizontal(align)) x -= line.width * 0.5f;
+            else if (Align.isRight(align)) x -= line.width;
+            Font f = null;
+            int kern = -1;
+            for (int i = 0, n = line.glyphs.size; i < n; i++, gi++) {
+                if (gi > glyphCharIndex) break EACH_LINE;
+                long glyph = line.glyphs.get(i);
+                if (font.family != null) f = font.family.connected[(int) (glyph >>> 16 & 15)];
+                if (f == null) f = font;
+                if (i == 0) y -= f.descent * f.scaleY - 0.5f * f.cellHeight;
+                if (f.kerning != null) {
+                    kern = kern << 16 | (int) (glyph & 0xFFFF);
+                    xChange += f.getKerning(kern) * f.scaleX * ((glyph & ALTERNATE) != 0L ? 1f : ((glyph + 0x300000L >>> 20 & 15) + 1) * 0.25f);
+                } else {
+                    kern = -1;
+                }
+                if (i == 0) {
+                    Font.GlyphRegion reg = font.getGlyph((char) glyph);
+                    if (reg != null && reg.offsetX < 0)
+                        xChange -= reg.offsetX * f.scaleX * ((glyph & ALTERNATE) != 0L ? 1f : ((glyph + 0x300000L >>> 20 & 15) + 1) * 0.25f);
+                    hitLineStarts.add(gi);
+                    hitLineBottoms.add(y - line.height * 0.5f);
+                    hitLineTops.add(y + line.height * 0.5f);
                 }
+                float single = f.drawnWidth(glyph);
+                hitLefts.add(x + xChange);
+                hitRights.add(x + xChange + single);
+                xChange += single;
             }
         }
     }
 
+    /**
+     * Sizes {@link #offsets}, {@link #sizing}, and {@link #rotations} for {@code glyphCount} glyphs, and resets only
+     * the items that effects could have changed, plus any that were just added, instead of refilling all of them.
+     * @param glyphCount how many glyphs are in {@link #workingLayout}
+     */
+    private void resetTransforms(int glyphCount) {
+        int oldCount = Math.min(rotations.size, Math.min(offsets.size, sizing.size) >> 1);
+        offsets.setSize(glyphCount + glyphCount);
+        sizing.setSize(glyphCount + glyphCount);
+        rotations.setSize(glyphCount);
+        int start = Math.min(changedStart, oldCount), end = Math.min(changedEnd, oldCount);
+        if (start < end) {
+            Arrays.fill(offsets.items, start + start, end + end, 0f);
+            Arrays.fill(sizing.items, start + start, end + end, 1f);
+            Arrays.fill(rotations.items, start, end, 0f);
+        }
+        if (oldCount < glyphCount) {
+            Arrays.fill(offsets.items, oldCount + oldCount, glyphCount + glyphCount, 0f);
+            Arrays.fill(sizing.items, oldCount + oldCount, glyphCount + glyphCount, 1f);
+            Arrays.fill(rotations.items, oldCount, glyphCount, 0f);
+        }
+        changedStart = Integer.MAX_VALUE;
+        changedEnd = 0;
+    }
+
     /**
      * Returns a seeded random float between -2.4f and -0.4f. This is meant to be used to randomize the typing
      * speed-ups and slow-downs for natural typing, when the NATURAL tag is used. It returns a negative value because
@@ -643,19 +1006,23 @@ public class TypingLabel extends TextraLabel {
                 TokenEntry entry = tokenEntries.pop();
                 String token = entry.token;
                 TokenCategory category = entry.category;
+                float floatValue = entry.floatValue;
+                String stringValue = entry.stringValue;
+                Effect entryEffect = entry.effect;
                 rawCharIndex = entry.endIndex - 1;
+                TokenEntry.POOL.free(entry);
                 // Process tokens
                 switch (category) {
                     case SPEED: {
-                        textSpeed = entry.floatValue;
+                        textSpeed = floatValue;
                         continue;
                     }
                     case WAIT: {
-                        charCooldown += entry.floatValue;
+                        charCooldown += floatValue;
                         continue;
                     }
                     case EVENT: {
-                        triggerEvent(entry.stringValue, false);
+                        triggerEvent(stringValue, false);
                         continue;
                     }
                     case EFFECT_START:
@@ -675,9 +1042,9 @@ public class TypingLabel extends TextraLabel {
                         }
 
                         // Create new effect if necessary
-                        if (isStart) {
-                            entry.effect.indexStart = glyphCharIndex + 1;
-                            activeEffects.add(entry.effect);
+                        if (isStart && entryEffect != null) {
+                            entryEffect.indexStart = glyphCharIndex + 1;
+                            activeEffects.add(entryEffect);
                         }
                         continue;
                     }
@@ -737,7 +1104,7 @@ public class TypingLabel extends TextraLabel {
                 workingLayout.setTargetWidth(actualWidth);
 //            font.regenerateLayout(workingLayout);
         }
-        font.calculateSize(workingLayout);
+        measureWorkingLayout(workingLayout.countGlyphs());
 
 
         invalidateHierarchy();
@@ -766,7 +1133,7 @@ public class TypingLabel extends TextraLabel {
         }
         if (wrap && changed) {
             workingLayout.setTargetWidth(width);
-            font.calculateSize(workingLayout);
+            measureWorkingLayout(workingLayout.countGlyphs());
             invalidateHierarchy();
         }
     }
@@ -797,6 +1164,7 @@ public class TypingLabel extends TextraLabel {
 
     @Override
     public void layout() {
+        sizeDirty = true;
         float width = getWidth();
         if (style != null && style.background != null) {
             width = (width - (style.background.getLeftWidth() + style.background.getRightWidth()));
@@ -893,7 +1261,7 @@ public class TypingLabel extends TextraLabel {
 //        baseY += workingLayout.lines.first().height * 0.25f;
 
         int o = 0, s = 0, r = 0, gi = 0;
-        boolean resetShader = font.distanceField != Font.DistanceFieldType.STANDARD && batch.getShader() != font.shader;
+        boolean resetShader = (font.distanceField != Font.DistanceFieldType.STANDARD || font.isUsingEffectShader()) && batch.getShader() != font.shader;
         if (resetShader)
             font.enableShader(batch);
         batch.getColor().set(getColor()).a *= parentAlpha;
@@ -908,24 +1276,11 @@ public class TypingLabel extends TextraLabel {
 
         int globalIndex = -1;
 
-        float inX = 0, inY = 0;
-        if(trackingInput) {
-            if(hasParent())
-                getParent().screenToLocalCoordinates(temp.set(Gdx.input.getX(), Gdx.input.getY()));
-            else {
-                // I have no idea why the y has to be flipped here, but not above.
-                screenToLocalCoordinates(temp.set(Gdx.input.getX(), Gdx.graphics.getHeight() - Gdx.input.getY()));
-            }
-            // this is what we had before, but it crashes if the TypingLabel isn't in a Stage.
-//            getParent().stageToLocalCoordinates(getStage().screenToStageCoordinates(temp.set(Gdx.input.getX(), Gdx.input.getY())));
-
-            inX = temp.x;
-            inY = temp.y;
-
-            if(!Gdx.input.isTouched())
-                lastTouchedIndex = inY < getY() ? -2 : inY > getY() + getHeight() ? -1 :
-                        inX < getX() ? -1 : inX > getX() + getWidth() ? -2 : -1;
-            overIndex = -1;
+        final Batch target = batch;
+        if (textureSorted) {
+            if (recording == null) recording = new RecordingBatch();
+            recording.startDeferred(target);
+            batch = recording;
         }
 
         float single = 0;
@@ -938,6 +1293,21 @@ public class TypingLabel extends TextraLabel {
             baseY -= cs * glyphs.height;
             if(glyphs.glyphs.size == 0)
                 continue;
+            if (cullingArea != null && rot == 0f) {
+                int cull = cullLine(baseY, glyphs.height);
+                if (cull > 0) break;
+                if (cull < 0) {
+                    // skip this line's glyphs, but keep the per-glyph effect data lined up with later lines
+                    int n = glyphs.glyphs.size;
+                    o += n << 1;
+                    s += n << 1;
+                    r += n;
+                    gi += n;
+                    globalIndex += n;
+                    if (gi > glyphCharIndex) break;
+                    continue;
+                }
+            }
 
             float x = baseX, y = baseY;
 
@@ -981,14 +1351,14 @@ public class TypingLabel extends TextraLabel {
 
                 if (f.kerning != null) {
                     kern = kern << 16 | (int) ((glyph = glyphs.glyphs.get(i)) & 0xFFFF);
-                    float amt = f.kerning.get(kern, 0) * f.scaleX * ((glyph & ALTERNATE) != 0L ? 1f : ((glyph + 0x300000L >>> 20 & 15) + 1) * 0.25f);
+                    float amt = f.getKerning(kern) * f.scaleX * ((glyph & ALTERNATE) != 0L ? 1f : ((glyph + 0x300000L >>> 20 & 15) + 1) * 0.25f);
                     xChange += cs * amt;
                     yChange += sn * amt;
                 } else {
                     kern = -1;
                 }
                 if(i == 0) {
-                    Font.GlyphRegion reg = font.mapping.get((char) glyph);
+                    Font.GlyphRegion reg = font.getGlyph((char) glyph);
                     if (reg != null && reg.offsetX < 0) {
                         float ox = reg.offsetX * f.scaleX * ((glyph & ALTERNATE) != 0L ? 1f : ((glyph + 0x300000L >>> 20 & 15) + 1) * 0.25f);
                         xChange -= cs * ox;
@@ -1002,39 +1372,15 @@ public class TypingLabel extends TextraLabel {
                     bgc = 0;
                 float xx = x + xChange + offsets.get(o++), yy = y + yChange + offsets.get(o++);
                 single = f.drawGlyph(batch, glyph, xx, yy, rotations.get(r++) + rot, sizing.get(s++), sizing.get(s++), bgc);
-                if(trackingInput){
-                    if(xx <= inX && inX <= xx + single && yy - glyphs.height * 0.5f <= inY && inY <= yy + glyphs.height * 0.5f) {
-                        overIndex = globalIndex;
-                        if (isTouchable()) {
-                            if (Gdx.input.justTouched()) {
-                                lastTouchedIndex = globalIndex;
-                                selectionStart = -1;
-                                selectionEnd = -1;
-                            }
-                            else if(selectable) {
-                                if (Gdx.input.isTouched()) {
-                                    int adjustedIndex = (lastTouchedIndex == -2) ? workingLayout.countGlyphs() : lastTouchedIndex;
-                                    selectionStart = Math.min(adjustedIndex, globalIndex);
-                                    selectionEnd = Math.max(adjustedIndex, globalIndex);
-                                    dragging = true;
-                                } else if(dragging){
-                                    dragging = false;
-                                    if(selectionStart != selectionEnd){
-                                        triggerEvent("*SELECTED", true);
-                                    }
-                                    else {
-                                        selectionStart = selectionEnd = -1;
-                                    }
-                                }
-                            }
-                        }
-                    }
-                }
                 xChange += cs * single;
                 yChange += sn * single;
             }
 
         }
+        if (textureSorted) {
+            recording.stopRecording();
+            batch = target;
+        }
         invalidateHierarchy();
 //        addMissingGlyphs();
         if (resetShader)
@@ -1087,25 +1433,11 @@ public class TypingLabel extends TextraLabel {
     }
 
     public long getInLayout(Layout layout, int index) {
-        for (int i = 0, n = layout.lines(); i < n && index >= 0; i++) {
-            LongArray glyphs = layout.getLine(i).glyphs;
-            if (index < glyphs.size)
-                return glyphs.get(index);
-            else
-                index -= glyphs.size;
-        }
-        return 0xFFFFFFL;
+        return layout.getGlyph(index);
     }
 
     public long getInWorkingLayout(int index) {
-        for (int i = 0, n = workingLayout.lines(); i < n && index >= 0; i++) {
-            LongArray glyphs = workingLayout.getLine(i).glyphs;
-            if (index < glyphs.size)
-                return glyphs.get(index);
-            else
-                index -= glyphs.size;
-        }
-        return 0xFFFFFFL;
+        return workingLayout.getGlyph(index);
     }
 
     /**
@@ -1200,14 +1532,7 @@ public class TypingLabel extends TextraLabel {
     }
 
     public Line getLineInLayout(Layout layout, int index) {
-        for (int i = 0, n = layout.lines(); i < n && index >= 0; i++) {
-            LongArray glyphs = layout.getLine(i).glyphs;
-            if (index < glyphs.size)
-                return layout.getLine(i);
-            else
-                index -= glyphs.size;
-        }
-        return null;
+        return layout.getLineForGlyph(index);
     }
     /**
      * Gets the height of the Line containing the glyph at the given index, in the working layout. If the index is out
@@ -1216,14 +1541,8 @@ public class TypingLabel extends TextraLabel {
      * @return the height of the Line containing the specified glyph
      */
     public float getLineHeight(int index) {
-        for (int i = 0, n = workingLayout.lines(); i < n && index >= 0; i++) {
-            LongArray glyphs = workingLayout.getLine(i).glyphs;
-            if (index < glyphs.size)
-                return workingLayout.getLine(i).height;
-            else
-                index -= glyphs.size;
-        }
-        return font.cellHeight;
+        Line line = workingLayout.getLineForGlyph(index);
+        return line == null ? font.cellHeight : line.height;
     }
 
     public long getFromIntermediate(int index) {
@@ -1232,14 +1551,8 @@ public class TypingLabel extends TextraLabel {
     }
 
     public void setInLayout(Layout layout, int index, long newGlyph) {
-        for (int i = 0, n = layout.lines(); i < n && index >= 0; i++) {
-            LongArray glyphs = layout.getLine(i).glyphs;
-            if (index < glyphs.size) {
-                glyphs.set(index, newGlyph);
-                return;
-            } else
-                index -= glyphs.size;
-        }
+        if (layout == workingLayout) setInWorkingLayout(index, newGlyph);
+        else layout.setGlyph(index, newGlyph);
     }
 
     public void insertInLayout(Layout layout, int index, long newGlyph) {
@@ -1247,6 +1560,7 @@ public class TypingLabel extends TextraLabel {
             LongArray glyphs = layout.getLine(i).glyphs;
             if (index <= glyphs.size) {
                 glyphs.insert(index, newGlyph);
+                layout.invalidateIndex();
                 return;
             } else
                 index -= glyphs.size;
@@ -1262,6 +1576,7 @@ public class TypingLabel extends TextraLabel {
                 for (int j = 0; j < text.length(); j++) {
                     glyphs.insert(index + j, current | text.charAt(j));
                 }
+                layout.invalidateIndex();
                 return;
             } else if (index == glyphs.size) { // appending to a line
                 if(index != 0)
@@ -1269,6 +1584,7 @@ public class TypingLabel extends TextraLabel {
                 for (int j = 0; j < text.length(); j++) {
                     glyphs.insert(index + j, current | text.charAt(j));
                 }
+                layout.invalidateIndex();
                 return;
             } else {
                 index -= glyphs.size;
@@ -1277,14 +1593,9 @@ public class TypingLabel extends TextraLabel {
     }
 
     public void setInWorkingLayout(int index, long newGlyph) {
-        for (int i = 0, n = workingLayout.lines(); i < n && index >= 0; i++) {
-            LongArray glyphs = workingLayout.getLine(i).glyphs;
-            if (i < workingLayout.lines() && index < glyphs.size) {
-                glyphs.set(index, newGlyph);
-                return;
-            } else
-                index -= glyphs.size;
-        }
+        // Only the color can change without affecting the size.
+        if (((workingLayout.getGlyph(index) ^ newGlyph) & 0xFFFFFFFFL) != 0L) sizeDirty = true;
+        workingLayout.setGlyph(index, newGlyph);
     }
 
     /**
@@ -119,7 +119,7 @@ public class TypingTooltip extends Tooltip<TypingLabel> {
     public void setStyle(TextTooltipStyle style, boolean makeGridGlyphs) {
         if (style == null) throw new NullPointerException("style cannot be null");
         Container<TypingLabel> container = getContainer();
-        container.getActor().setFont(new Font(style.label.font, Font.DistanceFieldType.STANDARD, 0, 0, 0, 0, makeGridGlyphs), false);
+        container.getActor().setFont(FontCache.forWidget(style.label.font, makeGridGlyphs), false);
         container.getActor().layout.targetWidth = style.wrapWidth;
         if (style.label.fontColor != null) container.getActor().setColor(style.label.fontColor);
         container.getActor().getFont().regenerateLayout(container.getActor().layout);
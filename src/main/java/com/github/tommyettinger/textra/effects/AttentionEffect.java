@@ -42,6 +42,11 @@ public class AttentionEffect extends Effect {
         }
     }
 
+    @Override
+    public boolean reusable() {
+        return true;
+    }
+
     @Override
     protected void onApply(long glyph, int localIndex, int globalIndex, float delta) {
         int distance = Math.abs(globalIndex - label.overIndex);
@@ -50,4 +55,16 @@ public class AttentionEffect extends Effect {
         }
     }
 
+    @Override
+    public void applyRange(int start, int end, float delta) {
+        int over = label.overIndex;
+        if (over < 0 || spread < 0) return;
+        float[] sizing = label.sizing.items;
+        int reach = (int) spread;
+        for (int i = Math.max(start, over - reach), n = Math.min(end, over + reach); i <= n; i++) {
+            int distance = Math.abs(i - over);
+            sizing[i << 1 | 1] += (sizeY - 1f) * MathUtils.cosDeg((90f * distance) / spread);
+        }
+    }
+
 }
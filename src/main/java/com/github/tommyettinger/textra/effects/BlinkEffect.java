@@ -68,6 +68,11 @@ public class BlinkEffect extends Effect {
         this.alpha2 = MathUtils.clamp(this.alpha2, 0f, 1f);
     }
 
+    @Override
+    public boolean reusable() {
+        return true;
+    }
+
     @Override
     protected void onApply(long glyph, int localIndex, int globalIndex, float delta) {
         // Calculate progress
@@ -91,4 +96,26 @@ public class BlinkEffect extends Effect {
         }
     }
 
+    @Override
+    public void applyRange(int start, int end, float delta) {
+        // Calculate progress
+        float frequencyMod = (1f / frequency) * DEFAULT_FREQUENCY;
+        float progress = calculateProgress(frequencyMod);
+
+        // Choose the color or alpha to assign
+        long keep, color;
+        if (progress <= threshold) {
+            keep = color1 == 256 ? 0xFFFFFF00FFFFFFFFL : 0xFFFFFFFFL;
+            color = color1 == 256 ? (long) (alpha1 * 255) << 32 : (long) color1 << 32;
+        } else {
+            keep = color1 == 256 ? 0xFFFFFF00FFFFFFFFL : 0xFFFFFFFFL;
+            color = color1 == 256 ? (long) (alpha2 * 255) << 32 : (long) color2 << 32;
+        }
+        for (int i = start; i <= end; i++) {
+            long glyph = label.getInWorkingLayout(i);
+            if (glyph == 0xFFFFFFL) break;
+            label.setInWorkingLayout(i, (glyph & keep) | color);
+        }
+    }
+
 }
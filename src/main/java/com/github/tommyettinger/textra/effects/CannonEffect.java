@@ -73,6 +73,18 @@ public class CannonEffect extends Effect {
 
     }
 
+    @Override
+    public void reset() {
+        super.reset();
+        lastOffsets.clear();
+        timePassedByGlyphIndex.clear();
+    }
+
+    @Override
+    public boolean reusable() {
+        return true;
+    }
+
     @Override
     protected void onApply(long glyph, int localIndex, int globalIndex, float delta) {
         // Calculate real intensity
@@ -135,4 +147,49 @@ public class CannonEffect extends Effect {
         }
     }
 
+    @Override
+    public void applyRange(int start, int end, float delta) {
+        float realIntensity = intensity * DEFAULT_INTENSITY;
+        float normalIntensity = MathUtils.clamp(shakePower * DEFAULT_POWER, 0, 1);
+        float[] offsets = label.offsets.items, sizing = label.sizing.items;
+        for (int i = start; i <= end; i++) {
+            int localIndex = i - indexStart;
+
+            // Calculate progress
+            float timePassed = timePassedByGlyphIndex.getAndIncrement(localIndex, 0, delta);
+            float progress = MathUtils.clamp(timePassed / realIntensity, 0, 1);
+            progress = (float) Math.sqrt(progress);
+            float shakeProgress = progress >= 0.9f && shakeDuration != 0f ? MathUtils.clamp((timePassed / realIntensity - 1f) / shakeDuration, 0f, 1f) : 0f;
+
+            if (shakeProgress == 0f) {
+                float interpolatedValue = Interpolation.sine.apply(distance * DEFAULT_DISTANCE, 0f, progress);
+                float arcHeight = MathUtils.sin(MathUtils.PI * progress) * label.getLineHeight(i) * height * DEFAULT_HEIGHT;
+                sizing[i << 1] += interpolatedValue;
+                sizing[i << 1 | 1] += interpolatedValue;
+                offsets[i << 1 | 1] += arcHeight;
+            } else {
+                if (localIndex >= lastOffsets.size / 2) {
+                    lastOffsets.setSize(lastOffsets.size + 16);
+                }
+                float lastX = lastOffsets.get(localIndex * 2);
+                float lastY = lastOffsets.get(localIndex * 2 + 1);
+
+                float lineHeight = label.getLineHeight(i);
+                float x = lineHeight * distance * MathUtils.random(-0.125f, 0.125f);
+                float y = lineHeight * distance * MathUtils.random(-0.125f, 0.125f);
+                x = Interpolation.linear.apply(lastX, x, normalIntensity);
+                y = Interpolation.linear.apply(lastY, y, normalIntensity);
+
+                float fadeout = 1f - Interpolation.sineOut.apply(shakeProgress);
+                x = MathUtils.round(x * fadeout);
+                y = MathUtils.round(y * fadeout);
+
+                lastOffsets.set(localIndex * 2, x);
+                lastOffsets.set(localIndex * 2 + 1, y);
+                offsets[i << 1] += x;
+                offsets[i << 1 | 1] += y;
+            }
+        }
+    }
+
 }
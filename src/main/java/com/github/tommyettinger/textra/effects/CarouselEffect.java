@@ -45,6 +45,17 @@ public class CarouselEffect extends Effect {
         }
     }
 
+    @Override
+    public void reset() {
+        super.reset();
+        timePassedByGlyphIndex.clear();
+    }
+
+    @Override
+    public boolean reusable() {
+        return true;
+    }
+
     @Override
     protected void onApply(long glyph, int localIndex, int globalIndex, float delta) {
         float timePassed = timePassedByGlyphIndex.getAndIncrement(localIndex, 0, delta) - delta;
@@ -62,7 +73,22 @@ public class CarouselEffect extends Effect {
 
         // Apply changes
         label.sizing.incr(globalIndex << 1, s - 1.0f);
-        label.offsets.incr(globalIndex << 1, font.mapping.get((char) glyph, font.defaultValue).xAdvance * (0.125f * s));
+        label.offsets.incr(globalIndex << 1, font.getGlyph((char) glyph, font.defaultValue).xAdvance * (0.125f * s));
+    }
+
+    @Override
+    public void applyRange(int start, int end, float delta) {
+        Font font = label.getFont();
+        float[] offsets = label.offsets.items, sizing = label.sizing.items;
+        for (int i = start; i <= end; i++) {
+            long glyph = label.getInWorkingLayout(i);
+            if (glyph == 0xFFFFFFL) break;
+            float timePassed = timePassedByGlyphIndex.getAndIncrement(i - indexStart, 0, delta) - delta;
+            if(timePassed >= duration) timePassed = 0f;
+            float s = MathUtils.sinDeg(timePassed * 360.0f * frequency * DEFAULT_FREQUENCY);
+            sizing[i << 1] += s - 1.0f;
+            offsets[i << 1] += font.getGlyph((char) glyph, font.defaultValue).xAdvance * (0.125f * s);
+        }
     }
 
 }
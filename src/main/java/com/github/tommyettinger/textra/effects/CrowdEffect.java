@@ -50,6 +50,11 @@ public class CrowdEffect extends Effect {
         }
     }
 
+    @Override
+    public boolean reusable() {
+        return true;
+    }
+
     @Override
     protected void onApply(long glyph, int localIndex, int globalIndex, float delta) {
         // Calculate offset
@@ -63,4 +68,14 @@ public class CrowdEffect extends Effect {
         label.rotations.incr(globalIndex, rot);
     }
 
+    @Override
+    public void applyRange(int start, int end, float delta) {
+        float time = (TimeUtils.millis() & 0xFFFFFF) * intensity * DEFAULT_INTENSITY;
+        float fadeout = calculateFadeout();
+        float[] rotations = label.rotations.items;
+        for (int i = start; i <= end; i++) {
+            rotations[i] += NoiseUtils.octaveNoise1D(time + i * 0.42f, i) * distance * DEFAULT_DISTANCE * fadeout;
+        }
+    }
+
 }
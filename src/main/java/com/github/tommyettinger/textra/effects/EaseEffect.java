@@ -54,6 +54,17 @@ public class EaseEffect extends Effect {
         }
     }
 
+    @Override
+    public void reset() {
+        super.reset();
+        timePassedByGlyphIndex.clear();
+    }
+
+    @Override
+    public boolean reusable() {
+        return true;
+    }
+
     @Override
     protected void onApply(long glyph, int localIndex, int globalIndex, float delta) {
         // Calculate real intensity
@@ -71,4 +82,16 @@ public class EaseEffect extends Effect {
         label.offsets.incr(globalIndex << 1 | 1, y);
     }
 
+    @Override
+    public void applyRange(int start, int end, float delta) {
+        float realIntensity = intensity * (elastic ? 3f : 1f) * DEFAULT_INTENSITY;
+        Interpolation interpolation = elastic ? Interpolation.swingOut : Interpolation.sine;
+        float[] offsets = label.offsets.items;
+        for (int i = start; i <= end; i++) {
+            float timePassed = timePassedByGlyphIndex.getAndIncrement(i - indexStart, 0, delta);
+            float progress = MathUtils.clamp(timePassed / realIntensity, 0, 1);
+            offsets[i << 1 | 1] += label.getLineHeight(i) * distance * interpolation.apply(1, 0, progress) * DEFAULT_DISTANCE;
+        }
+    }
+
 }
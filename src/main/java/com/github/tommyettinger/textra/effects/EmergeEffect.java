@@ -47,6 +47,17 @@ public class EmergeEffect extends Effect {
         }
     }
 
+    @Override
+    public void reset() {
+        super.reset();
+        timePassedByGlyphIndex.clear();
+    }
+
+    @Override
+    public boolean reusable() {
+        return true;
+    }
+
     @Override
     protected void onApply(long glyph, int localIndex, int globalIndex, float delta) {
         // Calculate real intensity
@@ -63,4 +74,16 @@ public class EmergeEffect extends Effect {
         label.sizing.incr(globalIndex << 1 | 1, interpolatedValue - 1.0f);
     }
 
+    @Override
+    public void applyRange(int start, int end, float delta) {
+        float realIntensity = intensity * (elastic ? 3f : 1f) * DEFAULT_INTENSITY;
+        Interpolation interpolation = elastic ? Interpolation.swingOut : Interpolation.sine;
+        float[] sizing = label.sizing.items;
+        for (int i = start; i <= end; i++) {
+            float timePassed = timePassedByGlyphIndex.getAndIncrement(i - indexStart, 0, delta);
+            float progress = MathUtils.clamp(timePassed / realIntensity, 0, 1);
+            sizing[i << 1 | 1] += interpolation.apply(progress) - 1.0f;
+        }
+    }
+
 }
@@ -59,6 +59,17 @@ public class FadeEffect extends Effect {
         }
     }
 
+    @Override
+    public void reset() {
+        super.reset();
+        timePassedByGlyphIndex.clear();
+    }
+
+    @Override
+    public boolean reusable() {
+        return true;
+    }
+
     @Override
     protected void onApply(long glyph, int localIndex, int globalIndex, float delta) {
         // Calculate progress
@@ -84,4 +95,27 @@ public class FadeEffect extends Effect {
         }
     }
 
+    @Override
+    public void applyRange(int start, int end, float delta) {
+        for (int i = start; i <= end; i++) {
+            long glyph = label.getInWorkingLayout(i);
+            if (glyph == 0xFFFFFFL) break;
+            float timePassed = timePassedByGlyphIndex.getAndIncrement(i - indexStart, 0, delta);
+            float progress = MathUtils.clamp(timePassed / fadeDuration, 0, 1);
+
+            // Calculate initial color
+            if (this.color1 == 256)
+                glyph = (glyph & 0xFFFFFF00FFFFFFFFL) | (long) MathUtils.lerp(glyph >>> 32 & 255, this.alpha1 * 255, 1f - progress) << 32;
+            else
+                glyph = (glyph & 0xFFFFFFFFL) | (long) ColorUtils.lerpColors((int) (glyph >>> 32), this.color1, 1f - progress) << 32;
+
+            // Calculate final color
+            if (this.color2 == 256)
+                glyph = (glyph & 0xFFFFFF00FFFFFFFFL) | (long) MathUtils.lerp(glyph >>> 32 & 255, this.alpha2 * 255, progress) << 32;
+            else
+                glyph = (glyph & 0xFFFFFFFFL) | (long) ColorUtils.lerpColors((int) (glyph >>> 32), this.color2, progress) << 32;
+            label.setInWorkingLayout(i, glyph);
+        }
+    }
+
 }
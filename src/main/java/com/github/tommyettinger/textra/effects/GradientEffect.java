@@ -58,6 +58,11 @@ public class GradientEffect extends Effect {
         }
     }
 
+    @Override
+    public boolean reusable() {
+        return true;
+    }
+
     @Override
     protected void onApply(long glyph, int localIndex, int globalIndex, float delta) {
         // Calculate progress
@@ -70,4 +75,17 @@ public class GradientEffect extends Effect {
                 (glyph & 0xFFFFFFFFL) | (long) ColorUtils.lerpColors(this.color1, this.color2, progress) << 32);
     }
 
+    @Override
+    public void applyRange(int start, int end, float delta) {
+        float distanceMod = (1f / distance) * (1f - DEFAULT_DISTANCE);
+        float frequencyMod = (1f / frequency) * DEFAULT_FREQUENCY;
+        for (int i = start; i <= end; i++) {
+            long glyph = label.getInWorkingLayout(i);
+            if (glyph == 0xFFFFFFL) break;
+            float progress = calculateProgress(frequencyMod, distanceMod * (i - indexStart), true);
+            label.setInWorkingLayout(i,
+                    (glyph & 0xFFFFFFFFL) | (long) ColorUtils.lerpColors(this.color1, this.color2, progress) << 32);
+        }
+    }
+
 }
@@ -48,6 +48,17 @@ public class HangEffect extends Effect {
         }
     }
 
+    @Override
+    public void reset() {
+        super.reset();
+        timePassedByGlyphIndex.clear();
+    }
+
+    @Override
+    public boolean reusable() {
+        return true;
+    }
+
     @Override
     protected void onApply(long glyph, int localIndex, int globalIndex, float delta) {
         // Calculate real intensity
@@ -77,4 +88,24 @@ public class HangEffect extends Effect {
         label.offsets.incr(globalIndex << 1 | 1, y);
     }
 
+    @Override
+    public void applyRange(int start, int end, float delta) {
+        float realIntensity = intensity * 1f * DEFAULT_INTENSITY;
+        float fadeout = calculateFadeout();
+        float split = 0.7f;
+        float[] offsets = label.offsets.items;
+        for (int i = start; i <= end; i++) {
+            float timePassed = timePassedByGlyphIndex.getAndIncrement(i - indexStart, 0, delta);
+            float progress = MathUtils.clamp(timePassed / realIntensity, 0, 1);
+            float interpolation;
+            if (progress < split) {
+                interpolation = Interpolation.pow3Out.apply(0, 1, progress / split);
+            } else {
+                interpolation = Interpolation.swing.apply(1, 0, (progress - split) / (1f - split));
+            }
+            float distanceFactor = Interpolation.linear.apply(1.0f, 1.5f, progress);
+            offsets[i << 1 | 1] += label.getLineHeight(i) * distance * distanceFactor * interpolation * DEFAULT_DISTANCE * fadeout;
+        }
+    }
+
 }
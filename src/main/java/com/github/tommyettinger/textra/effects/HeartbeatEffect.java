@@ -49,6 +49,11 @@ public class HeartbeatEffect extends Effect {
         }
     }
 
+    @Override
+    public boolean reusable() {
+        return true;
+    }
+
     @Override
     protected void onApply(long glyph, int localIndex, int globalIndex, float delta) {
         // Calculate progress
@@ -71,4 +76,17 @@ public class HeartbeatEffect extends Effect {
 //        label.offsets.incr(globalIndex << 1 | 1, lineHeight * (-0.5f * x));
     }
 
+    @Override
+    public void applyRange(int start, int end, float delta) {
+        // Every glyph gets the same change, so it is only calculated once
+        float progress = totalTime * frequency * 360.0f * DEFAULT_FREQUENCY;
+        float c = MathUtils.cosDeg(progress), s = MathUtils.sinDeg(progress);
+        float x = distance * Math.max(-0.125f, Math.max(c * c * c, s * s * s)) * DEFAULT_DISTANCE;
+        x *= calculateFadeout();
+        float[] sizing = label.sizing.items;
+        for (int i = start << 1, n = end << 1 | 1; i <= n; i++) {
+            sizing[i] += x;
+        }
+    }
+
 }
@@ -71,6 +71,11 @@ public class HighlightEffect extends Effect {
         }
     }
 
+    @Override
+    public boolean reusable() {
+        return true;
+    }
+
     @Override
     protected void onApply(long glyph, int localIndex, int globalIndex, float delta) {
         if(all) {
@@ -93,4 +98,22 @@ public class HighlightEffect extends Effect {
         label.setInWorkingLayout(globalIndex, (glyph & 0xFFFFFFFFL) | (long) ColorUtils.hsl2rgb(progress, saturation, brightness, 1f) << 32);
     }
 
+    @Override
+    public void applyRange(int start, int end, float delta) {
+        int over = label.overIndex;
+        boolean inside = over >= indexStart && over <= indexEnd;
+        float distanceMod = (1f / distance) * (1f - DEFAULT_DISTANCE);
+        float frequencyMod = (1f / frequency) * DEFAULT_FREQUENCY;
+        for (int i = start; i <= end; i++) {
+            long glyph = label.getInWorkingLayout(i);
+            if (glyph == 0xFFFFFFL) break;
+            if (all ? !inside : over != i) {
+                label.setInWorkingLayout(i, (glyph & 0xFFFFFFFFL) | (long) baseColor << 32);
+                continue;
+            }
+            float progress = calculateProgress(frequencyMod, distanceMod * (i - indexStart), false);
+            label.setInWorkingLayout(i, (glyph & 0xFFFFFFFFL) | (long) ColorUtils.hsl2rgb(progress, saturation, brightness, 1f) << 32);
+        }
+    }
+
 }
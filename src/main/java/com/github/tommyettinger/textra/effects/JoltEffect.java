@@ -75,6 +75,17 @@ public class JoltEffect extends Effect {
 
     }
 
+    @Override
+    public void reset() {
+        super.reset();
+        lastOffsets.clear();
+    }
+
+    @Override
+    public boolean reusable() {
+        return true;
+    }
+
     @Override
     protected void onApply(long glyph, int localIndex, int globalIndex, float delta) {
         // Make sure we can hold enough entries for the current index
@@ -124,6 +135,48 @@ public class JoltEffect extends Effect {
         label.offsets.incr(globalIndex << 1 | 1, y);
     }
 
+    @Override
+    public void applyRange(int start, int end, float delta) {
+        float normalIntensity = MathUtils.clamp(intensity * DEFAULT_INTENSITY, 0, 1);
+        float fadeout = calculateFadeout();
+        long time = TimeUtils.millis() >>> 10;
+        float[] offsets = label.offsets.items;
+        for (int i = start; i <= end; i++) {
+            long glyph = label.getInWorkingLayout(i);
+            if (glyph == 0xFFFFFFL) break;
+            int localIndex = i - indexStart;
+            if (localIndex >= lastOffsets.size / 2) {
+                lastOffsets.setSize(lastOffsets.size + 16);
+            }
+            float lastX = lastOffsets.get(localIndex * 2);
+            float lastY = lastOffsets.get(localIndex * 2 + 1);
+
+            float x = 0f, y = 0f;
+            if (likelihood > determineFloat(time * i + localIndex)) {
+                float lineHeight = label.getLineHeight(i);
+                x = lineHeight * distance * MathUtils.random(-1f, 1f) * DEFAULT_DISTANCE;
+                y = lineHeight * distance * MathUtils.random(-1f, 1f) * DEFAULT_DISTANCE;
+                x = MathUtils.round(Interpolation.linear.apply(lastX, x, normalIntensity) * fadeout);
+                y = MathUtils.round(Interpolation.linear.apply(lastY, y, normalIntensity) * fadeout);
+                if (fadeout > 0) {
+                    if(baseColor == 256)
+                        label.setInWorkingLayout(i, glyph);
+                    else
+                        label.setInWorkingLayout(i, (glyph & 0xFFFFFFFFL) | (long) joltColor << 32);
+                }
+            } else {
+                if(baseColor == 256)
+                    label.setInWorkingLayout(i, glyph);
+                else
+                    label.setInWorkingLayout(i, (glyph & 0xFFFFFFFFL) | (long) baseColor << 32);
+            }
+            lastOffsets.set(localIndex * 2, x);
+            lastOffsets.set(localIndex * 2 + 1, y);
+            offsets[i << 1] += x;
+            offsets[i << 1 | 1] += y;
+        }
+    }
+
     private static float determineFloat(long state) {
         return ((((state = (((state * 0x632BE59BD9B4E019L) ^ 0x9E3779B97F4A7C15L) * 0xC6BC279692B5CC83L)) ^ state >>> 27) * 0xAEF17502108EF2D9L) >>> 40) * 0x1p-24f;
     }
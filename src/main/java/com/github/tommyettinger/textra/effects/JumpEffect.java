@@ -56,6 +56,11 @@ public class JumpEffect extends Effect {
         }
     }
 
+    @Override
+    public boolean reusable() {
+        return true;
+    }
+
     @Override
     protected void onApply(long glyph, int localIndex, int globalIndex, float delta) {
         // Calculate progress
@@ -82,4 +87,23 @@ public class JumpEffect extends Effect {
         label.offsets.incr(globalIndex << 1 | 1, y);
     }
 
+    @Override
+    public void applyRange(int start, int end, float delta) {
+        float progressModifier = (1f / intensity) * DEFAULT_INTENSITY;
+        float normalFrequency = (1f / frequency) * DEFAULT_FREQUENCY;
+        float fadeout = calculateFadeout();
+        float split = 0.2f;
+        float[] offsets = label.offsets.items;
+        for (int i = start; i <= end; i++) {
+            float progress = calculateProgress(progressModifier, -((i - indexStart) / normalFrequency), false);
+            float interpolation;
+            if (progress < split) {
+                interpolation = Interpolation.pow2Out.apply(0, 1, progress / split);
+            } else {
+                interpolation = Interpolation.bounceOut.apply(1, 0, (progress - split) / (1f - split));
+            }
+            offsets[i << 1 | 1] += label.getLineHeight(i) * distance * interpolation * DEFAULT_DISTANCE * fadeout;
+        }
+    }
+
 }
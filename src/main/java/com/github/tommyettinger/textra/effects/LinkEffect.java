@@ -39,6 +39,11 @@ public class LinkEffect extends Effect {
         }
     }
 
+    @Override
+    public boolean reusable() {
+        return true;
+    }
+
     @Override
     protected void onApply(long glyph, int localIndex, int globalIndex, float delta) {
         if(label.lastTouchedIndex == globalIndex){
@@ -47,4 +52,13 @@ public class LinkEffect extends Effect {
         }
     }
 
+    @Override
+    public void applyRange(int start, int end, float delta) {
+        int touched = label.lastTouchedIndex;
+        if (touched >= start && touched <= end) {
+            label.lastTouchedIndex = -1;
+            Gdx.net.openURI(link);
+        }
+    }
+
 }
@@ -64,6 +64,11 @@ public class OceanEffect extends Effect {
         }
     }
 
+    @Override
+    public boolean reusable() {
+        return true;
+    }
+
     @Override
     protected void onApply(long glyph, int localIndex, int globalIndex, float delta) {
         // Calculate progress
@@ -76,4 +81,18 @@ public class OceanEffect extends Effect {
                         0.15f - Math.abs(NoiseUtils.noise1D(progress * 3f + progress * progress, -123456789)) * 0.3f + brightness, 1f) << 32);
     }
 
+    @Override
+    public void applyRange(int start, int end, float delta) {
+        float distanceMod = (1f / distance) * (1f - DEFAULT_DISTANCE);
+        float frequencyMod = (1f / frequency) * DEFAULT_FREQUENCY;
+        for (int i = start; i <= end; i++) {
+            long glyph = label.getInWorkingLayout(i);
+            if (glyph == 0xFFFFFFL) break;
+            float progress = calculateProgress(frequencyMod, distanceMod * (i - indexStart), false);
+            label.setInWorkingLayout(i, (glyph & 0xFFFFFFFFL) |
+                    (long) ColorUtils.hsl2rgb(NoiseUtils.octaveNoise1D(progress * 5f, 12345) * 0.15f + hue, saturation,
+                            0.15f - Math.abs(NoiseUtils.noise1D(progress * 3f + progress * progress, -123456789)) * 0.3f + brightness, 1f) << 32);
+        }
+    }
+
 }
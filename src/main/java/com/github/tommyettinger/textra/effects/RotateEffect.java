@@ -34,9 +34,22 @@ public class RotateEffect extends Effect {
         }
     }
 
+    @Override
+    public boolean reusable() {
+        return true;
+    }
+
     @Override
     protected void onApply(long glyph, int localIndex, int globalIndex, float delta) {
         label.rotations.incr(globalIndex, rotation);
     }
 
+    @Override
+    public void applyRange(int start, int end, float delta) {
+        float[] rotations = label.rotations.items;
+        for (int i = start; i <= end; i++) {
+            rotations[i] += rotation;
+        }
+    }
+
 }
@@ -40,10 +40,25 @@ public class ScaleEffect extends Effect {
         }
     }
 
+    @Override
+    public boolean reusable() {
+        return true;
+    }
+
     @Override
     protected void onApply(long glyph, int localIndex, int globalIndex, float delta) {
         label.sizing.incr(globalIndex << 1, sizeX - 1f);
         label.sizing.incr(globalIndex << 1 | 1, sizeY - 1f);
     }
 
+    @Override
+    public void applyRange(int start, int end, float delta) {
+        float x = sizeX - 1f, y = sizeY - 1f;
+        float[] sizing = label.sizing.items;
+        for (int i = start << 1, n = end << 1; i <= n; i += 2) {
+            sizing[i] += x;
+            sizing[i + 1] += y;
+        }
+    }
+
 }
@@ -53,6 +53,17 @@ public class ShakeEffect extends Effect {
         }
     }
 
+    @Override
+    public void reset() {
+        super.reset();
+        lastOffsets.clear();
+    }
+
+    @Override
+    public boolean reusable() {
+        return true;
+    }
+
     @Override
     protected void onApply(long glyph, int localIndex, int globalIndex, float delta) {
         // Make sure we can hold enough entries for the current index
@@ -89,4 +100,27 @@ public class ShakeEffect extends Effect {
         label.offsets.incr(globalIndex << 1 | 1, y);
     }
 
+    @Override
+    public void applyRange(int start, int end, float delta) {
+        float normalIntensity = MathUtils.clamp(intensity * DEFAULT_INTENSITY, 0, 1);
+        float fadeout = calculateFadeout();
+        int needed = (end - indexStart + 1) * 2;
+        while (lastOffsets.size < needed) {
+            lastOffsets.setSize(lastOffsets.size + 16);
+        }
+        float[] lasts = lastOffsets.items, offsets = label.offsets.items;
+        for (int i = start; i <= end; i++) {
+            int local = (i - indexStart) * 2;
+            float lineHeight = label.getLineHeight(i);
+            float x = lineHeight * distance * MathUtils.random(-1f, 1f) * DEFAULT_DISTANCE;
+            float y = lineHeight * distance * MathUtils.random(-1f, 1f) * DEFAULT_DISTANCE;
+            x = MathUtils.round(Interpolation.linear.apply(lasts[local], x, normalIntensity) * fadeout);
+            y = MathUtils.round(Interpolation.linear.apply(lasts[local + 1], y, normalIntensity) * fadeout);
+            lasts[local] = x;
+            lasts[local + 1] = y;
+            offsets[i << 1] += x;
+            offsets[i << 1 | 1] += y;
+        }
+    }
+
 }
@@ -54,6 +54,17 @@ public class ShrinkEffect extends Effect {
         }
     }
 
+    @Override
+    public void reset() {
+        super.reset();
+        timePassedByGlyphIndex.clear();
+    }
+
+    @Override
+    public boolean reusable() {
+        return true;
+    }
+
     @Override
     protected void onApply(long glyph, int localIndex, int globalIndex, float delta) {
         // Calculate real intensity
@@ -72,4 +83,18 @@ public class ShrinkEffect extends Effect {
         label.sizing.incr(globalIndex << 1 | 1, interpolatedValue);
     }
 
+    @Override
+    public void applyRange(int start, int end, float delta) {
+        float realIntensity = intensity * (elastic ? 3f : 1f) * DEFAULT_INTENSITY;
+        Interpolation interpolation = elastic ? Interpolation.swingOut : Interpolation.sine;
+        float[] sizing = label.sizing.items;
+        for (int i = start; i <= end; i++) {
+            float timePassed = timePassedByGlyphIndex.getAndIncrement(i - indexStart, 0, delta);
+            float progress = MathUtils.clamp(timePassed / realIntensity, 0, 1);
+            float interpolatedValue = interpolation.apply(distance * DEFAULT_DISTANCE, 0f, progress);
+            sizing[i << 1] += interpolatedValue;
+            sizing[i << 1 | 1] += interpolatedValue;
+        }
+    }
+
 }
@@ -53,6 +53,17 @@ public class SickEffect extends Effect {
         }
     }
 
+    @Override
+    public void reset() {
+        super.reset();
+        indices.clear();
+    }
+
+    @Override
+    public boolean reusable() {
+        return true;
+    }
+
     @Override
     protected void onApply(long glyph, int localIndex, int globalIndex, float delta) {
         // Calculate progress
@@ -95,4 +106,41 @@ public class SickEffect extends Effect {
         label.offsets.incr(globalIndex << 1 | 1, -y);
     }
 
+    @Override
+    public void applyRange(int start, int end, float delta) {
+        float progressModifier = (1f / intensity) * DEFAULT_INTENSITY;
+        float fadeout = calculateFadeout();
+        float split = 0.5f;
+        float[] offsets = label.offsets.items;
+        for (int i = start; i <= end; i++) {
+            int localIndex = i - indexStart;
+            float progress = calculateProgress(progressModifier, -(localIndex / DEFAULT_FREQUENCY), false);
+
+            if (progress < .01f && Math.random() > .25f && !indices.contains(localIndex))
+                indices.add(localIndex);
+            if (progress > .95f)
+                indices.removeValue(localIndex);
+
+            boolean here = indices.contains(localIndex);
+            boolean beside = indices.contains(localIndex - 1) || indices.contains(localIndex + 1);
+            if (!here && !beside &&
+                    !indices.contains(localIndex - 2) &&
+                    !indices.contains(localIndex + 2))
+                continue;
+
+            float interpolation;
+            if (progress < split) {
+                interpolation = Interpolation.pow2Out.apply(0, 1, progress / split);
+            } else {
+                interpolation = Interpolation.pow2In.apply(1, 0, (progress - split) / (1f - split));
+            }
+            float y = label.getLineHeight(i) * distance * interpolation * DEFAULT_DISTANCE;
+            if (here)
+                y *= 2.15f;
+            if (beside)
+                y *= 1.35f;
+            offsets[i << 1 | 1] -= y * fadeout;
+        }
+    }
+
 }
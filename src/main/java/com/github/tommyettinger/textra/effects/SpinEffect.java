@@ -53,6 +53,17 @@ public class SpinEffect extends Effect {
         }
     }
 
+    @Override
+    public void reset() {
+        super.reset();
+        timePassedByGlyphIndex.clear();
+    }
+
+    @Override
+    public boolean reusable() {
+        return true;
+    }
+
     @Override
     protected void onApply(long glyph, int localIndex, int globalIndex, float delta) {
         // Calculate real intensity
@@ -69,4 +80,16 @@ public class SpinEffect extends Effect {
         label.rotations.incr(globalIndex, interpolatedValue);
     }
 
+    @Override
+    public void applyRange(int start, int end, float delta) {
+        float realIntensity = intensity * (elastic ? 3f : 1f) * DEFAULT_INTENSITY;
+        Interpolation interpolation = elastic ? Interpolation.bounceOut : Interpolation.pow3Out;
+        float[] rotations = label.rotations.items;
+        for (int i = start; i <= end; i++) {
+            float timePassed = timePassedByGlyphIndex.getAndIncrement(i - indexStart, 0, delta);
+            float progress = MathUtils.clamp(timePassed / realIntensity, 0, 1);
+            rotations[i] += interpolation.apply(progress) * 360.0f * this.rotations;
+        }
+    }
+
 }
@@ -57,6 +57,11 @@ public class SputterEffect extends Effect {
         }
     }
 
+    @Override
+    public boolean reusable() {
+        return true;
+    }
+
     @Override
     protected void onApply(long glyph, int localIndex, int globalIndex, float delta) {
         // Calculate offset
@@ -80,4 +85,17 @@ public class SputterEffect extends Effect {
 
     }
 
+    @Override
+    public void applyRange(int start, int end, float delta) {
+        float time = (TimeUtils.millis() & 0xFFFFFF) * intensity * DEFAULT_INTENSITY;
+        float fadeout = calculateFadeout();
+        float[] sizing = label.sizing.items;
+        for (int i = start; i <= end; i++) {
+            float h = NoiseUtils.octaveNoise1D(time + i * 0.1f, i);
+            float v = NoiseUtils.octaveNoise1D(time + i * 0.1f, ~i);
+            sizing[i << 1] += (h * h * h * widen * DEFAULT_WIDEN - v * 0.25f) * fadeout;
+            sizing[i << 1 | 1] += (v * v * v * heighten * DEFAULT_HEIGHTEN - h * 0.25f) * fadeout;
+        }
+    }
+
 }
@@ -48,6 +48,17 @@ public class SquashEffect extends Effect {
         }
     }
 
+    @Override
+    public void reset() {
+        super.reset();
+        timePassedByGlyphIndex.clear();
+    }
+
+    @Override
+    public boolean reusable() {
+        return true;
+    }
+
     @Override
     protected void onApply(long glyph, int localIndex, int globalIndex, float delta) {
         // Calculate real intensity
@@ -62,18 +73,40 @@ public class SquashEffect extends Effect {
         // Calculate offset
         if (progress < 0.4f) {
             float interpolatedValue = 1f - Interpolation.sine.apply(progress * 2.5f) * 0.5f;
-            label.offsets.incr(globalIndex << 1, font.mapping.get((char) glyph, font.defaultValue).xAdvance * (0.125f - 0.125f * interpolatedValue));
+            label.offsets.incr(globalIndex << 1, font.getGlyph((char) glyph, font.defaultValue).xAdvance * (0.125f - 0.125f * interpolatedValue));
             label.sizing.incr(globalIndex << 1, 1.0f - interpolatedValue);
             label.sizing.incr(globalIndex << 1 | 1, interpolatedValue - 1.0f);
         } else {
             Interpolation interpolation = elastic ? Interpolation.swingOut : Interpolation.sine;
             float interpolatedValue = interpolation.apply((progress - 0.4f) * 1.666f) * 0.5f + 0.5f;
-            label.offsets.incr(globalIndex << 1, font.mapping.get((char) glyph, font.defaultValue).xAdvance * (0.125f - 0.125f * interpolatedValue));
+            label.offsets.incr(globalIndex << 1, font.getGlyph((char) glyph, font.defaultValue).xAdvance * (0.125f - 0.125f * interpolatedValue));
             label.sizing.incr(globalIndex << 1, 1.0f - interpolatedValue);
             label.sizing.incr(globalIndex << 1 | 1, interpolatedValue - 1.0f);
         }
     }
 
+    @Override
+    public void applyRange(int start, int end, float delta) {
+        float realIntensity = intensity * (elastic ? 3f : 1f) * DEFAULT_INTENSITY;
+        Interpolation interpolation = elastic ? Interpolation.swingOut : Interpolation.sine;
+        Font font = label.getFont();
+        float[] offsets = label.offsets.items, sizing = label.sizing.items;
+        for (int i = start; i <= end; i++) {
+            long glyph = label.getInWorkingLayout(i);
+            if (glyph == 0xFFFFFFL) break;
+            float timePassed = timePassedByGlyphIndex.getAndIncrement(i - indexStart, 0, delta);
+            float progress = MathUtils.clamp(timePassed / realIntensity, 0, 1);
+            float interpolatedValue;
+            if (progress < 0.4f)
+                interpolatedValue = 1f - Interpolation.sine.apply(progress * 2.5f) * 0.5f;
+            else
+                interpolatedValue = interpolation.apply((progress - 0.4f) * 1.666f) * 0.5f + 0.5f;
+            offsets[i << 1] += font.getGlyph((char) glyph, font.defaultValue).xAdvance * (0.125f - 0.125f * interpolatedValue);
+            sizing[i << 1] += 1.0f - interpolatedValue;
+            sizing[i << 1 | 1] += interpolatedValue - 1.0f;
+        }
+    }
+
     {
     }
 
@@ -67,6 +67,11 @@ public class StylistEffect extends Effect {
         }
     }
 
+    @Override
+    public boolean reusable() {
+        return true;
+    }
+
     @Override
     protected void onApply(long glyph, int localIndex, int globalIndex, float delta) {
         if(all) {
@@ -85,4 +90,18 @@ public class StylistEffect extends Effect {
         label.setInWorkingLayout(globalIndex, (glyph & 0xFFFFFFFF01FFFFFFL) | effects);
     }
 
+    @Override
+    public void applyRange(int start, int end, float delta) {
+        int over = label.overIndex;
+        boolean inside = over >= indexStart && over <= indexEnd;
+        for (int i = start; i <= end; i++) {
+            long glyph = label.getInWorkingLayout(i);
+            if (glyph == 0xFFFFFFL) break;
+            if (all ? inside : over == i)
+                label.setInWorkingLayout(i, (glyph & 0xFFFFFFFF01FFFFFFL) | effects);
+            else
+                label.setInWorkingLayout(i, (glyph & 0xFFFFFFFF01FFFFFFL));
+        }
+    }
+
 }
@@ -38,6 +38,11 @@ public class TriggerEffect extends Effect {
         }
     }
 
+    @Override
+    public boolean reusable() {
+        return true;
+    }
+
     @Override
     protected void onApply(long glyph, int localIndex, int globalIndex, float delta) {
         if(label.lastTouchedIndex == globalIndex){
@@ -46,4 +51,13 @@ public class TriggerEffect extends Effect {
         }
     }
 
+    @Override
+    public void applyRange(int start, int end, float delta) {
+        int touched = label.lastTouchedIndex;
+        if (touched >= start && touched <= end) {
+            label.lastTouchedIndex = -1;
+            label.triggerEvent(event, true);
+        }
+    }
+
 }
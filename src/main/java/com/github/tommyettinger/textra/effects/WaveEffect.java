@@ -56,6 +56,11 @@ public class WaveEffect extends Effect {
         }
     }
 
+    @Override
+    public boolean reusable() {
+        return true;
+    }
+
     @Override
     protected void onApply(long glyph, int localIndex, int globalIndex, float delta) {
         // Calculate progress
@@ -75,4 +80,16 @@ public class WaveEffect extends Effect {
         label.offsets.incr(globalIndex << 1 | 1, y);
     }
 
+    @Override
+    public void applyRange(int start, int end, float delta) {
+        float progressModifier = (1f / intensity) * DEFAULT_INTENSITY;
+        float normalFrequency = (1f / frequency) * DEFAULT_FREQUENCY;
+        float fadeout = calculateFadeout();
+        float[] offsets = label.offsets.items;
+        for (int i = start; i <= end; i++) {
+            float progress = calculateProgress(progressModifier, (i - indexStart) / normalFrequency);
+            offsets[i << 1 | 1] += label.getLineHeight(i) * distance * Interpolation.sine.apply(-1, 1, progress) * DEFAULT_DISTANCE * fadeout;
+        }
+    }
+
 }
@@ -68,6 +68,18 @@ public class WindEffect extends Effect {
         }
     }
 
+    @Override
+    public void reset() {
+        super.reset();
+        noiseCursorX = 0;
+        noiseCursorY = 0;
+    }
+
+    @Override
+    public boolean reusable() {
+        return true;
+    }
+
     @Override
     public void update(float delta) {
         super.update(delta);
@@ -108,4 +120,29 @@ public class WindEffect extends Effect {
         label.offsets.incr(globalIndex << 1, x);
         label.offsets.incr(globalIndex << 1 | 1, y);
     }
+
+    @Override
+    public void applyRange(int start, int end, float delta) {
+        float progressModifier = DEFAULT_INTENSITY / intensity;
+        float normalSpacing = DEFAULT_SPACING / spacing;
+        float fadeout = calculateFadeout();
+        float sign = -Math.signum(distanceX);
+        float[] offsets = label.offsets.items;
+        for (int i = start; i <= end; i++) {
+            int localIndex = i - indexStart;
+            float progress = calculateProgress(progressModifier, localIndex / normalSpacing);
+
+            float indexOffset = localIndex * 0.05f * spacing;
+            float noiseX = NoiseUtils.octaveNoise1D(noiseCursorX + indexOffset, 123);
+            float noiseY = NoiseUtils.octaveNoise1D(noiseCursorY + indexOffset, -4321);
+
+            float lineHeight = label.getLineHeight(i);
+            float x = lineHeight * noiseX * progress * distanceX * DISTANCE_X_RATIO * DEFAULT_DISTANCE * fadeout;
+            float y = lineHeight * noiseY * progress * distanceY * DISTANCE_Y_RATIO * DEFAULT_DISTANCE * fadeout;
+
+            // Add flag effect to X offset
+            offsets[i << 1] += Math.abs(x) * sign;
+            offsets[i << 1 | 1] += y;
+        }
+    }
 }
@@ -374,8 +374,6 @@ public class ColorUtils {
         return colors;
     }
 
-    private static final IntArray mixing = new IntArray(4);
-
     /**
      * Parses a color description and returns the approximate color it describes, as an RGBA8888 int color.
      * Color descriptions consist of one or more alphabetical words, separated by non-alphabetical characters (typically
@@ -405,15 +403,20 @@ public class ColorUtils {
      */
     public static int describe(final String description) {
         float lightness = 0f, saturation = 0f;
-        final String[] terms = description.split("[^a-zA-Z_]+");
-        mixing.clear();
-        for(String term : terms) {
-            if (term == null || term.isEmpty()) continue;
-            final int len = term.length();
-            switch (term.charAt(0)) {
+        // colors are mixed as they are found, the same way mix() would, so no array or split() is needed,
+        // and this only uses local state, so it can be called from multiple threads at once
+        int result = 256, count = 0, c;
+        final int n = description.length();
+        for (int s = 0, e; s < n; s = e) {
+            while (s < n && !isDescriptionLetter(description.charAt(s))) s++;
+            e = s;
+            while (e < n && isDescriptionLetter(description.charAt(e))) e++;
+            if (s == e) continue;
+            final int len = e - s;
+            switch (description.charAt(s)) {
                 case 'L':
                 case 'l':
-                    if (len > 2 && (term.charAt(2) == 'g' || term.charAt(2) == 'G')) { // light
+                    if (len > 2 && (description.charAt(s + 2) == 'g' || description.charAt(s + 2) == 'G')) { // light
                         switch (len) {
                             case 9:
                                 lightness += 0.20f;
@@ -426,12 +429,13 @@ public class ColorUtils {
                                 break;
                         }
                     } else {
-                        mixing.add(NAMED.get(term, 256));
+                        c = named(description, s, e);
+                        if (c != 256) result = count++ == 0 ? c : lerpColors(result, c, 1f / count);
                     }
                     break;
                 case 'B':
                 case 'b':
-                    if (len > 3 && (term.charAt(3) == 'g' || term.charAt(3) == 'G')) { // bright
+                    if (len > 3 && (description.charAt(s + 3) == 'g' || description.charAt(s + 3) == 'G')) { // bright
                         switch (len) {
                             case 10:
                                 lightness += 0.20f;
@@ -448,12 +452,13 @@ public class ColorUtils {
                                 break;
                         }
                     } else {
-                        mixing.add(NAMED.get(term, 256));
+                        c = named(description, s, e);
+                        if (c != 256) result = count++ == 0 ? c : lerpColors(result, c, 1f / count);
                     }
                     break;
                 case 'P':
                 case 'p':
-                    if (len > 2 && (term.charAt(2) == 'l' || term.charAt(2) == 'L')) { // pale
+                    if (len > 2 && (description.charAt(s + 2) == 'l' || description.charAt(s + 2) == 'L')) { // pale
                         switch (len) {
                             case 8: // palemost
                             case 7: // palerer
@@ -471,12 +476,13 @@ public class ColorUtils {
                                 break;
                         }
                     } else {
-                        mixing.add(NAMED.get(term, 256));
+                        c = named(description, s, e);
+                        if (c != 256) result = count++ == 0 ? c : lerpColors(result, c, 1f / count);
                     }
                     break;
                 case 'W':
                 case 'w':
-                    if (len > 3 && (term.charAt(3) == 'k' || term.charAt(3) == 'K')) { // weak
+                    if (len > 3 && (description.charAt(s + 3) == 'k' || description.charAt(s + 3) == 'K')) { // weak
                         switch (len) {
                             case 8:
                                 lightness -= 0.20f;
@@ -493,12 +499,13 @@ public class ColorUtils {
                                 break;
                         }
                     } else {
-                        mixing.add(NAMED.get(term, 256));
+                        c = named(description, s, e);
+                        if (c != 256) result = count++ == 0 ? c : lerpColors(result, c, 1f / count);
                     }
                     break;
                 case 'R':
                 case 'r':
-                    if (len > 1 && (term.charAt(1) == 'i' || term.charAt(1) == 'I')) { // rich
+                    if (len > 1 && (description.charAt(s + 1) == 'i' || description.charAt(s + 1) == 'I')) { // rich
                         switch (len) {
                             case 8:
                                 saturation += 0.200f;
@@ -511,12 +518,13 @@ public class ColorUtils {
                                 break;
                         }
                     } else {
-                        mixing.add(NAMED.get(term, 256));
+                        c = named(description, s, e);
+                        if (c != 256) result = count++ == 0 ? c : lerpColors(result, c, 1f / count);
                     }
                     break;
                 case 'D':
                 case 'd':
-                    if (len > 1 && (term.charAt(1) == 'a' || term.charAt(1) == 'A')) { // dark
+                    if (len > 1 && (description.charAt(s + 1) == 'a' || description.charAt(s + 1) == 'A')) { // dark
                         switch (len) {
                             case 8:
                                 lightness -= 0.20f;
@@ -528,7 +536,7 @@ public class ColorUtils {
                                 lightness -= 0.20f;
                                 break;
                         }
-                    } else if (len > 1 && (term.charAt(1) == 'u' || term.charAt(1) == 'U')) { // dull
+                    } else if (len > 1 && (description.charAt(s + 1) == 'u' || description.charAt(s + 1) == 'U')) { // dull
                         switch (len) {
                             case 8:
                                 saturation -= 0.200f;
@@ -540,7 +548,7 @@ public class ColorUtils {
                                 saturation -= 0.200f;
                                 break;
                         }
-                    } else if (len > 3 && (term.charAt(3) == 'p' || term.charAt(3) == 'P')) { // deep
+                    } else if (len > 3 && (description.charAt(s + 3) == 'p' || description.charAt(s + 3) == 'P')) { // deep
                         switch (len) {
                             case 8:
                                 lightness -= 0.20f;
@@ -557,17 +565,18 @@ public class ColorUtils {
                                 break;
                         }
                     } else {
-                        mixing.add(NAMED.get(term, 256));
+                        c = named(description, s, e);
+                        if (c != 256) result = count++ == 0 ? c : lerpColors(result, c, 1f / count);
                     }
                     break;
                 default:
-                    mixing.add(NAMED.get(term, 256));
+                    c = named(description, s, e);
+                    if (c != 256) result = count++ == 0 ? c : lerpColors(result, c, 1f / count);
                     break;
             }
         }
 
-        int result = mix(mixing.items, 0, mixing.size);
-        if(result == 256) return result;
+        if(count == 0) return 256;
 
         if(lightness > 0) result = lighten(result, lightness);
         else if(lightness < 0) result = darken(result, -lightness);
@@ -577,4 +586,16 @@ public class ColorUtils {
 
         return result;
     }
+
+    private static boolean isDescriptionLetter(char c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || c == '_';
+    }
+
+    /**
+     * Looks up the color name in {@code description} from {@code start} (inclusive) to {@code end} (exclusive) in
+     * {@link Palette#NAMED}. Only allocates a substring if the name isn't the whole description.
+     */
+    private static int named(final String description, final int start, final int end) {
+        return NAMED.get(start == 0 && end == description.length() ? description : description.substring(start, end), 256);
+    }
 }
@@ -21,6 +21,7 @@ import com.badlogic.gdx.graphics.Colors;
 import com.badlogic.gdx.utils.Array;
 import com.badlogic.gdx.utils.IntArray;
 import com.badlogic.gdx.utils.ObjectIntMap;
+import com.github.tommyettinger.textra.ColorLookup;
 
 /**
  * Combines 50 colors chosen to be generally distinct with the 34 colors libGDX defines in {@link Colors}. Some colors
@@ -1014,7 +1015,8 @@ public final class Palette {
     }
 
     /**
-     * Modifies the Palette by adding a color with its name.
+     * Modifies the Palette by adding a color with its name. This also clears the cache used by
+     * {@link ColorLookup#DESCRIPTIVE}, so descriptions looked up before the color was added can find it.
      * @param name the name of the color to add; should not be already present in {@link #NAMED}
      * @param rgba8888 an int color as RGBA8888 to associate with the given name
      * @return true if this entered a new color, or false if name was already present (so nothing was added).
@@ -1026,6 +1028,8 @@ public final class Palette {
         LIST.add(rgba8888);
         NAMES.add(name);
         NAMES.sort();
+        if (ColorLookup.DESCRIPTIVE instanceof ColorLookup.CachingColorLookup)
+            ((ColorLookup.CachingColorLookup) ColorLookup.DESCRIPTIVE).clear();
         return true;
     }
 }
@@ -0,0 +1,76 @@
+/*
+ * Copyright (c) 2023 See AUTHORS file.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.tommyettinger.textra;
+
+import com.badlogic.gdx.ApplicationAdapter;
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.backends.lwjgl3.Lwjgl3Application;
+import com.badlogic.gdx.backends.lwjgl3.Lwjgl3ApplicationConfiguration;
+import com.badlogic.gdx.files.FileHandle;
+
+/**
+ * Converts .fnt and SadConsole .font files to the binary format Font can load quickly, writing each result next to its
+ * source file with {@link Font#BINARY_EXTENSION} as its extension. With no arguments, this converts every .fnt and
+ * .font file in knownFonts; otherwise, each argument should be the local path to a file to convert.
+ */
+public class BinaryFontConverter extends ApplicationAdapter {
+    private final String[] parameters;
+
+    public static void main(String[] args) {
+        Lwjgl3ApplicationConfiguration config = new Lwjgl3ApplicationConfiguration();
+        config.setTitle("Binary Font Converter Tool");
+        config.setWindowedMode(600, 400);
+        config.disableAudio(true);
+        config.useVsync(true);
+        new Lwjgl3Application(new BinaryFontConverter(args), config);
+    }
+
+    public BinaryFontConverter(String[] args) {
+        if(args == null || args.length == 0){
+            parameters = null;
+            System.out.println("Attempting to run on all .fnt and .font files in knownFonts.");
+            return;
+        }
+        parameters = args;
+    }
+
+    @Override
+    public void create() {
+        if(parameters == null) {
+            FileHandle[] files = Gdx.files.local("knownFonts").list((dir, name) -> name.endsWith(".fnt") || name.endsWith(".font"));
+            for (FileHandle file : files)
+                convert(file);
+        }
+        else {
+            for (String name : parameters)
+                convert(Gdx.files.local(name));
+        }
+        Gdx.app.exit();
+    }
+
+    private void convert (FileHandle file) {
+        if(!file.exists()) {
+            System.out.println("The specified file " + file + " does not exist; skipping.");
+            return;
+        }
+        FileHandle output = file.sibling(file.nameWithoutExtension() + Font.BINARY_EXTENSION);
+        long start = System.nanoTime();
+        Font.convertToBinary(file, output);
+        System.out.println("Converted " + file.name() + " (" + file.length() + " bytes) to " + output.name() + " ("
+                + output.length() + " bytes) in " + (System.nanoTime() - start) / 1000000L + " ms.");
+    }
+}
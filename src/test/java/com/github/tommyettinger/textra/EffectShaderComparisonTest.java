@@ -0,0 +1,134 @@
+/*
+ * Copyright (c) 2023 See AUTHORS file.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.github.tommyettinger.textra;
+
+import com.badlogic.gdx.ApplicationAdapter;
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.Input;
+import com.badlogic.gdx.backends.lwjgl3.Lwjgl3Application;
+import com.badlogic.gdx.backends.lwjgl3.Lwjgl3ApplicationConfiguration;
+import com.badlogic.gdx.scenes.scene2d.Stage;
+import com.badlogic.gdx.utils.ScreenUtils;
+import com.badlogic.gdx.utils.viewport.ScreenViewport;
+
+/**
+ * Draws the same outlined, shadowed, shiny, and bold text twice, with the left half using the normal way of drawing
+ * those effects (several quads per glyph) and the right half using {@link Font#useEffectShader(boolean)} (one quad per
+ * glyph). The two halves are compared pixel-by-pixel a few frames after starting, and again whenever D is pressed;
+ * the comparison fails if more than {@link #MAX_DIFFERENT_FRACTION} of the pixels differ by more than
+ * {@link #NOTICEABLE_DIFFERENCE} in any channel, and the result is printed to the console either way.
+ */
+public class EffectShaderComparisonTest extends ApplicationAdapter {
+    static final int HALF_WIDTH = 500, HEIGHT = 500;
+    /**
+     * A pixel differs noticeably if any channel differs by more than this, out of 255.
+     */
+    static final int NOTICEABLE_DIFFERENCE = 8;
+    /**
+     * The largest fraction of pixels that can differ noticeably for the comparison to pass; antialiased edges differ
+     * slightly between the two ways of drawing, but a missing or misplaced effect changes far more pixels than this.
+     */
+    static final double MAX_DIFFERENT_FRACTION = 0.005;
+    int frames = 0;
+    Stage stage;
+    Font multipass, singleQuad;
+
+    @Override
+    public void create() {
+        stage = new Stage(new ScreenViewport());
+        multipass = KnownFonts.getOpenSans().useIntegerPositions(true);
+        singleQuad = new Font(multipass).useEffectShader(true);
+
+        String text = "[%?black outline]Black outline, [*]bold black outline[*][%]\n" +
+                "[BLACK][%?white outline]White outline, [*]bold white outline[*][%][WHITE]\n" +
+                "[%?shadow]Drop shadow, [*]bold drop shadow[*][%]\n" +
+                "[BLACK][%?shiny]Shiny, [*]bold shiny[*][%][WHITE]\n" +
+                "[*]Plain bold text[*] and plain text.\n" +
+                "[%?black outline][SKY]Colorful [GOLD]outlined [LIME]text!";
+
+        TextraLabel left = new TextraLabel(text, multipass);
+        left.setWrap(true);
+        left.setWidth(HALF_WIDTH - 40);
+        left.setPosition(20, HEIGHT - 40 - left.getPrefHeight());
+        TextraLabel right = new TextraLabel(text, singleQuad);
+        right.setWrap(true);
+        right.setWidth(HALF_WIDTH - 40);
+        right.setPosition(HALF_WIDTH + 20, HEIGHT - 40 - right.getPrefHeight());
+        stage.addActor(left);
+        stage.addActor(right);
+    }
+
+    /**
+     * Counts how many pixels differ between the left and right halves of the back buffer, and by how much, and prints
+     * whether that is within {@link #MAX_DIFFERENT_FRACTION}.
+     *
+     * @return true if few enough pixels differ noticeably
+     */
+    public boolean compare() {
+        int w = Math.min(Gdx.graphics.getBackBufferWidth() / 2, HALF_WIDTH), h = Gdx.graphics.getBackBufferHeight();
+        byte[] a = ScreenUtils.getFrameBufferPixels(0, 0, w, h, false);
+        byte[] b = ScreenUtils.getFrameBufferPixels(w, 0, w, h, false);
+        int different = 0, maxDifference = 0;
+        long totalDifference = 0L;
+        for (int i = 0; i < a.length; i += 4) {
+            int diff = Math.max(Math.abs((a[i] & 255) - (b[i] & 255)),
+                    Math.max(Math.abs((a[i + 1] & 255) - (b[i + 1] & 255)), Math.abs((a[i + 2] & 255) - (b[i + 2] & 255))));
+            if (diff > NOTICEABLE_DIFFERENCE) ++different;
+            maxDifference = Math.max(maxDifference, diff);
+            totalDifference += diff;
+        }
+        boolean passed = different <= MAX_DIFFERENT_FRACTION * (w * h);
+        String result = (passed ? "PASS: " : "FAIL: ") + different + " of " + (w * h)
+                + " pixels differ noticeably (at most " + (int) (MAX_DIFFERENT_FRACTION * (w * h)) + " allowed); "
+                + "max channel difference is " + maxDifference + ", mean is " + (totalDifference / (double) (w * h));
+        if (passed) System.out.println(result);
+        else System.err.println(result);
+        return passed;
+    }
+
+    @Override
+    public void render() {
+        ScreenUtils.clear(0.4f, 0.5f, 0.6f, 1f);
+        stage.act();
+        stage.draw();
+        // the first frames can still be loading textures and laying out, so wait a little before comparing
+        if (++frames == 3 || Gdx.input.isKeyJustPressed(Input.Keys.D))
+            compare();
+    }
+
+    @Override
+    public void resize(int width, int height) {
+        stage.getViewport().update(width, height, true);
+    }
+
+    @Override
+    public void dispose() {
+        stage.dispose();
+        singleQuad.dispose();
+    }
+
+    public static void main(String[] args) {
+        Lwjgl3ApplicationConfiguration config = new Lwjgl3ApplicationConfiguration();
+        config.setTitle("Multipass vs. effect shader");
+        config.setWindowedMode(HALF_WIDTH * 2, HEIGHT);
+        config.disableAudio(true);
+        config.setForegroundFPS(Lwjgl3ApplicationConfiguration.getDisplayMode().refreshRate);
+        config.useVsync(true);
+        new Lwjgl3Application(new EffectShaderComparisonTest(), config);
+    }
+}